@@ -1,5 +1,6 @@
 package com.example.MovieFlix;
 
+import com.example.MovieFlix.config.VirtualThreadConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
@@ -7,7 +8,9 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 public class MovieFlixApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(MovieFlixApplication.class, args);
+		SpringApplication application = new SpringApplication(MovieFlixApplication.class);
+		application.addListeners(new VirtualThreadConfig.SchedulerInstaller());
+		application.run(args);
 	}
 
 }
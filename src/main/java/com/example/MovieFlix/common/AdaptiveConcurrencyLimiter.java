@@ -0,0 +1,211 @@
+package com.example.MovieFlix.common;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free AIMD concurrency limiter for calls to an upstream dependency
+ *
+ * The limit grows by roughly one per window of successful calls and is cut
+ * multiplicatively when a call fails or takes longer than the latency
+ * threshold. Calls beyond the current limit are rejected immediately.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+    private final LongAdder rejected = new LongAdder();
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+            Duration latencyThreshold, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limiter bounds: " + minLimit + ".." + maxLimit);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(clamp(initialLimit)));
+    }
+
+    /**
+     * Try to take a slot for one call
+     *
+     * @return true if the call may proceed; it must then be followed by exactly one onSuccess or onFailure
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release a slot after a completed call
+     *
+     * @param latencyNanos time the call took
+     */
+    public void onSuccess(long latencyNanos) {
+        inFlight.decrementAndGet();
+        if (latencyNanos > latencyThresholdNanos) {
+            decrease();
+        } else {
+            updateLimit(limit -> limit + 1.0 / limit);
+        }
+    }
+
+    /**
+     * Release a slot after a failed call
+     */
+    public void onFailure() {
+        inFlight.decrementAndGet();
+        decrease();
+    }
+
+    /**
+     * Release a slot without feeding the outcome into the limit (e.g. cancelled calls)
+     */
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Run a reactive call under the limiter, failing fast with LimitExceededException when saturated
+     */
+    public <T> Mono<T> limit(Mono<T> call) {
+        return Mono.defer(() -> {
+            if (!tryAcquire()) {
+                return Mono.error(new LimitExceededException(name, getLimit()));
+            }
+            long start = System.nanoTime();
+            AtomicBoolean released = new AtomicBoolean();
+            return call
+                    .doOnSuccess(value -> {
+                        if (released.compareAndSet(false, true)) {
+                            onSuccess(System.nanoTime() - start);
+                        }
+                    })
+                    .doOnError(error -> {
+                        if (released.compareAndSet(false, true)) {
+                            onFailure();
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (released.compareAndSet(false, true)) {
+                            onIgnore();
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Run a streamed call under the limiter; the slot is held until the stream terminates or is cancelled
+     */
+    public <T> Flux<T> limit(Flux<T> call) {
+        return Flux.defer(() -> {
+            if (!tryAcquire()) {
+                return Flux.error(new LimitExceededException(name, getLimit()));
+            }
+            long start = System.nanoTime();
+            AtomicBoolean released = new AtomicBoolean();
+            return call
+                    .doOnComplete(() -> {
+                        if (released.compareAndSet(false, true)) {
+                            onSuccess(System.nanoTime() - start);
+                        }
+                    })
+                    .doOnError(error -> {
+                        if (released.compareAndSet(false, true)) {
+                            onFailure();
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (released.compareAndSet(false, true)) {
+                            onIgnore();
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Run a blocking call under the limiter, failing fast with LimitExceededException when saturated
+     */
+    public <T> T call(Supplier<T> call) {
+        if (!tryAcquire()) {
+            throw new LimitExceededException(name, getLimit());
+        }
+        long start = System.nanoTime();
+        try {
+            T value = call.get();
+            onSuccess(System.nanoTime() - start);
+            return value;
+        } catch (RuntimeException | Error e) {
+            onFailure();
+            throw e;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private void decrease() {
+        updateLimit(limit -> limit * backoffRatio);
+    }
+
+    private void updateLimit(DoubleUnaryOperator update) {
+        while (true) {
+            long currentBits = limitBits.get();
+            double next = clamp(update.applyAsDouble(Double.longBitsToDouble(currentBits)));
+            if (limitBits.compareAndSet(currentBits, Double.doubleToLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    private double clamp(double limit) {
+        return Math.max(minLimit, Math.min(maxLimit, limit));
+    }
+
+    /**
+     * Thrown when a call is rejected because the concurrency limit is reached
+     */
+    public static class LimitExceededException extends RuntimeException {
+        public LimitExceededException(String name, int limit) {
+            super(String.format("%s concurrency limit of %d reached", name, limit));
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.MovieFlix.common;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Fixed-capacity store of keyed vectors with exact-key and nearest-vector lookup
+ *
+ * Vectors are normalized and kept in a flat slot array; a nearest query scans
+ * every slot (a few thousand dot products - no index to keep consistent on
+ * eviction). When full, a put replaces the least recently used slot. With a
+ * frequency function, a new key is only admitted if it is asked for at least
+ * as often as that slot's key, so one-off keys cannot push out popular ones.
+ * Queries share a read lock; puts and removals take the write lock. Queries
+ * still record use, so the recency stamps are an AtomicLongArray.
+ */
+public class BoundedVectorStore<V> {
+
+    private final int capacity;
+    private final float[][] vectors;
+    private final String[] keys;
+    private final Object[] values;
+    private final AtomicLongArray lastUsed;
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ToIntFunction<String> frequency;
+
+    public BoundedVectorStore(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * @param frequency estimated request frequency of a key, used to decide admission when full (optional)
+     */
+    public BoundedVectorStore(int capacity, ToIntFunction<String> frequency) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.frequency = frequency;
+        this.vectors = new float[capacity][];
+        this.keys = new String[capacity];
+        this.values = new Object[capacity];
+        this.lastUsed = new AtomicLongArray(capacity);
+    }
+
+    /**
+     * Store or replace the vector and value for key, evicting the least recently used entry when full
+     *
+     * @return false if the store is full and key is requested less often than the entry it would evict
+     */
+    public boolean put(String key, float[] vector, V value) {
+        float[] unit = normalize(vector);
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(key);
+            if (slot == null) {
+                slot = slots.size() < capacity ? slots.size() : leastRecentlyUsed();
+                if (keys[slot] != null) {
+                    if (frequency != null && frequency.applyAsInt(key) < frequency.applyAsInt(keys[slot])) {
+                        return false;
+                    }
+                    slots.remove(keys[slot]);
+                }
+                slots.put(key, slot);
+            }
+            keys[slot] = key;
+            vectors[slot] = unit;
+            values[slot] = value;
+            lastUsed.set(slot, clock.incrementAndGet());
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Value stored under exactly this key
+     */
+    public Optional<V> get(String key) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slots.get(key);
+            if (slot == null) {
+                return Optional.empty();
+            }
+            lastUsed.set(slot, clock.incrementAndGet());
+            return Optional.of(value(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The stored entry most similar to the query, whatever its similarity; the caller applies its threshold
+     */
+    public Optional<Match<V>> nearest(float[] query) {
+        float[] unit = normalize(query);
+        lock.readLock().lock();
+        try {
+            int best = -1;
+            double bestSimilarity = -2;
+            for (int slot = 0; slot < slots.size(); slot++) {
+                float[] vector = vectors[slot];
+                if (vector.length != unit.length) {
+                    continue;
+                }
+                double similarity = 0;
+                for (int i = 0; i < unit.length; i++) {
+                    similarity += unit[i] * vector[i];
+                }
+                if (similarity > bestSimilarity) {
+                    best = slot;
+                    bestSimilarity = similarity;
+                }
+            }
+            if (best < 0) {
+                return Optional.empty();
+            }
+            lastUsed.set(best, clock.incrementAndGet());
+            return Optional.of(new Match<>(keys[best], value(best), bestSimilarity));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void remove(String key) {
+        removeIf(key::equals, null);
+    }
+
+    /**
+     * Remove every entry whose key or value matches
+     *
+     * @return number of entries removed
+     */
+    public int removeIf(Predicate<String> keyFilter, Predicate<V> valueFilter) {
+        lock.writeLock().lock();
+        try {
+            int removed = 0;
+            for (int slot = slots.size() - 1; slot >= 0; slot--) {
+                if ((keyFilter != null && keyFilter.test(keys[slot]))
+                        || (valueFilter != null && valueFilter.test(value(slot)))) {
+                    removeSlot(slot);
+                    removed++;
+                }
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Move the last occupied slot into the freed one, keeping slots 0..size-1 dense
+     */
+    private void removeSlot(int slot) {
+        slots.remove(keys[slot]);
+        int last = slots.size();
+        if (slot != last) {
+            keys[slot] = keys[last];
+            vectors[slot] = vectors[last];
+            values[slot] = values[last];
+            lastUsed.set(slot, lastUsed.get(last));
+            slots.put(keys[slot], slot);
+        }
+        keys[last] = null;
+        vectors[last] = null;
+        values[last] = null;
+    }
+
+    private int leastRecentlyUsed() {
+        int oldest = 0;
+        for (int slot = 1; slot < capacity; slot++) {
+            if (lastUsed.get(slot) < lastUsed.get(oldest)) {
+                oldest = slot;
+            }
+        }
+        return oldest;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(int slot) {
+        return (V) values[slot];
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        float scale = norm > 0 ? (float) (1 / Math.sqrt(norm)) : 0;
+        float[] unit = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            unit[i] = vector[i] * scale;
+        }
+        return unit;
+    }
+
+    /**
+     * Nearest-vector result: the stored key, its value and the cosine similarity to the query
+     */
+    public record Match<V>(String key, V value, double similarity) {
+    }
+}
@@ -0,0 +1,326 @@
+package com.example.MovieFlix.common;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Count-based circuit breaker for calls to an upstream dependency
+ *
+ * While closed, the outcome of the last window-size calls is kept; a call
+ * fails if it errors or takes longer than the slow-call threshold. Once at
+ * least minimum-calls outcomes are known and the failure rate reaches the
+ * threshold, the breaker opens and rejects every call with
+ * CircuitOpenException for the open duration. It then lets half-open-calls
+ * trial calls through: if all succeed it closes, if any fails it opens again.
+ * Calls rejected by a concurrency limiter, and cancelled calls, are not
+ * counted either way. State is guarded by a ReentrantLock rather than a
+ * monitor, so virtual threads waiting for it do not pin their carrier.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private final boolean[] outcomes;
+    private int next;
+    private int recorded;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+    private final LongAdder rejected = new LongAdder();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public CircuitBreaker(String name, double failureRateThreshold, Duration slowCallThreshold, int windowSize,
+            int minimumCalls, Duration openDuration, int halfOpenCalls) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Invalid circuit breaker settings for " + name);
+        }
+        this.name = name;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallThreshold.toNanos();
+        this.minimumCalls = minimumCalls;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.outcomes = new boolean[windowSize];
+    }
+
+    /**
+     * Ask to make one call
+     *
+     * @return true if the call may proceed; it must then be followed by exactly one onSuccess, onFailure or onIgnore
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < openNanos) {
+                    rejected.increment();
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialsStarted = 0;
+                trialsSucceeded = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (trialsStarted >= halfOpenCalls) {
+                    rejected.increment();
+                    return false;
+                }
+                trialsStarted++;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record a completed call; calls slower than the slow-call threshold count as failures
+     *
+     * @param latencyNanos time the call took
+     */
+    public void onSuccess(long latencyNanos) {
+        lock.lock();
+        try {
+            if (latencyNanos > slowCallNanos) {
+                recordFailure();
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                if (++trialsSucceeded >= halfOpenCalls) {
+                    close();
+                }
+                return;
+            }
+            record(false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record a failed call
+     */
+    public void onFailure() {
+        lock.lock();
+        try {
+            recordFailure();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Release a permit without recording an outcome
+     */
+    public void onIgnore() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN && trialsStarted > trialsSucceeded) {
+                trialsStarted--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Run a reactive call through the breaker, failing fast with CircuitOpenException while open
+     */
+    public <T> Mono<T> protect(Mono<T> call) {
+        return protect(call.flux()).singleOrEmpty();
+    }
+
+    /**
+     * Run a streamed call through the breaker; the call succeeds when the stream completes
+     */
+    public <T> Flux<T> protect(Flux<T> call) {
+        return Flux.defer(() -> {
+            if (!tryAcquire()) {
+                return Flux.error(new CircuitOpenException(name, getRetryAfter()));
+            }
+            long start = System.nanoTime();
+            AtomicBoolean released = new AtomicBoolean();
+            return call
+                    .doOnComplete(() -> {
+                        if (released.compareAndSet(false, true)) {
+                            onSuccess(System.nanoTime() - start);
+                        }
+                    })
+                    .doOnError(error -> {
+                        if (released.compareAndSet(false, true)) {
+                            if (isIgnored(error)) {
+                                onIgnore();
+                            } else {
+                                onFailure();
+                            }
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (released.compareAndSet(false, true)) {
+                            onIgnore();
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Run a blocking call through the breaker, failing fast with CircuitOpenException while open
+     */
+    public <T> T call(Supplier<T> call) {
+        if (!tryAcquire()) {
+            throw new CircuitOpenException(name, getRetryAfter());
+        }
+        long start = System.nanoTime();
+        try {
+            T value = call.get();
+            onSuccess(System.nanoTime() - start);
+            return value;
+        } catch (RuntimeException e) {
+            if (isIgnored(e)) {
+                onIgnore();
+            } else {
+                onFailure();
+            }
+            throw e;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public State getState() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Share of failed calls among the recorded outcomes, 0 to 1
+     */
+    public double getFailureRate() {
+        lock.lock();
+        try {
+            return recorded == 0 ? 0 : (double) failures / recorded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getRecordedCalls() {
+        lock.lock();
+        try {
+            return recorded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Time until an open breaker lets trial calls through; zero unless open
+     */
+    public Duration getRetryAfter() {
+        lock.lock();
+        try {
+            if (state != State.OPEN) {
+                return Duration.ZERO;
+            }
+            return Duration.ofNanos(Math.max(0, openNanos - (System.nanoTime() - openedAt)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+    }
+
+    private void record(boolean failed) {
+        if (state != State.CLOSED) {
+            return;
+        }
+        if (recorded == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+        if (recorded >= minimumCalls && (double) failures / recorded >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+    }
+
+    private static boolean isIgnored(Throwable error) {
+        return error instanceof AdaptiveConcurrencyLimiter.LimitExceededException
+                || error instanceof CircuitOpenException;
+    }
+
+    /**
+     * Thrown when a call is rejected because the breaker is open
+     */
+    public static class CircuitOpenException extends RuntimeException {
+
+        private final String dependency;
+        private final Duration retryAfter;
+
+        public CircuitOpenException(String dependency, Duration retryAfter) {
+            super(String.format("%s circuit is open", dependency));
+            this.dependency = dependency;
+            this.retryAfter = retryAfter;
+        }
+
+        public String getDependency() {
+            return dependency;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+    }
+}
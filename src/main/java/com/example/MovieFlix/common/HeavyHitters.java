@@ -0,0 +1,211 @@
+package com.example.MovieFlix.common;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Constant-memory frequency estimates for a stream of keys, plus the current top-K
+ *
+ * Counts live in a count-min sketch: four rows of width counters, each key
+ * incrementing one counter per row and estimated as the smallest of the
+ * four, so an estimate can only over-count (by hash collisions). Once
+ * sample-size keys have been recorded every counter is halved, so estimates
+ * follow recent traffic rather than all-time totals.
+ *
+ * Next to the sketch, up to k candidate keys are tracked, space-saving style:
+ * a key whose estimate beats the smallest tracked estimate replaces that key.
+ * Recording never blocks: the common case (key already tracked, or not hot
+ * enough) is an array of atomic increments and a map lookup, and a thread
+ * that finds another one updating the candidates skips the update.
+ */
+public class HeavyHitters {
+
+    private static final int DEPTH = 4;
+    private static final int SAMPLE_CHECK_MASK = 1023;
+
+    private final int width;
+    private final int mask;
+    private final AtomicIntegerArray counters;
+    private final long sampleSize;
+    private final LongAdder additions = new LongAdder();
+    private final AtomicBoolean aging = new AtomicBoolean();
+
+    private final int k;
+    private final Set<String> candidates = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock candidateLock = new ReentrantLock();
+    private volatile int floor;
+
+    /**
+     * @param width      counters per row; rounded up to a power of two
+     * @param k          keys tracked as heavy-hitter candidates
+     * @param sampleSize recorded keys after which all counts are halved
+     */
+    public HeavyHitters(int width, int k, long sampleSize) {
+        if (width < 1 || k < 1 || sampleSize < 1) {
+            throw new IllegalArgumentException("Invalid heavy hitter settings");
+        }
+        this.width = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.mask = this.width - 1;
+        this.counters = new AtomicIntegerArray(DEPTH * this.width);
+        this.k = k;
+        this.sampleSize = sampleSize;
+    }
+
+    /**
+     * Count one occurrence of key
+     *
+     * @return the key's estimated count, this occurrence included
+     */
+    public int record(String key) {
+        int h1 = spread(key.hashCode());
+        int h2 = spread(h1 * 0x9E3779B9) | 1;
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int count = counters.incrementAndGet(row * width + ((h1 + row * h2) & mask));
+            estimate = Math.min(estimate, count);
+        }
+        additions.increment();
+        if ((ThreadLocalRandom.current().nextInt() & SAMPLE_CHECK_MASK) == 0 && additions.sum() >= sampleSize) {
+            age();
+        }
+        if (estimate > floor && !candidates.contains(key)) {
+            offer(key, estimate);
+        }
+        return estimate;
+    }
+
+    /**
+     * Estimated count of key; never less than its true count since the last halving
+     */
+    public int estimate(String key) {
+        int h1 = spread(key.hashCode());
+        int h2 = spread(h1 * 0x9E3779B9) | 1;
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.get(row * width + ((h1 + row * h2) & mask)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Tracked keys with their current estimates, most frequent first
+     */
+    public List<Entry> top() {
+        List<Entry> top = new ArrayList<>(k);
+        for (String key : candidates) {
+            top.add(new Entry(key, estimate(key)));
+        }
+        top.sort(Comparator.comparingInt(Entry::count).reversed());
+        return top;
+    }
+
+    /**
+     * Keys recorded since the counts were last halved
+     */
+    public long getAdditions() {
+        return additions.sum();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Track key if it beats the smallest candidate; one scan finds the key to
+     * evict and the runner-up that becomes the new floor
+     */
+    private void offer(String key, int estimate) {
+        if (!candidateLock.tryLock()) {
+            return;
+        }
+        try {
+            if (candidates.contains(key)) {
+                return;
+            }
+            if (candidates.size() < k) {
+                candidates.add(key);
+                if (candidates.size() == k) {
+                    floor = smallest().count();
+                }
+                return;
+            }
+            String smallestKey = null;
+            int smallest = Integer.MAX_VALUE;
+            int runnerUp = Integer.MAX_VALUE;
+            for (String candidate : candidates) {
+                int count = estimate(candidate);
+                if (count < smallest) {
+                    runnerUp = smallest;
+                    smallest = count;
+                    smallestKey = candidate;
+                } else if (count < runnerUp) {
+                    runnerUp = count;
+                }
+            }
+            if (estimate <= smallest) {
+                floor = smallest;
+                return;
+            }
+            candidates.remove(smallestKey);
+            candidates.add(key);
+            floor = Math.min(runnerUp, estimate);
+        } finally {
+            candidateLock.unlock();
+        }
+    }
+
+    private Entry smallest() {
+        Entry smallest = null;
+        for (String candidate : candidates) {
+            int count = estimate(candidate);
+            if (smallest == null || count < smallest.count()) {
+                smallest = new Entry(candidate, count);
+            }
+        }
+        return smallest;
+    }
+
+    /**
+     * Halve every counter; concurrent increments may be lost, which only makes estimates slightly low
+     */
+    private void age() {
+        if (!aging.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            additions.reset();
+            for (int i = 0; i < counters.length(); i++) {
+                counters.set(i, counters.get(i) >>> 1);
+            }
+            candidateLock.lock();
+            try {
+                floor = candidates.size() < k ? 0 : smallest().count();
+            } finally {
+                candidateLock.unlock();
+            }
+        } finally {
+            aging.set(false);
+        }
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+
+    /**
+     * A tracked key and its estimated count
+     */
+    public record Entry(String key, int count) {
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.MovieFlix.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Races a slow primary call against a backup fired only when the primary is late
+ *
+ * The backup is subscribed once the primary has run for longer than the
+ * configured percentile of recent primary latencies (never less than the
+ * minimum delay; the initial delay until enough samples exist), or as soon
+ * as the primary fails. Whichever emits a value first wins and the other is
+ * cancelled. A cancelled primary records its elapsed time as its latency, a
+ * lower bound that keeps the percentile from drifting down while hedging.
+ */
+public class HedgedCall {
+
+    private static final int MIN_SAMPLES = 20;
+
+    private final double percentile;
+    private final Duration minDelay;
+    private final Duration initialDelay;
+    private final LatencyWindow latencies;
+    private final Counter unhedged;
+    private final Counter hedgedSlow;
+    private final Counter hedgedFailed;
+    private final Counter primaryWins;
+    private final Counter backupWins;
+
+    public HedgedCall(String name, double percentile, Duration minDelay, Duration initialDelay, int window,
+            MeterRegistry meterRegistry) {
+        this.percentile = percentile;
+        this.minDelay = minDelay;
+        this.initialDelay = initialDelay;
+        this.latencies = new LatencyWindow(window);
+        this.unhedged = hedges(name, "none", meterRegistry);
+        this.hedgedSlow = hedges(name, "slow", meterRegistry);
+        this.hedgedFailed = hedges(name, "failed", meterRegistry);
+        this.primaryWins = wins(name, "primary", meterRegistry);
+        this.backupWins = wins(name, "backup", meterRegistry);
+        Gauge.builder("hedge.delay", this, hedge -> hedge.currentDelay().toMillis())
+                .tag("name", name)
+                .description("Milliseconds the primary may run before the backup is fired")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * How long the next primary call may run before the backup is fired
+     */
+    public Duration currentDelay() {
+        long[] sorted = latencies.sorted();
+        if (sorted.length < MIN_SAMPLES) {
+            return initialDelay;
+        }
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * percentile) - 1);
+        Duration observed = Duration.ofNanos(sorted[Math.max(0, index)]);
+        return observed.compareTo(minDelay) > 0 ? observed : minDelay;
+    }
+
+    /**
+     * Subscribe the primary, and the backup if the primary is late or fails
+     *
+     * @return the first value emitted by either; fails with the primary's error if both fail
+     */
+    public <T> Mono<Outcome<T>> execute(Mono<T> primary, Mono<T> backup) {
+        return Mono.defer(() -> {
+            Duration delay = currentDelay();
+            long start = System.nanoTime();
+            AtomicBoolean timed = new AtomicBoolean();
+            AtomicReference<Counter> hedged = new AtomicReference<>();
+            AtomicReference<Throwable> primaryError = new AtomicReference<>();
+            Sinks.Empty<Void> primaryFailed = Sinks.empty();
+
+            Mono<Outcome<T>> first = primary
+                    .doOnNext(value -> recordLatency(timed, start))
+                    .doOnCancel(() -> recordLatency(timed, start))
+                    .doOnError(e -> {
+                        primaryError.set(e);
+                        primaryFailed.tryEmitEmpty();
+                    })
+                    .map(value -> new Outcome<>(value, false));
+            Mono<Outcome<T>> second = Mono.firstWithSignal(
+                            Mono.delay(delay).doOnNext(tick -> hedged.compareAndSet(null, hedgedSlow)).then(),
+                            primaryFailed.asMono().doOnSuccess(done -> hedged.compareAndSet(null, hedgedFailed)))
+                    .then(Mono.defer(() -> backup))
+                    .map(value -> new Outcome<>(value, true));
+
+            return Mono.firstWithValue(first, second)
+                    .doOnNext(outcome -> {
+                        Counter reason = hedged.get();
+                        if (reason == null) {
+                            unhedged.increment();
+                            return;
+                        }
+                        reason.increment();
+                        (outcome.fromBackup() ? backupWins : primaryWins).increment();
+                    })
+                    .onErrorMap(NoSuchElementException.class,
+                            e -> primaryError.get() != null ? primaryError.get() : e);
+        });
+    }
+
+    private void recordLatency(AtomicBoolean timed, long start) {
+        if (timed.compareAndSet(false, true)) {
+            latencies.add(System.nanoTime() - start);
+        }
+    }
+
+    private static Counter hedges(String name, String reason, MeterRegistry meterRegistry) {
+        return Counter.builder("hedge.calls")
+                .tag("name", name)
+                .tag("hedged", reason)
+                .description("Calls by whether, and why, a backup was fired")
+                .register(meterRegistry);
+    }
+
+    private static Counter wins(String name, String winner, MeterRegistry meterRegistry) {
+        return Counter.builder("hedge.wins")
+                .tag("name", name)
+                .tag("winner", winner)
+                .description("Hedged calls by which side answered first")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A value and whether the backup produced it
+     */
+    public record Outcome<T>(T value, boolean fromBackup) {
+    }
+
+    /**
+     * The most recent primary latencies, in nanoseconds
+     */
+    private static final class LatencyWindow {
+
+        private final long[] samples;
+        private final ReentrantLock lock = new ReentrantLock();
+        private int next;
+        private int count;
+
+        LatencyWindow(int size) {
+            this.samples = new long[size];
+        }
+
+        void add(long nanos) {
+            lock.lock();
+            try {
+                samples[next] = nanos;
+                next = (next + 1) % samples.length;
+                count = Math.min(count + 1, samples.length);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long[] sorted() {
+            long[] copy;
+            lock.lock();
+            try {
+                copy = Arrays.copyOf(samples, count);
+            } finally {
+                lock.unlock();
+            }
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
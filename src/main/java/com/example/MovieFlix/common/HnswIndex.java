@@ -0,0 +1,424 @@
+package com.example.MovieFlix.common;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Approximate nearest-neighbour index over vectors (HNSW)
+ *
+ * A hierarchical navigable small world graph: every vector is a node on
+ * layer 0 and, with exponentially decreasing probability, on the sparser
+ * layers above it. A query descends greedily through the upper layers and
+ * then runs a best-first search of width ef on layer 0, so it visits a few
+ * hundred nodes rather than all of them. Similarity is cosine (vectors are
+ * normalized on insert). Inserts take a write lock and queries a read lock;
+ * nodes are never removed. Levels come from a fixed seed, so the same
+ * inserts in the same order build the same graph.
+ */
+public class HnswIndex {
+
+    private static final int MAGIC = 0x484E5357; // "HNSW"
+    private static final int VERSION = 1;
+    private static final int MAX_LEVEL = 16;
+
+    private static final Comparator<Candidate> BEST_FIRST =
+            Comparator.comparingDouble((Candidate c) -> c.similarity).reversed();
+    private static final Comparator<Candidate> WORST_FIRST =
+            Comparator.comparingDouble((Candidate c) -> c.similarity);
+
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> nodeIds = new HashMap<>();
+    private final List<Node> nodes = new ArrayList<>();
+    private int dimensions;
+    private int entryPoint = -1;
+    private int topLevel = -1;
+
+    /**
+     * @param m              links per node on the upper layers (twice as many on layer 0)
+     * @param efConstruction search width used while inserting; higher builds a better graph, slower
+     */
+    public HnswIndex(int m, int efConstruction) {
+        if (m < 2 || efConstruction < m) {
+            throw new IllegalArgumentException("Need m >= 2 and efConstruction >= m");
+        }
+        this.m = m;
+        this.maxM0 = 2 * m;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+    }
+
+    /**
+     * Insert a vector
+     *
+     * @return false if the id is already indexed (the existing vector is kept)
+     * @throws IllegalArgumentException if the vector's length differs from earlier inserts
+     */
+    public boolean add(String id, float[] vector) {
+        float[] unit = normalize(vector);
+        lock.writeLock().lock();
+        try {
+            if (nodeIds.containsKey(id)) {
+                return false;
+            }
+            if (dimensions == 0) {
+                dimensions = unit.length;
+            } else if (unit.length != dimensions) {
+                throw new IllegalArgumentException("Expected " + dimensions + " dimensions, got " + unit.length);
+            }
+
+            int level = randomLevel();
+            int node = nodes.size();
+            nodes.add(new Node(id, unit, level, m, maxM0));
+            nodeIds.put(id, node);
+            if (entryPoint < 0) {
+                entryPoint = node;
+                topLevel = level;
+                return true;
+            }
+
+            List<Candidate> entries = List.of(new Candidate(entryPoint, dot(unit, nodes.get(entryPoint).vector)));
+            for (int layer = topLevel; layer > level; layer--) {
+                entries = searchLayer(unit, entries, 1, layer);
+            }
+            for (int layer = Math.min(level, topLevel); layer >= 0; layer--) {
+                List<Candidate> candidates = searchLayer(unit, entries, efConstruction, layer);
+                connect(node, selectNeighbors(candidates, m), layer);
+                entries = candidates;
+            }
+            if (level > topLevel) {
+                topLevel = level;
+                entryPoint = node;
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the k vectors most similar to the query
+     *
+     * @param ef search width on layer 0 (at least k); higher trades speed for recall
+     * @return neighbours, most similar first
+     */
+    public List<Neighbor> search(float[] query, int k, int ef) {
+        float[] unit = normalize(query);
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0 || k <= 0) {
+                return List.of();
+            }
+            if (unit.length != dimensions) {
+                throw new IllegalArgumentException("Expected " + dimensions + " dimensions, got " + unit.length);
+            }
+            List<Candidate> entries = List.of(new Candidate(entryPoint, dot(unit, nodes.get(entryPoint).vector)));
+            for (int layer = topLevel; layer > 0; layer--) {
+                entries = searchLayer(unit, entries, 1, layer);
+            }
+            List<Candidate> found = searchLayer(unit, entries, Math.max(ef, k), 0);
+            List<Neighbor> neighbors = new ArrayList<>(Math.min(k, found.size()));
+            for (int i = 0; i < found.size() && i < k; i++) {
+                Candidate candidate = found.get(i);
+                neighbors.add(new Neighbor(nodes.get(candidate.node).id, candidate.similarity));
+            }
+            return neighbors;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The stored (normalized) vector for an id
+     */
+    public Optional<float[]> vector(String id) {
+        lock.readLock().lock();
+        try {
+            Integer node = nodeIds.get(id);
+            return node != null ? Optional.of(nodes.get(node).vector.clone()) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(String id) {
+        lock.readLock().lock();
+        try {
+            return nodeIds.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vector length, or 0 while the index is empty
+     */
+    public int dimensions() {
+        lock.readLock().lock();
+        try {
+            return dimensions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Write the graph and vectors; concurrent queries are not blocked, inserts wait
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(m);
+            out.writeInt(efConstruction);
+            out.writeInt(dimensions);
+            out.writeInt(nodes.size());
+            out.writeInt(entryPoint);
+            out.writeInt(topLevel);
+            for (Node node : nodes) {
+                out.writeUTF(node.id);
+                for (float value : node.vector) {
+                    out.writeFloat(value);
+                }
+                out.writeInt(node.links.length);
+                for (int layer = 0; layer < node.links.length; layer++) {
+                    out.writeInt(node.linkCounts[layer]);
+                    for (int i = 0; i < node.linkCounts[layer]; i++) {
+                        out.writeInt(node.links[layer][i]);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Read an index written by writeTo
+     *
+     * @throws IOException if the input is not an index of this version or is truncated
+     */
+    public static HnswIndex readFrom(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not an HNSW index of version " + VERSION);
+        }
+        HnswIndex index = new HnswIndex(in.readInt(), in.readInt());
+        index.dimensions = in.readInt();
+        int size = in.readInt();
+        index.entryPoint = in.readInt();
+        index.topLevel = in.readInt();
+        for (int n = 0; n < size; n++) {
+            String id = in.readUTF();
+            float[] vector = new float[index.dimensions];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = in.readFloat();
+            }
+            int levels = in.readInt();
+            if (levels < 1 || levels > MAX_LEVEL + 1) {
+                throw new IOException("Corrupt HNSW index: node " + id + " has " + levels + " levels");
+            }
+            Node node = new Node(id, vector, levels - 1, index.m, index.maxM0);
+            for (int layer = 0; layer < levels; layer++) {
+                int count = in.readInt();
+                if (count < 0 || count > node.links[layer].length) {
+                    throw new IOException("Corrupt HNSW index: node " + id + " has " + count + " links");
+                }
+                node.linkCounts[layer] = count;
+                for (int i = 0; i < count; i++) {
+                    node.links[layer][i] = in.readInt();
+                }
+            }
+            index.nodes.add(node);
+            index.nodeIds.put(id, n);
+        }
+        return index;
+    }
+
+    /**
+     * Best-first search of one layer from the given entry points
+     *
+     * @return up to ef closest nodes found, most similar first
+     */
+    private List<Candidate> searchLayer(float[] query, List<Candidate> entries, int ef, int layer) {
+        BitSet visited = new BitSet(nodes.size());
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(BEST_FIRST);
+        PriorityQueue<Candidate> results = new PriorityQueue<>(WORST_FIRST);
+        for (Candidate entry : entries) {
+            visited.set(entry.node);
+            candidates.add(entry);
+            results.add(entry);
+            if (results.size() > ef) {
+                results.poll();
+            }
+        }
+
+        while (!candidates.isEmpty()) {
+            Candidate current = candidates.poll();
+            if (results.size() >= ef && current.similarity < results.peek().similarity) {
+                break;
+            }
+            Node node = nodes.get(current.node);
+            int[] links = node.links[layer];
+            for (int i = 0; i < node.linkCounts[layer]; i++) {
+                int neighbor = links[i];
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                double similarity = dot(query, nodes.get(neighbor).vector);
+                if (results.size() < ef || similarity > results.peek().similarity) {
+                    Candidate candidate = new Candidate(neighbor, similarity);
+                    candidates.add(candidate);
+                    results.add(candidate);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+
+        List<Candidate> found = new ArrayList<>(results);
+        found.sort(BEST_FIRST);
+        return found;
+    }
+
+    /**
+     * Neighbour selection heuristic: skip a candidate that is closer to an already
+     * selected neighbour than to the base node, so links spread across clusters
+     * instead of all pointing into the nearest one; then top up with the closest skipped
+     *
+     * @param candidates candidates sorted most similar first, similarity measured to the base node
+     */
+    private List<Candidate> selectNeighbors(List<Candidate> candidates, int max) {
+        List<Candidate> selected = new ArrayList<>(max);
+        List<Candidate> skipped = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (selected.size() >= max) {
+                break;
+            }
+            float[] vector = nodes.get(candidate.node).vector;
+            boolean diverse = true;
+            for (Candidate chosen : selected) {
+                if (dot(vector, nodes.get(chosen.node).vector) > candidate.similarity) {
+                    diverse = false;
+                    break;
+                }
+            }
+            (diverse ? selected : skipped).add(candidate);
+        }
+        for (int i = 0; i < skipped.size() && selected.size() < max; i++) {
+            selected.add(skipped.get(i));
+        }
+        return selected;
+    }
+
+    /**
+     * Link a new node to its selected neighbours in both directions, re-pruning
+     * any neighbour whose link list is already full
+     */
+    private void connect(int node, List<Candidate> neighbors, int layer) {
+        Node source = nodes.get(node);
+        int capacity = layer == 0 ? maxM0 : m;
+        for (Candidate neighbor : neighbors) {
+            source.links[layer][source.linkCounts[layer]++] = neighbor.node;
+
+            Node target = nodes.get(neighbor.node);
+            if (target.linkCounts[layer] < capacity) {
+                target.links[layer][target.linkCounts[layer]++] = node;
+                continue;
+            }
+            List<Candidate> existing = new ArrayList<>(capacity + 1);
+            for (int i = 0; i < target.linkCounts[layer]; i++) {
+                int linked = target.links[layer][i];
+                existing.add(new Candidate(linked, dot(target.vector, nodes.get(linked).vector)));
+            }
+            existing.add(new Candidate(node, neighbor.similarity));
+            existing.sort(BEST_FIRST);
+            List<Candidate> kept = selectNeighbors(existing, capacity);
+            for (int i = 0; i < kept.size(); i++) {
+                target.links[layer][i] = kept.get(i).node;
+            }
+            target.linkCounts[layer] = kept.size();
+        }
+    }
+
+    private int randomLevel() {
+        double uniform = 1.0 - random.nextDouble(); // (0, 1]
+        return Math.min(MAX_LEVEL, (int) (-Math.log(uniform) * levelMultiplier));
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (vector.length == 0 || norm == 0) {
+            throw new IllegalArgumentException("Cannot index an empty or zero vector");
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        float[] unit = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            unit[i] = vector[i] * scale;
+        }
+        return unit;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    /**
+     * A query result: the id and its cosine similarity to the query
+     */
+    public record Neighbor(String id, double similarity) {
+    }
+
+    private record Candidate(int node, double similarity) {
+    }
+
+    private static final class Node {
+        private final String id;
+        private final float[] vector;
+        private final int[][] links;
+        private final int[] linkCounts;
+
+        private Node(String id, float[] vector, int level, int m, int maxM0) {
+            this.id = id;
+            this.vector = vector;
+            this.links = new int[level + 1][];
+            this.linkCounts = new int[level + 1];
+            for (int layer = 0; layer <= level; layer++) {
+                links[layer] = new int[layer == 0 ? maxM0 : m];
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.MovieFlix.common;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Groups concurrent single-item calls into batched upstream calls
+ *
+ * Items submitted from any thread are collected until either max-batch-size
+ * items are waiting or the window (counted from the first waiting item) has
+ * passed, then handed to the handler as one list. The handler returns one
+ * result per item, in order; each caller's future completes with its own
+ * result. A null or missing result fails only that caller; a failed batch
+ * fails all of them. At most `concurrency` batches are in flight.
+ *
+ * Every future completes: a batch that takes longer than timeout is cancelled
+ * and fails its callers, a caller still waiting after window + timeout (its
+ * batch queued behind others) fails on its own, and an item the queue does
+ * not accept fails at once.
+ */
+public class MicroBatcher<I, O> {
+
+    private static final Logger logger = LoggerFactory.getLogger(MicroBatcher.class);
+
+    private static final Duration EMIT_SPIN = Duration.ofMillis(100);
+
+    private final Sinks.Many<Pending<I, O>> queue = Sinks.many().unicast().onBackpressureBuffer();
+    private final String name;
+    private final Function<List<I>, Mono<List<O>>> handler;
+    private final Duration timeout;
+    private final Duration callerTimeout;
+    private final DistributionSummary batchSizes;
+    private final Timer queueTime;
+
+    /**
+     * @param timeout longest a dispatched batch may take before its callers fail
+     */
+    public MicroBatcher(String name, int maxBatchSize, Duration window, int concurrency, Duration timeout,
+            Function<List<I>, Mono<List<O>>> handler, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.handler = handler;
+        this.timeout = timeout;
+        this.callerTimeout = window.plus(timeout);
+        this.batchSizes = DistributionSummary.builder("batcher.batch.size")
+                .tag("name", name)
+                .description("Items per batched call")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.queueTime = Timer.builder("batcher.queue.time")
+                .tag("name", name)
+                .description("Time an item waited for its batch to be dispatched")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+
+        queue.asFlux()
+                .bufferTimeout(maxBatchSize, window)
+                .onBackpressureBuffer()
+                .flatMap(this::dispatch, concurrency)
+                .subscribe(null, e -> logger.error("Batcher {} stopped", name, e));
+    }
+
+    /**
+     * Queue an item for the next batch
+     *
+     * @return future completed with the item's result, or exceptionally if its batch failed, timed out
+     *         or the item could not be queued
+     */
+    public CompletableFuture<O> submit(I item) {
+        long now = System.nanoTime();
+        Pending<I, O> pending = new Pending<>(item, new CompletableFuture<>(), now);
+        // concurrent submitters contend for the unicast sink; spin briefly on that, fail on anything else
+        long spinUntil = now + EMIT_SPIN.toNanos();
+        Sinks.EmitResult emitted = queue.tryEmitNext(pending);
+        while (emitted == Sinks.EmitResult.FAIL_NON_SERIALIZED && System.nanoTime() - spinUntil < 0) {
+            Thread.onSpinWait();
+            emitted = queue.tryEmitNext(pending);
+        }
+        if (emitted.isFailure()) {
+            pending.result.completeExceptionally(
+                    new IllegalStateException("Batcher " + name + " did not accept the item: " + emitted));
+            return pending.result;
+        }
+        return pending.result.orTimeout(callerTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private Mono<Void> dispatch(List<Pending<I, O>> batch) {
+        long now = System.nanoTime();
+        batchSizes.record(batch.size());
+        batch.forEach(pending -> queueTime.record(now - pending.submittedAt, TimeUnit.NANOSECONDS));
+
+        List<I> items = batch.stream().map(Pending::item).toList();
+        return Mono.defer(() -> handler.apply(items))
+                .timeout(timeout)
+                .switchIfEmpty(Mono.error(new IllegalStateException("Batch handler returned no results")))
+                .doOnNext(results -> {
+                    for (int i = 0; i < batch.size(); i++) {
+                        O result = i < results.size() ? results.get(i) : null;
+                        if (result != null) {
+                            batch.get(i).result.complete(result);
+                        } else {
+                            batch.get(i).result.completeExceptionally(
+                                    new IllegalStateException("No result for item " + (i + 1) + " of the batch"));
+                        }
+                    }
+                })
+                .doOnError(e -> batch.forEach(pending -> pending.result.completeExceptionally(e)))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private record Pending<I, O>(I item, CompletableFuture<O> result, long submittedAt) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.MovieFlix.common;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded, thread-safe string interning table
+ *
+ * Low-cardinality values (genres, languages, ratings...) repeat across
+ * thousands of cached movies; returning one canonical instance per distinct
+ * value lets them all share a single String. Once the table is full, new
+ * values are returned as-is rather than growing it further.
+ */
+public final class StringDictionary {
+
+    private final ConcurrentHashMap<String, String> values = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    public StringDictionary(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Return the canonical instance of a value
+     *
+     * @param value the value to intern, may be null
+     * @return the shared instance, or the value itself if the table is full
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String canonical = values.get(value);
+        if (canonical != null) {
+            return canonical;
+        }
+        if (values.size() >= maxSize) {
+            return value;
+        }
+        canonical = values.putIfAbsent(value, value);
+        return canonical != null ? canonical : value;
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.MovieFlix.common;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utility for building normalized lookup keys from user supplied movie titles
+ */
+public final class TitleNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TitleNormalizer() {
+    }
+
+    /**
+     * Normalize a title: strip accents, lowercase, collapse punctuation and whitespace
+     *
+     * @param title the raw title
+     * @return the normalized title, empty if title is null
+     */
+    public static String normalize(String title) {
+        if (title == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(title, Normalizer.Form.NFD);
+        String stripped = DIACRITICS.matcher(decomposed).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Build a lookup key from title and optional year
+     *
+     * @param title the raw title
+     * @param year  the release year (optional)
+     * @return key in the form "normalized title|year"
+     */
+    public static String key(String title, String year) {
+        String normalizedYear = year != null ? year.trim() : "";
+        return normalize(title) + "|" + normalizedYear;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.MovieFlix.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket for one client
+ *
+ * Implemented as a generic cell rate algorithm: instead of a token count
+ * and a refill timestamp, the only state is the time at which the bucket
+ * will be full again. Taking cost tokens pushes that time cost intervals
+ * further; the request is refused if it would then lie more than the
+ * capacity's worth of intervals in the future. One compare-and-set per
+ * request, no background refill, and a bucket that is full again is
+ * indistinguishable from a new one, so idle buckets can simply be dropped.
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    /**
+     * @param capacity        tokens when full; the largest burst
+     * @param refillPerSecond tokens added per second
+     * @param nowNanos        current System.nanoTime(); the bucket starts full
+     */
+    public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Invalid token bucket settings");
+        }
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000L / refillPerSecond));
+        this.burstNanos = Math.multiplyExact(capacity, intervalNanos);
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Take cost tokens if the bucket holds that many
+     *
+     * @param cost     tokens to take; a cost above capacity is always refused
+     * @param nowNanos current System.nanoTime()
+     */
+    public Result tryAcquire(int cost, long nowNanos) {
+        long increment = cost * intervalNanos;
+        while (true) {
+            long current = fullAt.get();
+            long base = current - nowNanos > 0 ? current : nowNanos;
+            long next = base + increment;
+            if (next - nowNanos > burstNanos) {
+                long used = base - nowNanos;
+                return new Result(false, remaining(used), next - nowNanos - burstNanos, used);
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                long used = next - nowNanos;
+                return new Result(true, remaining(used), 0, used);
+            }
+        }
+    }
+
+    /**
+     * Seconds an empty bucket takes to fill up
+     */
+    public long getFillSeconds() {
+        return Math.max(1, (burstNanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    private int remaining(long usedNanos) {
+        return (int) ((burstNanos - usedNanos) / intervalNanos);
+    }
+
+    /**
+     * Outcome of tryAcquire
+     *
+     * @param allowed         whether the tokens were taken
+     * @param remaining       tokens left afterwards
+     * @param retryAfterNanos when refused, time until cost tokens are available
+     * @param resetNanos      time until the bucket is full again
+     */
+    public record Result(boolean allowed, int remaining, long retryAfterNanos, long resetNanos) {
+    }
+}
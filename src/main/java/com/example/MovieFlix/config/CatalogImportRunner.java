@@ -0,0 +1,45 @@
+package com.example.MovieFlix.config;
+
+import com.example.MovieFlix.service.CatalogImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Imports a catalog dump at startup when catalog.import.path is set
+ * The import runs on a background thread so the application keeps serving requests
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.import.path")
+public class CatalogImportRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogImportRunner.class);
+
+    private final CatalogImportService catalogImportService;
+    private final Path path;
+
+    public CatalogImportRunner(CatalogImportService catalogImportService,
+            @Value("${catalog.import.path}") String path) {
+        this.catalogImportService = catalogImportService;
+        this.path = Path.of(path);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Thread importThread = new Thread(() -> {
+            try {
+                catalogImportService.importFile(path);
+            } catch (Exception e) {
+                logger.error("Catalog import from {} failed", path, e);
+            }
+        }, "catalog-import");
+        importThread.setDaemon(true);
+        importThread.start();
+    }
+}
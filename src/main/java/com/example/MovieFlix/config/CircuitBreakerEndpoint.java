@@ -0,0 +1,40 @@
+package com.example.MovieFlix.config;
+
+import com.example.MovieFlix.common.CircuitBreaker;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint exposing the state of every circuit breaker
+ * Available at /actuator/circuitbreakers
+ */
+@Component
+@Endpoint(id = "circuitbreakers")
+public class CircuitBreakerEndpoint {
+
+    private final List<CircuitBreaker> breakers;
+
+    public CircuitBreakerEndpoint(List<CircuitBreaker> breakers) {
+        this.breakers = breakers;
+    }
+
+    @ReadOperation
+    public Map<String, Object> state() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        for (CircuitBreaker breaker : breakers) {
+            Map<String, Object> breakerState = new LinkedHashMap<>();
+            breakerState.put("state", breaker.getState());
+            breakerState.put("failureRate", breaker.getFailureRate());
+            breakerState.put("recordedCalls", breaker.getRecordedCalls());
+            breakerState.put("rejected", breaker.getRejected());
+            breakerState.put("retryAfterSeconds", breaker.getRetryAfter().toSeconds());
+            state.put(breaker.getName(), breakerState);
+        }
+        return state;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.MovieFlix.config;
+
+import com.example.MovieFlix.common.HeavyHitters;
+import com.example.MovieFlix.service.TitlePopularity;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint listing the most requested titles with their estimated recent request counts
+ * Available at /actuator/hottitles
+ */
+@Component
+@Endpoint(id = "hottitles")
+public class HotTitlesEndpoint {
+
+    private final TitlePopularity titlePopularity;
+
+    public HotTitlesEndpoint(TitlePopularity titlePopularity) {
+        this.titlePopularity = titlePopularity;
+    }
+
+    @ReadOperation
+    public List<HeavyHitters.Entry> top() {
+        return titlePopularity.top();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.MovieFlix.config;
+
+import com.example.MovieFlix.common.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * HTTP client engine for the OMDB API
+ *
+ * Dedicated Reactor Netty connection pool with keep-alive, separate connect
+ * and read timeouts, gzip, and an adaptive limit on in-flight calls. The
+ * adaptive limit counts OMDB calls, not the threads waiting on them (many
+ * requests can wait on one coalesced call), so blocking waits have their own
+ * fixed cap well below Tomcat's worker threads.
+ */
+@Configuration
+public class OmdbClientConfig {
+
+    public static final String POOL_NAME = "omdb";
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider omdbConnectionProvider(
+            @Value("${omdb.client.max-connections:200}") int maxConnections,
+            @Value("${omdb.client.pending-acquire-timeout:2s}") Duration pendingAcquireTimeout,
+            @Value("${omdb.client.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${omdb.client.max-life-time:5m}") Duration maxLifeTime) {
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(maxConnections * 2)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(Duration.ofSeconds(30))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient omdbWebClient(
+            @Qualifier("omdbConnectionProvider") ConnectionProvider connectionProvider,
+            @Value("${omdb.api.base-url}") String baseUrl,
+            @Value("${omdb.api.connect-timeout:2000}") int connectTimeout,
+            @Value("${omdb.api.timeout:5000}") int readTimeout) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeout)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .compress(true)
+                .responseTimeout(Duration.ofMillis(readTimeout));
+
+        return WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter omdbConcurrencyLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${omdb.client.limiter.initial-limit:20}") int initialLimit,
+            @Value("${omdb.client.limiter.min-limit:4}") int minLimit,
+            @Value("${omdb.client.limiter.max-limit:200}") int maxLimit,
+            @Value("${omdb.client.limiter.latency-threshold:1s}") Duration latencyThreshold,
+            @Value("${omdb.client.limiter.backoff-ratio:0.9}") double backoffRatio) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                POOL_NAME, initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio);
+
+        Gauge.builder("omdb.limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit for OMDB calls")
+                .register(meterRegistry);
+        Gauge.builder("omdb.limiter.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("OMDB calls currently in flight")
+                .register(meterRegistry);
+        Gauge.builder("omdb.limiter.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                .description("OMDB calls rejected by the concurrency limiter")
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    /**
+     * Cap on request threads blocked waiting for an OMDB lookup; the rest get 503 instead of queueing
+     * Unlimited on virtual threads, where a blocked request does not hold a worker thread
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter omdbBlockingBulkhead(
+            MeterRegistry meterRegistry,
+            @Value("${omdb.client.bulkhead.max-waiting:50}") int maxWaiting,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        int limit = virtualThreads ? Integer.MAX_VALUE : maxWaiting;
+        AdaptiveConcurrencyLimiter bulkhead = new AdaptiveConcurrencyLimiter(
+                "omdb-blocking", limit, limit, limit, Duration.ofDays(1), 1.0);
+
+        Gauge.builder("omdb.bulkhead.waiting", bulkhead, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Threads blocked waiting for an OMDB lookup")
+                .register(meterRegistry);
+        Gauge.builder("omdb.bulkhead.rejected", bulkhead, AdaptiveConcurrencyLimiter::getRejected)
+                .description("Blocking OMDB lookups rejected because too many threads were waiting")
+                .register(meterRegistry);
+        return bulkhead;
+    }
+}
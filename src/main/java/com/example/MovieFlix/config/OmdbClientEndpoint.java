@@ -0,0 +1,66 @@
+package com.example.MovieFlix.config;
+
+import com.example.MovieFlix.common.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint exposing OMDB connection pool and concurrency limiter state
+ * Available at /actuator/omdbclient
+ */
+@Component
+@Endpoint(id = "omdbclient")
+public class OmdbClientEndpoint {
+
+    private static final String POOL_METRIC_PREFIX = "reactor.netty.connection.provider.";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final MeterRegistry meterRegistry;
+
+    public OmdbClientEndpoint(@Qualifier("omdbConcurrencyLimiter") AdaptiveConcurrencyLimiter omdbConcurrencyLimiter,
+            MeterRegistry meterRegistry) {
+        this.limiter = omdbConcurrencyLimiter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ReadOperation
+    public Map<String, Object> state() {
+        Map<String, Object> pool = new LinkedHashMap<>();
+        pool.put("name", OmdbClientConfig.POOL_NAME);
+        pool.put("maxConnections", poolGauge("max.connections"));
+        pool.put("totalConnections", poolGauge("total.connections"));
+        pool.put("activeConnections", poolGauge("active.connections"));
+        pool.put("idleConnections", poolGauge("idle.connections"));
+        pool.put("pendingConnections", poolGauge("pending.connections"));
+
+        Map<String, Object> limiterState = new LinkedHashMap<>();
+        limiterState.put("limit", limiter.getLimit());
+        limiterState.put("inFlight", limiter.getInFlight());
+        limiterState.put("rejected", limiter.getRejected());
+
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("pool", pool);
+        state.put("limiter", limiterState);
+        return state;
+    }
+
+    /**
+     * Sum a Reactor Netty pool gauge across remote addresses, null if not yet registered
+     */
+    private Double poolGauge(String metric) {
+        var gauges = meterRegistry.find(POOL_METRIC_PREFIX + metric)
+                .tag("name", OmdbClientConfig.POOL_NAME)
+                .gauges();
+        if (gauges.isEmpty()) {
+            return null;
+        }
+        return gauges.stream().mapToDouble(Gauge::value).sum();
+    }
+}
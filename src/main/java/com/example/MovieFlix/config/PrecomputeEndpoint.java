@@ -0,0 +1,45 @@
+package com.example.MovieFlix.config;
+
+import com.example.MovieFlix.service.RecommendationPrecomputeService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint showing the last recommendation precompute run; a POST starts a run
+ * Available at /actuator/precompute; the POST only when management.endpoint.precompute.access is unrestricted
+ */
+@Component
+@Endpoint(id = "precompute")
+public class PrecomputeEndpoint {
+
+    private final RecommendationPrecomputeService precomputeService;
+
+    public PrecomputeEndpoint(RecommendationPrecomputeService precomputeService) {
+        this.precomputeService = precomputeService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> state() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("running", precomputeService.isRunning());
+        state.put("checkpoint", precomputeService.hasCheckpoint());
+        precomputeService.getLastReport().ifPresent(report -> state.put("lastRun", report));
+        return state;
+    }
+
+    @WriteOperation
+    public Map<String, Object> start() {
+        if (precomputeService.isRunning()) {
+            return Map.of("started", false);
+        }
+        Thread runThread = new Thread(precomputeService::run, "recommendation-precompute");
+        runThread.setDaemon(true);
+        runThread.start();
+        return Map.of("started", true);
+    }
+}
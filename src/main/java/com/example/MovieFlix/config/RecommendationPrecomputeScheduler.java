@@ -0,0 +1,50 @@
+package com.example.MovieFlix.config;
+
+import com.example.MovieFlix.service.RecommendationPrecomputeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs recommendation precomputation on recommendations.precompute.cron
+ * A run interrupted by a shutdown is resumed in the background at startup
+ */
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "recommendations.precompute.enabled", havingValue = "true")
+public class RecommendationPrecomputeScheduler implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationPrecomputeScheduler.class);
+
+    private final RecommendationPrecomputeService precomputeService;
+
+    public RecommendationPrecomputeScheduler(RecommendationPrecomputeService precomputeService) {
+        this.precomputeService = precomputeService;
+    }
+
+    @Scheduled(cron = "${recommendations.precompute.cron:0 0 4 * * *}")
+    public void scheduledRun() {
+        precomputeService.run();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!precomputeService.hasCheckpoint()) {
+            return;
+        }
+        Thread resumeThread = new Thread(() -> {
+            try {
+                precomputeService.run();
+            } catch (Exception e) {
+                logger.error("Resuming precompute run failed", e);
+            }
+        }, "recommendation-precompute");
+        resumeThread.setDaemon(true);
+        resumeThread.start();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.MovieFlix.config;
+
+import com.example.MovieFlix.common.AdaptiveConcurrencyLimiter;
+import com.example.MovieFlix.common.CircuitBreaker;
+import com.example.MovieFlix.service.GuardedEmbeddingModel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.openai.OpenAiEmbeddingModel;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+/**
+ * Circuit breakers for OMDB and OpenAI, and the OpenAI bulkheads
+ *
+ * OMDB's bulkhead is its adaptive concurrency limiter (see OmdbClientConfig).
+ * OpenAI gets fixed caps: its latency is too variable for the adaptive
+ * limiter. Chat and embedding calls have a breaker and bulkhead each, so a
+ * backlog of slow chat calls does not also shut out the short embedding
+ * calls. Together they bound how many request threads can wait on each
+ * dependency, so the rest stay free for other endpoints such as login.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    @Bean
+    public CircuitBreaker omdbCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${omdb.client.circuit-breaker.failure-rate:0.5}") double failureRate,
+            @Value("${omdb.client.circuit-breaker.slow-call:3s}") Duration slowCall,
+            @Value("${omdb.client.circuit-breaker.window-size:50}") int windowSize,
+            @Value("${omdb.client.circuit-breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${omdb.client.circuit-breaker.open-for:30s}") Duration openFor,
+            @Value("${omdb.client.circuit-breaker.half-open-calls:3}") int halfOpenCalls) {
+        return register(new CircuitBreaker("omdb", failureRate, slowCall, windowSize, minimumCalls, openFor,
+                halfOpenCalls), meterRegistry);
+    }
+
+    @Bean
+    public CircuitBreaker openAiCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${openai.circuit-breaker.failure-rate:0.5}") double failureRate,
+            @Value("${openai.circuit-breaker.slow-call:30s}") Duration slowCall,
+            @Value("${openai.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${openai.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${openai.circuit-breaker.open-for:60s}") Duration openFor,
+            @Value("${openai.circuit-breaker.half-open-calls:2}") int halfOpenCalls) {
+        return register(new CircuitBreaker("openai", failureRate, slowCall, windowSize, minimumCalls, openFor,
+                halfOpenCalls), meterRegistry);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter openAiBulkhead(
+            MeterRegistry meterRegistry,
+            @Value("${openai.bulkhead.max-concurrent:20}") int maxConcurrent) {
+        return bulkhead("openai", maxConcurrent, meterRegistry);
+    }
+
+    @Bean
+    public CircuitBreaker openAiEmbeddingCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${openai.embedding.circuit-breaker.failure-rate:0.5}") double failureRate,
+            @Value("${openai.embedding.circuit-breaker.slow-call:2s}") Duration slowCall,
+            @Value("${openai.embedding.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${openai.embedding.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${openai.embedding.circuit-breaker.open-for:30s}") Duration openFor,
+            @Value("${openai.embedding.circuit-breaker.half-open-calls:2}") int halfOpenCalls) {
+        return register(new CircuitBreaker("openai-embedding", failureRate, slowCall, windowSize, minimumCalls,
+                openFor, halfOpenCalls), meterRegistry);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter openAiEmbeddingBulkhead(
+            MeterRegistry meterRegistry,
+            @Value("${openai.embedding.bulkhead.max-concurrent:20}") int maxConcurrent) {
+        return bulkhead("openai-embedding", maxConcurrent, meterRegistry);
+    }
+
+    /**
+     * The embedding model every component gets: the auto-configured OpenAI one behind its breaker and bulkhead
+     * and with a short timeout; failures are not retried (spring.ai.retry.max-attempts)
+     */
+    @Bean
+    @Primary
+    public EmbeddingModel guardedEmbeddingModel(
+            OpenAiEmbeddingModel openAiEmbeddingModel,
+            @Qualifier("openAiEmbeddingCircuitBreaker") CircuitBreaker circuitBreaker,
+            @Qualifier("openAiEmbeddingBulkhead") AdaptiveConcurrencyLimiter bulkhead,
+            @Value("${openai.embedding.timeout:2s}") Duration timeout) {
+        return new GuardedEmbeddingModel(openAiEmbeddingModel, circuitBreaker, bulkhead, timeout);
+    }
+
+    private static AdaptiveConcurrencyLimiter bulkhead(String name, int maxConcurrent, MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter bulkhead = new AdaptiveConcurrencyLimiter(
+                name, maxConcurrent, maxConcurrent, maxConcurrent, Duration.ofDays(1), 1.0);
+
+        String prefix = name.replace('-', '.');
+        Gauge.builder(prefix + ".bulkhead.inflight", bulkhead, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Calls to " + name + " currently in flight")
+                .register(meterRegistry);
+        Gauge.builder(prefix + ".bulkhead.rejected", bulkhead, AdaptiveConcurrencyLimiter::getRejected)
+                .description("Calls to " + name + " rejected by the bulkhead")
+                .register(meterRegistry);
+        return bulkhead;
+    }
+
+    private static CircuitBreaker register(CircuitBreaker breaker, MeterRegistry meterRegistry) {
+        Gauge.builder("circuitbreaker.state", breaker, b -> b.getState().ordinal())
+                .tag("name", breaker.getName())
+                .description("0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+        Gauge.builder("circuitbreaker.failure.rate", breaker, CircuitBreaker::getFailureRate)
+                .tag("name", breaker.getName())
+                .description("Share of failed or slow calls in the breaker's window")
+                .register(meterRegistry);
+        Gauge.builder("circuitbreaker.rejected", breaker, CircuitBreaker::getRejected)
+                .tag("name", breaker.getName())
+                .description("Calls rejected while the breaker was open")
+                .register(meterRegistry);
+        return breaker;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.MovieFlix.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs Reactor's bounded elastic work on virtual threads when spring.threads.virtual.enabled is set
+ *
+ * Spring Boot already moves Tomcat request handling and scheduled tasks onto
+ * virtual threads in that mode. The blocking calls offloaded with
+ * subscribeOn(Schedulers.boundedElastic()) would otherwise still queue behind
+ * its cap of ten platform threads per core; concurrency towards OMDB and
+ * OpenAI stays bounded by their limiters and bulkheads.
+ *
+ * The scheduler factory is installed by SchedulerInstaller before the context
+ * is created: Schedulers.setFactory disposes the cached schedulers, which
+ * beans built earlier (batchers, indexing pipelines) would otherwise hold.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    public VirtualThreadConfig() {
+        logger.info("Virtual threads enabled for request handling and bounded elastic work");
+    }
+
+    /**
+     * Replace the bounded elastic scheduler with one that starts a virtual thread per task
+     */
+    public static void installVirtualSchedulers() {
+        Schedulers.setFactory(new Schedulers.Factory() {
+            @Override
+            public Scheduler newBoundedElastic(int threadCap, int queuedTaskCap, ThreadFactory threadFactory,
+                    int ttlSeconds) {
+                return Schedulers.fromExecutorService(
+                        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("elastic-virtual-", 1).factory()),
+                        "boundedElastic-virtual");
+            }
+        });
+    }
+
+    /**
+     * Installs the virtual thread schedulers once the environment is known, before any bean exists
+     */
+    public static class SchedulerInstaller implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+
+        @Override
+        public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+            if (Threading.VIRTUAL.isActive(event.getEnvironment())) {
+                installVirtualSchedulers();
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.MovieFlix.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Strong ETags, Cache-Control and 304 Not Modified for JSON responses
+ *
+ * The ETag is a hash of the body as the JSON message converter will write it
+ * (same ObjectMapper), so equal ETags mean byte-identical bodies. It is
+ * computed from the response object the controller already holds: for a
+ * cached recommendation that object comes from the semantic, OMDB and
+ * recommendation caches, so answering 304 costs a serialization and a hash,
+ * never an OMDB or OpenAI call, and the body is not written.
+ */
+@Component
+public class ConditionalResponses {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConditionalResponses.class);
+    private static final int ETAG_BYTES = 16;
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final CacheControl recommendationCacheControl;
+    private final CacheControl metadataCacheControl;
+    private final LongAdder responses = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+
+    public ConditionalResponses(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${http.cache.recommendations-max-age:10m}") Duration recommendationMaxAge,
+            @Value("${http.cache.metadata-max-age:1h}") Duration metadataMaxAge) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.recommendationCacheControl = CacheControl.maxAge(recommendationMaxAge).cachePublic();
+        this.metadataCacheControl = CacheControl.maxAge(metadataMaxAge).cachePublic();
+        Gauge.builder("http.conditional.not_modified.ratio", this, ConditionalResponses::notModifiedRatio)
+                .description("Share of validated responses answered with 304 Not Modified")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 200 with the body, or 304 when If-None-Match already names it; cached for recommendations-max-age
+     */
+    public <T> ResponseEntity<T> recommendation(String endpoint, String ifNoneMatch, T body) {
+        return respond(endpoint, ifNoneMatch, body, recommendationCacheControl);
+    }
+
+    /**
+     * 200 with the body, or 304 when If-None-Match already names it; cached for metadata-max-age
+     */
+    public <T> ResponseEntity<T> metadata(String endpoint, String ifNoneMatch, T body) {
+        return respond(endpoint, ifNoneMatch, body, metadataCacheControl);
+    }
+
+    private <T> ResponseEntity<T> respond(String endpoint, String ifNoneMatch, T body, CacheControl cacheControl) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            logger.warn("Cannot compute ETag for {}: {}", endpoint, e.getMessage());
+            return ResponseEntity.ok(body);
+        }
+        String etag = etag(json);
+        responses.increment();
+        if (matches(ifNoneMatch, etag)) {
+            notModified.increment();
+            meterRegistry.counter("http.conditional.responses", "endpoint", endpoint, "result", "not_modified")
+                    .increment();
+            meterRegistry.counter("http.conditional.bytes.saved", "endpoint", endpoint).increment(json.length);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        meterRegistry.counter("http.conditional.responses", "endpoint", endpoint, "result", "ok").increment();
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(body);
+    }
+
+    /**
+     * Quoted, base64url-encoded first 128 bits of the SHA-256 of the body
+     */
+    static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return '"' + Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(Arrays.copyOf(digest, ETAG_BYTES)) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * If-None-Match uses weak comparison: "*" or any listed tag, with or without W/, matches
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double notModifiedRatio() {
+        long total = responses.sum();
+        return total == 0 ? 0.0 : (double) notModified.sum() / total;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.MovieFlix.controller;
+
+import com.example.MovieFlix.model.dto.SimilarMovie;
+import com.example.MovieFlix.model.dto.TitleSuggestion;
+import com.example.MovieFlix.service.AIRecommendationService;
+import com.example.MovieFlix.service.OmdbService;
+import com.example.MovieFlix.service.SimilarMovieIndex;
+import com.example.MovieFlix.service.TitleIndex;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Movie lookup endpoints served from local indexes
+ */
+@RestController
+@RequestMapping("/api/movies")
+public class MovieController {
+
+    private static final int MAX_SUGGESTIONS = 25;
+    private static final int MAX_SIMILAR = 50;
+
+    private final TitleIndex titleIndex;
+    private final SimilarMovieIndex similarMovieIndex;
+    private final OmdbService omdbService;
+    private final AIRecommendationService aiRecommendationService;
+    private final ConditionalResponses conditionalResponses;
+
+    public MovieController(TitleIndex titleIndex, SimilarMovieIndex similarMovieIndex, OmdbService omdbService,
+            AIRecommendationService aiRecommendationService, ConditionalResponses conditionalResponses) {
+        this.titleIndex = titleIndex;
+        this.similarMovieIndex = similarMovieIndex;
+        this.omdbService = omdbService;
+        this.aiRecommendationService = aiRecommendationService;
+        this.conditionalResponses = conditionalResponses;
+    }
+
+    /**
+     * Autocomplete and typo-tolerant title suggestions
+     * Answered from the in-memory title index only; never calls OMDB
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<TitleSuggestion>> suggest(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditionalResponses.metadata("movies.suggest", ifNoneMatch,
+                titleIndex.suggest(query, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
+    /**
+     * Movies similar to the given one, by embedding nearest neighbours
+     * An indexed movie is answered from memory without calling OpenAI; with reasons=true
+     * one chat call adds a short reason to each result. Those answers differ per call and
+     * cost a chat call each, so they carry no ETag and must not be stored by caches
+     */
+    @GetMapping("/{imdbId}/similar")
+    public Mono<ResponseEntity<List<SimilarMovie>>> similar(
+            @PathVariable String imdbId,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "false") boolean reasons,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Mono<List<SimilarMovie>> similar = similarMovieIndex.findSimilar(imdbId, Math.max(1, Math.min(limit, MAX_SIMILAR)));
+        if (reasons) {
+            return Mono.zip(omdbService.getMovieDetailsAsync(imdbId), similar)
+                    .flatMap(found -> aiRecommendationService.explainSimilarAsync(found.getT1(), found.getT2()))
+                    .map(movies -> ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(movies));
+        }
+        return similar.map(movies -> conditionalResponses.metadata("movies.similar", ifNoneMatch, movies));
+    }
+}
@@ -1,16 +1,26 @@
 package com.example.MovieFlix.controller;
 
+import com.example.MovieFlix.model.dto.MovieVibeResponse;
 import com.example.MovieFlix.model.dto.RecommendationResponse;
 import com.example.MovieFlix.model.dto.RecommendedMovie;
 import com.example.MovieFlix.model.dto.omdb.MovieDetailsResponse;
 import com.example.MovieFlix.service.AIRecommendationService;
-import com.example.MovieFlix.service.OmdbService;
+import com.example.MovieFlix.service.MovieResolver;
+import com.example.MovieFlix.service.RecommendationEnricher;
+import com.example.MovieFlix.service.SemanticRecommendationCache;
+import com.example.MovieFlix.service.TitlePopularity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -22,12 +32,22 @@ public class RecommendationController {
 
     private static final Logger logger = LoggerFactory.getLogger(RecommendationController.class);
 
-    private final OmdbService omdbService;
+    private final MovieResolver movieResolver;
     private final AIRecommendationService aiRecommendationService;
+    private final RecommendationEnricher recommendationEnricher;
+    private final SemanticRecommendationCache semanticCache;
+    private final TitlePopularity titlePopularity;
+    private final ConditionalResponses conditionalResponses;
 
-    public RecommendationController(OmdbService omdbService, AIRecommendationService aiRecommendationService) {
-        this.omdbService = omdbService;
+    public RecommendationController(MovieResolver movieResolver, AIRecommendationService aiRecommendationService,
+            RecommendationEnricher recommendationEnricher, SemanticRecommendationCache semanticCache,
+            TitlePopularity titlePopularity, ConditionalResponses conditionalResponses) {
+        this.movieResolver = movieResolver;
         this.aiRecommendationService = aiRecommendationService;
+        this.recommendationEnricher = recommendationEnricher;
+        this.semanticCache = semanticCache;
+        this.titlePopularity = titlePopularity;
+        this.conditionalResponses = conditionalResponses;
     }
 
     /**
@@ -37,33 +57,116 @@ public class RecommendationController {
      * 1. Fetches movie metadata from OMDB API
      * 2. Infers vibe from metadata using AI
      * 3. Generates 5 similar movie recommendations based on vibe
+     * 4. Optionally (enrich=true) resolves them against OMDB, dropping unknown titles
      * 
+     * Steps 1-3 are skipped when the semantic cache has answered the same or a near-identical request.
+     * The response carries an ETag; a request whose If-None-Match names it gets 304 Not Modified.
      * Works immediately - no setup required!
      */
     @GetMapping("/recommendations")
     public ResponseEntity<RecommendationResponse> getRecommendations(
             @RequestParam String title,
-            @RequestParam(required = false) String year) {
+            @RequestParam(required = false) String year,
+            @RequestParam(defaultValue = "false") boolean enrich,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         logger.info("Get recommendations for: title='{}', year='{}'", title, year);
+        titlePopularity.record(title);
+
+        RecommendationResponse response;
+        Optional<SemanticRecommendationCache.Hit> hit = semanticCache.lookup(title, year);
+        if (hit.isPresent()) {
+            response = toResponse(hit.get().movie(), hit.get().result());
+        } else {
+            // Step 1: Get movie metadata from OMDB (misspelled titles are mapped to indexed movies)
+            MovieDetailsResponse movie = movieResolver.resolve(title, year);
+
+            // Step 2 & 3: Infer vibe and generate recommendations using AI
+            AIRecommendationService.AIRecommendationResult result = aiRecommendationService.getRecommendations(movie);
+            semanticCache.putAsync(title, year, movie, result);
+
+            response = toResponse(movie, result);
+        }
+        if (enrich) {
+            // Step 4: Attach imdbID, poster and rating, looked up concurrently
+            response.setRecommendations(recommendationEnricher.enrichBlocking(response.getRecommendations()));
+        }
+        return conditionalResponses.recommendation("recommendations", ifNoneMatch, response);
+    }
 
-        // Step 1: Get movie metadata from OMDB
-        MovieDetailsResponse movie = omdbService.getMovieByTitle(title, year);
+    /**
+     * Non-blocking variant of /recommendations
+     *
+     * The OMDB lookup and the chat completion are composed reactively, so the
+     * servlet thread is released while both upstream calls are in flight.
+     */
+    @GetMapping("/recommendations/reactive")
+    public Mono<ResponseEntity<RecommendationResponse>> getRecommendationsReactive(
+            @RequestParam String title,
+            @RequestParam(required = false) String year,
+            @RequestParam(defaultValue = "false") boolean enrich,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        logger.info("Get reactive recommendations for: title='{}', year='{}'", title, year);
+        titlePopularity.record(title);
 
-        // Step 2 & 3: Infer vibe and generate recommendations using AI
-        AIRecommendationService.AIRecommendationResult result = aiRecommendationService.getRecommendations(movie);
+        Mono<RecommendationResponse> response = semanticCache.lookupAsync(title, year)
+                .map(hit -> toResponse(hit.movie(), hit.result()))
+                .switchIfEmpty(Mono.defer(() -> movieResolver.resolveAsync(title, year)
+                        .flatMap(movie -> aiRecommendationService.getRecommendationsAsync(movie)
+                                .doOnNext(result -> semanticCache.putAsync(title, year, movie, result))
+                                .map(result -> toResponse(movie, result)))));
+        if (enrich) {
+            response = response.flatMap(r -> recommendationEnricher.enrich(r.getRecommendations())
+                    .map(enriched -> {
+                        r.setRecommendations(enriched);
+                        return r;
+                    }));
+        }
+        return response.map(r -> conditionalResponses.recommendation("recommendations.reactive", ifNoneMatch, r));
+    }
 
+    /**
+     * Streaming variant of /recommendations as server-sent events
+     *
+     * Events: "movie" (the resolved source movie), "vibe" (vibe text as it is
+     * generated), one "recommendation" per movie as soon as it is complete,
+     * then "done". Failures are reported as an "error" event.
+     */
+    @GetMapping(value = "/recommendations/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamRecommendations(
+            @RequestParam String title,
+            @RequestParam(required = false) String year) {
+        logger.info("Stream recommendations for: title='{}', year='{}'", title, year);
+        titlePopularity.record(title);
+
+        return movieResolver.resolveAsync(title, year)
+                .flatMapMany(movie -> Flux.concat(
+                        Flux.just(event("movie",
+                                new MovieVibeResponse(movie.getTitle(), movie.getYear(), movie.getGenre(), null))),
+                        aiRecommendationService.streamRecommendationEvents(movie)
+                                .map(e -> event(e.name(), e.data()))))
+                .onErrorResume(e -> {
+                    logger.warn("Recommendation stream for '{}' failed: {}", title, e.getMessage());
+                    return Flux.just(event("error", e.getMessage() != null ? e.getMessage() : "Unexpected error"));
+                });
+    }
+
+    private static ServerSentEvent<Object> event(String name, Object data) {
+        return ServerSentEvent.builder(data).event(name).build();
+    }
+
+    private RecommendationResponse toResponse(MovieDetailsResponse movie,
+            AIRecommendationService.AIRecommendationResult result) {
         // Format response using proper DTOs
         List<RecommendedMovie> recommendations = result.getRecommendations().stream()
                 .map(r -> new RecommendedMovie(r.getTitle(), r.getYear(), r.getReason()))
                 .collect(Collectors.toList());
 
-        RecommendationResponse response = new RecommendationResponse(
+        return new RecommendationResponse(
                 movie.getTitle(),
                 movie.getYear(),
                 movie.getGenre(),
                 result.getVibe(),
-                recommendations);
-
-        return ResponseEntity.ok(response);
+                recommendations,
+                result.getModel());
     }
 }
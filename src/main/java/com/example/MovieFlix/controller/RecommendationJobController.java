@@ -0,0 +1,91 @@
+package com.example.MovieFlix.controller;
+
+import com.example.MovieFlix.exception.ResourceNotFoundException;
+import com.example.MovieFlix.model.dto.RecommendationJobRequest;
+import com.example.MovieFlix.model.dto.RecommendationJobResponse;
+import com.example.MovieFlix.service.RecommendationJobService;
+import com.example.MovieFlix.service.TitlePopularity;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Asynchronous recommendations: queue a job, then poll or long-poll for its result
+ */
+@RestController
+@RequestMapping("/api/recommendations/jobs")
+public class RecommendationJobController {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationJobController.class);
+
+    private final RecommendationJobService jobService;
+    private final TitlePopularity titlePopularity;
+    private final Duration maxWait;
+
+    public RecommendationJobController(RecommendationJobService jobService, TitlePopularity titlePopularity,
+            @Value("${recommendations.jobs.max-wait:60s}") Duration maxWait) {
+        this.jobService = jobService;
+        this.titlePopularity = titlePopularity;
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Queue a recommendation job and return its ID immediately
+     *
+     * Priority "interactive" (default) jobs run before "batch" ones. A full
+     * queue answers 429 with Retry-After.
+     */
+    @PostMapping
+    public ResponseEntity<RecommendationJobResponse> submit(@Valid @RequestBody RecommendationJobRequest request) {
+        RecommendationJobService.Priority priority = request.getPriority() != null
+                ? RecommendationJobService.Priority.valueOf(request.getPriority().toUpperCase(Locale.ROOT))
+                : RecommendationJobService.Priority.INTERACTIVE;
+        titlePopularity.record(request.getTitle());
+        RecommendationJobService.Job job = jobService.submit(request.getTitle(), request.getYear(), priority);
+        logger.info("Queued recommendation job {} for: title='{}', priority={}", job.getId(), job.getTitle(), priority);
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/recommendations/jobs/" + job.getId()))
+                .body(toResponse(job));
+    }
+
+    /**
+     * Get a job's state and, once finished, its result
+     *
+     * With wait (seconds, capped at recommendations.jobs.max-wait) the request
+     * is held until the job finishes or the wait runs out, without holding a
+     * servlet thread.
+     */
+    @GetMapping("/{id}")
+    public Mono<RecommendationJobResponse> get(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "0") long wait) {
+        Duration waitFor = Duration.ofSeconds(Math.max(0, wait));
+        if (waitFor.compareTo(maxWait) > 0) {
+            waitFor = maxWait;
+        }
+        return jobService.await(id, waitFor)
+                .map(RecommendationJobController::toResponse)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Recommendation job", id)));
+    }
+
+    private static RecommendationJobResponse toResponse(RecommendationJobService.Job job) {
+        return new RecommendationJobResponse(
+                job.getId(),
+                job.getStatus().name().toLowerCase(Locale.ROOT),
+                job.getPriority().name().toLowerCase(Locale.ROOT),
+                job.getCreatedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt(),
+                job.getResult(),
+                job.getError());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.MovieFlix.controller;
+
+import com.example.MovieFlix.model.dto.omdb.MovieSearchResult;
+import com.example.MovieFlix.service.MovieSearchService;
+import com.example.MovieFlix.service.TitlePopularity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+/**
+ * Movie search across all OMDB result pages
+ */
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchController.class);
+
+    private final MovieSearchService movieSearchService;
+    private final TitlePopularity titlePopularity;
+
+    public SearchController(MovieSearchService movieSearchService, TitlePopularity titlePopularity) {
+        this.movieSearchService = movieSearchService;
+        this.titlePopularity = titlePopularity;
+    }
+
+    /**
+     * Search movies by title, streaming results as each page arrives
+     * Served as NDJSON by default, or as server-sent events with Accept: text/event-stream
+     *
+     * @param title    Movie title to search
+     * @param maxPages Maximum number of OMDB pages to fetch (optional)
+     * @return distinct search results
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<MovieSearchResult> search(
+            @RequestParam String title,
+            @RequestParam(required = false) Integer maxPages) {
+        logger.info("Search request for: title='{}', maxPages={}", title, maxPages);
+        titlePopularity.record(title);
+        return movieSearchService.searchAll(title, maxPages);
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.MovieFlix.exception;
 
+import com.example.MovieFlix.common.AdaptiveConcurrencyLimiter;
+import com.example.MovieFlix.common.CircuitBreaker;
 import com.example.MovieFlix.model.entities.ApiResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -69,6 +72,51 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error("Invalid username or password", HttpStatus.UNAUTHORIZED.value()));
     }
 
+    /**
+     * Handle calls rejected by an open circuit breaker: 503 with Retry-After, so clients back off
+     */
+    @ExceptionHandler(CircuitBreaker.CircuitOpenException.class)
+    public ResponseEntity<ApiResponse<Void>> handleCircuitOpenException(CircuitBreaker.CircuitOpenException ex) {
+        logger.warn("Dependency unavailable: {}", ex.getMessage());
+
+        long retryAfter = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        Map<String, Object> details = new HashMap<>();
+        details.put("dependency", ex.getDependency());
+        details.put("retryAfterSeconds", retryAfter);
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter))
+                .body(ApiResponse.error("Service temporarily degraded, please retry later", details,
+                        HttpStatus.SERVICE_UNAVAILABLE.value()));
+    }
+
+    /**
+     * Handle calls rejected by a full bulkhead
+     */
+    @ExceptionHandler(AdaptiveConcurrencyLimiter.LimitExceededException.class)
+    public ResponseEntity<ApiResponse<Void>> handleLimitExceededException(
+            AdaptiveConcurrencyLimiter.LimitExceededException ex) {
+        logger.warn("Dependency saturated: {}", ex.getMessage());
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiResponse.error("Service busy, please retry later", HttpStatus.SERVICE_UNAVAILABLE.value()));
+    }
+
+    /**
+     * Handle work refused by a full queue: 429 with Retry-After
+     */
+    @ExceptionHandler(QueueFullException.class)
+    public ResponseEntity<ApiResponse<Void>> handleQueueFullException(QueueFullException ex) {
+        logger.warn("Queue full: {}", ex.getMessage());
+
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(ApiResponse.error(ex.getMessage(), HttpStatus.TOO_MANY_REQUESTS.value()));
+    }
+
     /**
      * Handle RuntimeExceptions (like username/email already exists)
      */
@@ -0,0 +1,10 @@
+package com.example.MovieFlix.exception;
+
+/**
+ * Exception thrown when OMDB has no movie matching a lookup
+ */
+public class MovieNotFoundException extends RuntimeException {
+    public MovieNotFoundException(String omdbError) {
+        super("Failed to fetch movie details: Movie not found: " + omdbError);
+    }
+}
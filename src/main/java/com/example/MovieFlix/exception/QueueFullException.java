@@ -0,0 +1,20 @@
+package com.example.MovieFlix.exception;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when work is refused because its queue is full
+ */
+public class QueueFullException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public QueueFullException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.MovieFlix.model.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for queuing a recommendation job
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendationJobRequest {
+
+    @NotBlank(message = "Title is required")
+    private String title;
+
+    private String year;
+
+    @Pattern(regexp = "(?i)interactive|batch", message = "Priority must be interactive or batch")
+    private String priority;
+}
@@ -0,0 +1,26 @@
+package com.example.MovieFlix.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * State of a recommendation job; result is set once it has succeeded, error once it has failed
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RecommendationJobResponse {
+    private String id;
+    private String status;
+    private String priority;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private RecommendationResponse result;
+    private String error;
+}
@@ -1,5 +1,6 @@
 package com.example.MovieFlix.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -18,4 +19,7 @@ public class RecommendationResponse {
     private String sourceGenre;
     private String vibe;
     private List<RecommendedMovie> recommendations;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String model;
 }
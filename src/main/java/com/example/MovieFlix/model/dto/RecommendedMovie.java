@@ -1,11 +1,13 @@
 package com.example.MovieFlix.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
  * A recommended movie based on vibe similarity
+ * imdbId, poster and imdbRating are only present when the recommendation was enriched from OMDB
  */
 @Data
 @NoArgsConstructor
@@ -14,4 +16,17 @@ public class RecommendedMovie {
     private String title;
     private String year;
     private String reason;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String imdbId;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String poster;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String imdbRating;
+
+    public RecommendedMovie(String title, String year, String reason) {
+        this(title, year, reason, null, null, null);
+    }
 }
@@ -0,0 +1,24 @@
+package com.example.MovieFlix.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A movie found by embedding similarity
+ * reason is only present when it was requested (reasons=true)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarMovie {
+    private String imdbId;
+    private String title;
+    private String year;
+    private String genre;
+    private double similarity;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String reason;
+}
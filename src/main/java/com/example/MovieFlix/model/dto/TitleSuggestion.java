@@ -0,0 +1,18 @@
+package com.example.MovieFlix.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A title suggestion for autocomplete
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TitleSuggestion {
+    private String imdbId;
+    private String title;
+    private String year;
+    private double score;
+}
@@ -0,0 +1,33 @@
+package com.example.MovieFlix.model.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted AI recommendation result
+ * Keyed by imdbID + prompt version + model + temperature, so changing any of them misses the old rows
+ */
+@Entity
+@Table(name = "recommendation_cache")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedRecommendation {
+
+    @Id
+    @Column(name = "cache_key", length = 191)
+    private String cacheKey;
+
+    @Column(name = "imdb_id", nullable = false, length = 16)
+    private String imdbId;
+
+    @Column(name = "result_json", nullable = false, columnDefinition = "TEXT")
+    private String resultJson;
+
+    @Column(name = "generated_at", nullable = false)
+    private LocalDateTime generatedAt;
+}
@@ -0,0 +1,81 @@
+package com.example.MovieFlix.model.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Locally stored movie metadata, loaded from catalog dumps and refreshed from OMDB
+ * Indexed by imdbID (primary key) and by normalized title + year
+ */
+@Entity
+@Table(name = "catalog_movies", indexes = {
+        @Index(name = "idx_catalog_title_year", columnList = "normalized_title, release_year")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogMovie {
+
+    @Id
+    @Column(name = "imdb_id", length = 16)
+    private String imdbId;
+
+    @Column(name = "title", nullable = false, length = 512)
+    private String title;
+
+    @Column(name = "normalized_title", nullable = false, length = 255)
+    private String normalizedTitle;
+
+    @Column(name = "release_year", length = 16)
+    private String year;
+
+    @Column(name = "type", length = 32)
+    private String type;
+
+    @Column(name = "rated", length = 16)
+    private String rated;
+
+    @Column(name = "runtime", length = 32)
+    private String runtime;
+
+    @Column(name = "genre", length = 255)
+    private String genre;
+
+    @Column(name = "director", length = 512)
+    private String director;
+
+    @Column(name = "actors", length = 1024)
+    private String actors;
+
+    @Column(name = "plot", columnDefinition = "TEXT")
+    private String plot;
+
+    @Column(name = "language", length = 255)
+    private String language;
+
+    @Column(name = "country", length = 255)
+    private String country;
+
+    @Column(name = "poster", length = 1024)
+    private String poster;
+
+    @Column(name = "imdb_rating", length = 8)
+    private String imdbRating;
+
+    @Column(name = "imdb_votes")
+    private Integer imdbVotes;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Whether the row carries enough metadata to answer a lookup without OMDB
+     */
+    public boolean isComplete() {
+        return plot != null && genre != null;
+    }
+}
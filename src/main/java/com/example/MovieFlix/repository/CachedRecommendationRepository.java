@@ -0,0 +1,12 @@
+package com.example.MovieFlix.repository;
+
+import com.example.MovieFlix.model.entities.CachedRecommendation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for persisted recommendation results
+ */
+@Repository
+public interface CachedRecommendationRepository extends JpaRepository<CachedRecommendation, String> {
+}
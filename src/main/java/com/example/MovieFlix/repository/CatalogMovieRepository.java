@@ -0,0 +1,41 @@
+package com.example.MovieFlix.repository;
+
+import com.example.MovieFlix.model.entities.CatalogMovie;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for the local movie catalog
+ */
+@Repository
+public interface CatalogMovieRepository extends JpaRepository<CatalogMovie, String> {
+
+    /**
+     * Find a movie by normalized title and release year
+     *
+     * @param normalizedTitle the normalized title
+     * @param year            the release year
+     * @return Optional containing the best match if found
+     */
+    Optional<CatalogMovie> findFirstByNormalizedTitleAndYearOrderByImdbVotesDesc(String normalizedTitle, String year);
+
+    /**
+     * Find all movies with the given normalized title
+     *
+     * @param normalizedTitle the normalized title
+     * @return the matching movies, usually one or a few remakes
+     */
+    List<CatalogMovie> findByNormalizedTitle(String normalizedTitle);
+
+    /**
+     * Find the most voted movies, most voted first
+     *
+     * @param pageable how many to return
+     * @return movies with a known vote count
+     */
+    List<CatalogMovie> findByImdbVotesNotNullOrderByImdbVotesDesc(Pageable pageable);
+}
@@ -0,0 +1,180 @@
+package com.example.MovieFlix.security;
+
+import com.example.MovieFlix.common.TokenBucket;
+import com.example.MovieFlix.model.entities.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-client rate limiting in front of every endpoint
+ *
+ * Each client IP has a token bucket. Behind a proxy or CDN the IP comes
+ * from X-Forwarded-For, which Tomcat only believes when the request arrives
+ * from a trusted proxy (server.forward-headers-strategy=native and
+ * server.tomcat.remoteip.*). A request takes the cost of the first matching rule in costs, 1
+ * if none matches, and is answered 429 with Retry-After when the bucket is
+ * short. Buckets live in a size-bounded cache and are dropped once idle for
+ * longer than it takes them to refill, which is the same as keeping them.
+ * Every limited response carries RateLimit-Limit, -Remaining, -Reset and
+ * -Policy headers.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int capacity;
+    private final double refillPerSecond;
+    private final List<Rule> rules;
+    private final Cache<String, TokenBucket> buckets;
+    private final String limit;
+    private final String policy;
+    private final Counter allowed;
+    private final Counter rejected;
+
+    public RateLimitFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${rate-limit.enabled:true}") boolean enabled,
+            @Value("${rate-limit.capacity:200}") int capacity,
+            @Value("${rate-limit.refill-per-second:2}") double refillPerSecond,
+            @Value("${rate-limit.max-clients:100000}") long maxClients,
+            @Value("${rate-limit.idle-timeout:10m}") Duration idleTimeout,
+            @Value("${rate-limit.costs:}") String costs) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.rules = parseRules(costs, capacity);
+        long fillSeconds = new TokenBucket(capacity, refillPerSecond, 0).getFillSeconds();
+        // Dropping a bucket before it has refilled would hand the client free tokens
+        Duration keepFor = idleTimeout.compareTo(Duration.ofSeconds(fillSeconds)) < 0
+                ? Duration.ofSeconds(fillSeconds) : idleTimeout;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(keepFor)
+                .build();
+        this.limit = Integer.toString(capacity);
+        this.policy = capacity + ";w=" + fillSeconds;
+        this.allowed = meterRegistry.counter("ratelimit.requests", "result", "allowed");
+        this.rejected = meterRegistry.counter("ratelimit.requests", "result", "rejected");
+        Gauge.builder("ratelimit.clients", buckets, Cache::estimatedSize)
+                .description("Clients with a token bucket held in memory")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        int cost = cost(request);
+        if (cost == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String client = request.getRemoteAddr();
+        long now = System.nanoTime();
+        TokenBucket.Result result = buckets.get(client, key -> new TokenBucket(capacity, refillPerSecond, now))
+                .tryAcquire(cost, now);
+
+        response.setHeader("RateLimit-Limit", limit);
+        response.setHeader("RateLimit-Remaining", Integer.toString(result.remaining()));
+        response.setHeader("RateLimit-Reset", Long.toString(seconds(result.resetNanos())));
+        response.setHeader("RateLimit-Policy", policy);
+        if (result.allowed()) {
+            allowed.increment();
+            chain.doFilter(request, response);
+            return;
+        }
+
+        rejected.increment();
+        logger.debug("Rate limit exceeded for {} on {} {}", client, request.getMethod(), request.getRequestURI());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds(result.retryAfterNanos())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("Rate limit exceeded, retry later", HttpStatus.TOO_MANY_REQUESTS.value()));
+    }
+
+    /**
+     * Tokens the request takes: the first rule matching method and path, else 1
+     */
+    int cost(HttpServletRequest request) {
+        if (rules.isEmpty()) {
+            return 1;
+        }
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (Rule rule : rules) {
+            if ((rule.method() == null || rule.method().equalsIgnoreCase(request.getMethod()))
+                    && rule.pattern().matches(path)) {
+                return rule.cost();
+            }
+        }
+        return 1;
+    }
+
+    private static long seconds(long nanos) {
+        return Math.max(1, (nanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    /**
+     * Parse "[METHOD ]pattern=cost" entries separated by commas, e.g. "POST /api/recommendations/jobs=20"
+     */
+    private static List<Rule> parseRules(String costs, int capacity) {
+        List<Rule> rules = new ArrayList<>();
+        if (costs == null || costs.isBlank()) {
+            return rules;
+        }
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        for (String entry : costs.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int equals = entry.lastIndexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Rate limit cost without '=': " + entry.trim());
+            }
+            String target = entry.substring(0, equals).trim();
+            int cost = Integer.parseInt(entry.substring(equals + 1).trim());
+            if (cost < 0 || cost > capacity) {
+                throw new IllegalArgumentException("Rate limit cost must be between 0 and capacity: " + entry.trim());
+            }
+            int space = target.indexOf(' ');
+            String method = space < 0 ? null : target.substring(0, space);
+            String pattern = space < 0 ? target : target.substring(space + 1).trim();
+            rules.add(new Rule(method, parser.parse(pattern), cost));
+        }
+        return rules;
+    }
+
+    private record Rule(String method, PathPattern pattern, int cost) {
+    }
+}
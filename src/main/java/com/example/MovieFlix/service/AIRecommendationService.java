@@ -1,26 +1,85 @@
 package com.example.MovieFlix.service;
 
+import com.example.MovieFlix.common.AdaptiveConcurrencyLimiter;
+import com.example.MovieFlix.common.CircuitBreaker;
+import com.example.MovieFlix.common.HedgedCall;
+import com.example.MovieFlix.common.MicroBatcher;
+import com.example.MovieFlix.common.SingleFlight;
+import com.example.MovieFlix.common.TitleNormalizer;
+import com.example.MovieFlix.model.dto.SimilarMovie;
 import com.example.MovieFlix.model.dto.omdb.MovieDetailsResponse;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
  * AI-powered recommendation service using OpenAI chat
  * Works immediately without requiring pre-indexed movies
+ *
+ * Results are cached per movie (see RecommendationCache); stale results are
+ * returned immediately while a refresh runs in the background.
+ *
+ * With recommendations.batching.enabled, concurrent requests for different
+ * movies are collected for a short window and sent as one multi-movie prompt
+ * (see MicroBatcher); a movie missing from the batched answer is asked alone.
+ *
+ * With recommendations.hedging.enabled, a single-movie call that runs past
+ * the configured percentile of recent latencies (or fails) is repeated on the
+ * faster hedging model; the first answer wins, the other call is cancelled,
+ * and the result names the model that answered (see HedgedCall). Backup
+ * answers are not cached, since the cache is keyed by the primary model.
+ *
+ * Every chat call goes through the OpenAI circuit breaker and bulkhead (see
+ * GuardedChatModel); while the breaker is open calls fail fast with
+ * CircuitOpenException, which is answered with 503.
  */
 @Service
 public class AIRecommendationService {
 
     private static final Logger logger = LoggerFactory.getLogger(AIRecommendationService.class);
     private final ChatModel chatModel;
+    private final RecommendationCache recommendationCache;
+    private final RecommendationFormat format;
+    private final SingleFlight<String, AIRecommendationResult> recommendationFlight;
+    private final MeterRegistry meterRegistry;
+    private final PromptBudget promptBudget;
+    private final DistributionSummary inputTokens;
+    private final DistributionSummary outputTokens;
+    private final Timer generationTimer;
+    private final MicroBatcher<MovieDetailsResponse, AIRecommendationResult> batcher;
+    private final String primaryModel;
+    private final String hedgeModel;
+    private final ChatOptions hedgeOptions;
+    private final HedgedCall hedge;
+
+    private static final ObjectMapper BATCH_JSON = new ObjectMapper();
 
     private static final String VIBE_AND_RECOMMENDATION_PROMPT = """
             Analyze this movie and recommend 5 similar movies:
@@ -44,73 +103,463 @@ public class AIRecommendationService {
             Include movies from different time periods for variety.
             """;
 
-    public AIRecommendationService(ChatModel chatModel) {
-        this.chatModel = chatModel;
+    /**
+     * Same task as VIBE_AND_RECOMMENDATION_PROMPT, answered as compact JSON to cut output tokens
+     */
+    private static final String COMPACT_RECOMMENDATION_PROMPT = """
+            Movie: %s (%s)
+            Genre: %s
+            Plot: %s
+            Director: %s
+            Actors: %s
+
+            v: the movie's vibe (emotional atmosphere, themes, tone) in 2-3 sentences.
+            r: 5 movies from different eras with a similar vibe, not just the same genre;
+            t=title, y=year, w=why it matches in at most 20 words.
+            Reply with minified JSON only, no prose or code fences:
+            {"v":"...","r":[{"t":"...","y":2000,"w":"..."}]}
+            """;
+
+    /**
+     * Several movies in one call, answered in the compact JSON shape keyed by movie number
+     */
+    private static final String BATCH_RECOMMENDATION_PROMPT = """
+            Analyze each numbered movie below and recommend 5 similar movies for each.
+
+            %s
+            For every movie number give:
+            v: its vibe (emotional atmosphere, themes, tone) in 2-3 sentences.
+            r: 5 movies from different eras with a similar vibe, not just the same genre;
+            t=title, y=year, w=why it matches in at most 20 words.
+            Reply with minified JSON only, no prose or code fences, keyed by movie number:
+            {"1":{"v":"...","r":[{"t":"...","y":2000,"w":"..."}]},"2":{"v":"...","r":[...]}}
+            """;
+
+    private static final String BATCH_MOVIE_ENTRY = """
+            %d. Movie: %s (%s)
+            Genre: %s
+            Plot: %s
+            Director: %s
+            Actors: %s
+
+            """;
+
+    /**
+     * Reasons only, for movies already chosen by the similar-movie index
+     */
+    private static final String SIMILAR_REASONS_PROMPT = """
+            Movie: %s (%s)
+            Genre: %s
+
+            For each numbered movie below, say in at most 20 words why someone who liked
+            the movie above would enjoy it. Reply with one line per movie, "<number>: <reason>",
+            and nothing else.
+
+            %s
+            """;
+
+    private static final Pattern NUMBERED_LINE = Pattern.compile("^\\s*(\\d{1,3})\\s*[:.)-]\\s*(.+)$", Pattern.MULTILINE);
+
+    public AIRecommendationService(ChatModel chatModel,
+            @Qualifier("openAiCircuitBreaker") CircuitBreaker circuitBreaker,
+            @Qualifier("openAiBulkhead") AdaptiveConcurrencyLimiter bulkhead,
+            RecommendationCache recommendationCache, PromptBudget promptBudget, MeterRegistry meterRegistry,
+            @Value("${recommendations.prompt.format:text}") String format,
+            @Value("${recommendations.batching.enabled:false}") boolean batching,
+            @Value("${recommendations.batching.window:50ms}") Duration batchWindow,
+            @Value("${recommendations.batching.max-size:8}") int maxBatchSize,
+            @Value("${recommendations.batching.concurrency:4}") int batchConcurrency,
+            @Value("${recommendations.batching.timeout:60s}") Duration batchTimeout,
+            @Value("${spring.ai.openai.chat.options.model:gpt-4}") String primaryModel,
+            @Value("${recommendations.hedging.enabled:false}") boolean hedging,
+            @Value("${recommendations.hedging.model:gpt-4o-mini}") String hedgeModel,
+            @Value("${recommendations.hedging.percentile:0.95}") double hedgePercentile,
+            @Value("${recommendations.hedging.min-delay:2s}") Duration hedgeMinDelay,
+            @Value("${recommendations.hedging.initial-delay:8s}") Duration hedgeInitialDelay) {
+        this.chatModel = new GuardedChatModel(chatModel, circuitBreaker, bulkhead);
+        this.recommendationCache = recommendationCache;
+        this.promptBudget = promptBudget;
+        this.format = RecommendationFormat.from(format);
+        this.meterRegistry = meterRegistry;
+        this.recommendationFlight = new SingleFlight<>("openai.recommendations", meterRegistry);
+        this.inputTokens = DistributionSummary.builder("recommendations.tokens.input")
+                .description("Prompt tokens per recommendation, counted locally")
+                .tag("format", this.format.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+        this.outputTokens = DistributionSummary.builder("recommendations.tokens.output")
+                .description("Completion tokens per recommendation call, as reported by the model")
+                .tag("format", this.format.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+        this.generationTimer = Timer.builder("recommendations.generation.latency")
+                .description("Time from prompt to complete answer")
+                .tag("format", this.format.name().toLowerCase(Locale.ROOT))
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.batcher = batching
+                ? new MicroBatcher<>("openai.recommendations", maxBatchSize, batchWindow, batchConcurrency,
+                        batchTimeout, this::generateBatch, meterRegistry)
+                : null;
+        this.primaryModel = primaryModel;
+        this.hedgeModel = hedgeModel;
+        this.hedgeOptions = hedging ? OpenAiChatOptions.builder().withModel(hedgeModel).build() : null;
+        this.hedge = hedging
+                ? new HedgedCall("openai.recommendations", hedgePercentile, hedgeMinDelay, hedgeInitialDelay, 200,
+                        meterRegistry)
+                : null;
     }
 
     /**
      * Get AI-powered recommendations based on movie metadata
      * No database required - works on first use
+     * Concurrent requests for the same movie share a single chat call
      */
     public AIRecommendationResult getRecommendations(MovieDetailsResponse movie) {
-        logger.info("Getting AI recommendations for: {}", movie.getTitle());
+        Optional<RecommendationCache.Entry> cached = recommendationCache.get(movie.getImdbId());
+        if (cached.isPresent()) {
+            return serveCached(movie, cached.get());
+        }
+        return recommendationFlight.execute(flightKey(movie),
+                () -> remember(movie, generateRecommendations(movie)));
+    }
+
+    /**
+     * Non-blocking variant of getRecommendations
+     * Streams the completion from the chat model so no thread waits on the OpenAI call
+     */
+    public Mono<AIRecommendationResult> getRecommendationsAsync(MovieDetailsResponse movie) {
+        return recommendationCache.getAsync(movie.getImdbId())
+                .map(cached -> serveCached(movie, cached))
+                .switchIfEmpty(Mono.defer(() -> Mono.fromFuture(() -> recommendationFlight.executeAsync(
+                        flightKey(movie),
+                        () -> streamRecommendations(movie).map(result -> remember(movie, result)).toFuture()),
+                        true)));
+    }
 
-        String promptText = String.format(VIBE_AND_RECOMMENDATION_PROMPT,
-                movie.getTitle(),
-                movie.getYear(),
-                movie.getGenre() != null ? movie.getGenre() : "Unknown",
-                movie.getPlot() != null ? movie.getPlot() : "No plot available",
-                movie.getDirector() != null ? movie.getDirector() : "Unknown",
-                movie.getActors() != null ? movie.getActors() : "Unknown");
+    /**
+     * Stream the answer as it is generated: vibe text first, then one event per recommendation
+     * A cached result is replayed as the same events; a streamed result is cached once complete
+     */
+    public Flux<RecommendationStreamParser.Event> streamRecommendationEvents(MovieDetailsResponse movie) {
+        return recommendationCache.getAsync(movie.getImdbId())
+                .flatMapMany(cached -> Flux.fromIterable(RecommendationStreamParser.replay(serveCached(movie, cached))))
+                .switchIfEmpty(Flux.defer(() -> {
+                    logger.info("Streaming AI recommendation events for: {}", movie.getTitle());
+                    RecommendationStreamParser parser = RecommendationStreamParser.forFormat(format);
+                    return chatModel.stream(new Prompt(buildPrompt(movie)))
+                            .mapNotNull(chunk -> chunk.getResult() != null
+                                    ? chunk.getResult().getOutput().getContent() : null)
+                            .concatMapIterable(parser::feed)
+                            .concatWith(Flux.defer(() -> {
+                                List<RecommendationStreamParser.Event> rest = parser.finish();
+                                remember(movie,
+                                        recordParse(parser, parser.result(movie.getTitle())).withModel(primaryModel));
+                                return Flux.fromIterable(rest);
+                            }));
+                }));
+    }
+
+    /**
+     * Ask the chat model why each similar movie fits; the movies themselves come from the embedding index
+     * If the call fails the movies are returned without reasons
+     *
+     * @param source  the movie the similar movies were found for
+     * @param similar similar movies, in the order they should be numbered
+     * @return Mono emitting the same movies with reason set where the answer provided one
+     */
+    public Mono<List<SimilarMovie>> explainSimilarAsync(MovieDetailsResponse source, List<SimilarMovie> similar) {
+        if (similar.isEmpty()) {
+            return Mono.just(similar);
+        }
+        StringBuilder numbered = new StringBuilder();
+        for (int i = 0; i < similar.size(); i++) {
+            SimilarMovie movie = similar.get(i);
+            numbered.append(i + 1).append(". ").append(movie.getTitle()).append(" (").append(movie.getYear()).append(")\n");
+        }
+        String prompt = String.format(SIMILAR_REASONS_PROMPT,
+                source.getTitle(),
+                source.getYear(),
+                source.getGenre() != null ? source.getGenre() : "Unknown",
+                numbered);
+
+        return chatModel.stream(new Prompt(prompt))
+                .doOnNext(chunk -> recordUsage(chunk, 1))
+                .mapNotNull(chunk -> chunk.getResult() != null ? chunk.getResult().getOutput().getContent() : null)
+                .collect(Collectors.joining())
+                .map(answer -> {
+                    Matcher line = NUMBERED_LINE.matcher(answer);
+                    while (line.find()) {
+                        int position = Integer.parseInt(line.group(1)) - 1;
+                        if (position >= 0 && position < similar.size()) {
+                            similar.get(position).setReason(line.group(2).trim());
+                        }
+                    }
+                    return similar;
+                })
+                .onErrorResume(e -> {
+                    logger.warn("Failed to explain similar movies for {}: {}", source.getTitle(), e.getMessage());
+                    return Mono.just(similar);
+                });
+    }
+
+    /**
+     * Return a cached result, kicking off a background refresh if it is stale
+     */
+    private AIRecommendationResult serveCached(MovieDetailsResponse movie, RecommendationCache.Entry cached) {
+        if (cached.isStale()) {
+            logger.debug("Serving stale recommendations for {} while refreshing", movie.getImdbId());
+            recommendationFlight.executeAsync(flightKey(movie), () -> streamRecommendations(movie)
+                    .map(result -> remember(movie, result))
+                    .doOnSuccess(result -> recommendationCache.recordRefresh(true))
+                    .doOnError(e -> {
+                        recommendationCache.recordRefresh(false);
+                        logger.warn("Background refresh for {} failed: {}", movie.getImdbId(), e.getMessage());
+                    })
+                    .toFuture());
+        }
+        return cached.getResult();
+    }
+
+    /**
+     * Cache a result unless parsing found nothing worth keeping
+     * A hedged answer from the backup model is served but not cached: the cache key names the primary model
+     */
+    private AIRecommendationResult remember(MovieDetailsResponse movie, AIRecommendationResult result) {
+        if (result.getRecommendations().isEmpty()) {
+            return result;
+        }
+        if (!primaryModel.equals(result.getModel())) {
+            logger.debug("Not caching {} answer for {}", result.getModel(), movie.getImdbId());
+            return result;
+        }
+        recommendationCache.put(movie.getImdbId(), result);
+        return result;
+    }
 
-        String response = chatModel.call(new Prompt(promptText)).getResult().getOutput().getContent();
+    private String flightKey(MovieDetailsResponse movie) {
+        return movie.getImdbId() != null
+                ? movie.getImdbId()
+                : TitleNormalizer.key(movie.getTitle(), movie.getYear());
+    }
+
+    private AIRecommendationResult generateRecommendations(MovieDetailsResponse movie) {
+        if (batcher != null) {
+            return batched(movie, Mono.fromCallable(() -> generateSingle(movie))
+                    .subscribeOn(Schedulers.boundedElastic())).block();
+        }
+        return generateSingle(movie);
+    }
+
+    private Mono<AIRecommendationResult> streamRecommendations(MovieDetailsResponse movie) {
+        if (batcher != null) {
+            return batched(movie, Mono.defer(() -> streamSingle(movie)));
+        }
+        return streamSingle(movie);
+    }
+
+    /**
+     * Queue the movie for the next batched call, asking for it alone if the batch has no answer for it
+     */
+    private Mono<AIRecommendationResult> batched(MovieDetailsResponse movie, Mono<AIRecommendationResult> single) {
+        return Mono.fromFuture(() -> batcher.submit(movie))
+                .onErrorResume(e -> {
+                    logger.warn("Batched recommendations for {} failed, asking alone: {}",
+                            movie.getTitle(), e.getMessage());
+                    return single;
+                });
+    }
+
+    private AIRecommendationResult generateSingle(MovieDetailsResponse movie) {
+        if (hedge != null) {
+            return streamSingle(movie).block();
+        }
+        logger.info("Getting AI recommendations for: {}", movie.getTitle());
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        ChatResponse chatResponse = chatModel.call(new Prompt(buildPrompt(movie)));
+        sample.stop(generationTimer);
+        recordUsage(chatResponse, 1);
+        String response = chatResponse.getResult().getOutput().getContent();
         logger.debug("OpenAI response: {}", response);
 
-        return parseResponse(response, movie.getTitle());
+        return parseResponse(response, movie.getTitle()).withModel(primaryModel);
     }
 
-    private AIRecommendationResult parseResponse(String response, String sourceTitle) {
-        // Extract vibe analysis (everything before first "MOVIE:")
-        String vibe = extractVibe(response);
+    private Mono<AIRecommendationResult> streamSingle(MovieDetailsResponse movie) {
+        logger.info("Streaming AI recommendations for: {}", movie.getTitle());
 
-        // Extract movie recommendations
-        List<MovieRecommendation> recommendations = parseRecommendations(response);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String prompt = buildPrompt(movie);
+        Mono<AIRecommendationResult> primary = complete(new Prompt(prompt))
+                .map(response -> parseResponse(response, movie.getTitle()).withModel(primaryModel));
+        if (hedge == null) {
+            return primary.doOnSuccess(result -> sample.stop(generationTimer));
+        }
+        Mono<AIRecommendationResult> backup = complete(new Prompt(prompt, hedgeOptions))
+                .map(response -> parseResponse(response, movie.getTitle()).withModel(hedgeModel));
+        return hedge.execute(primary, backup)
+                .doOnNext(outcome -> {
+                    sample.stop(generationTimer);
+                    if (outcome.fromBackup()) {
+                        logger.info("Hedged call on {} answered first for: {}", hedgeModel, movie.getTitle());
+                    }
+                })
+                .map(HedgedCall.Outcome::value);
+    }
 
-        return new AIRecommendationResult(sourceTitle, vibe, recommendations);
+    /**
+     * Stream a prompt to the chat model and join the answer
+     */
+    private Mono<String> complete(Prompt prompt) {
+        return chatModel.stream(prompt)
+                .doOnNext(chunk -> recordUsage(chunk, 1))
+                .mapNotNull(chunk -> chunk.getResult() != null ? chunk.getResult().getOutput().getContent() : null)
+                .collect(Collectors.joining())
+                .doOnNext(response -> logger.debug("OpenAI response: {}", response));
     }
 
-    private String extractVibe(String response) {
-        // Get everything before the first "MOVIE:"
-        int movieIndex = response.indexOf("MOVIE:");
-        if (movieIndex > 0) {
-            return response.substring(0, movieIndex).trim();
+    /**
+     * One chat call for several movies; results are returned in the same order, null where the answer
+     * has nothing usable for a movie
+     */
+    private Mono<List<AIRecommendationResult>> generateBatch(List<MovieDetailsResponse> movies) {
+        if (movies.size() == 1) {
+            return streamSingle(movies.get(0)).map(List::of);
         }
-        return "Unable to analyze vibe";
+        logger.info("Getting batched AI recommendations for {} movies", movies.size());
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return chatModel.stream(new Prompt(buildBatchPrompt(movies)))
+                .doOnNext(chunk -> recordUsage(chunk, movies.size()))
+                .mapNotNull(chunk -> chunk.getResult() != null ? chunk.getResult().getOutput().getContent() : null)
+                .collect(Collectors.joining())
+                .doOnSuccess(response -> sample.stop(
+                        meterRegistry.timer("recommendations.generation.latency", "format", "batch")))
+                .map(response -> {
+                    logger.debug("OpenAI batched response: {}", response);
+                    return splitBatch(response, movies);
+                });
     }
 
-    private List<MovieRecommendation> parseRecommendations(String response) {
-        List<MovieRecommendation> recommendations = new ArrayList<>();
+    private String buildBatchPrompt(List<MovieDetailsResponse> movies) {
+        StringBuilder entries = new StringBuilder();
+        for (int i = 0; i < movies.size(); i++) {
+            PromptBudget.Fields fields = promptBudget.fit(movies.get(i));
+            entries.append(String.format(BATCH_MOVIE_ENTRY,
+                    i + 1,
+                    fields.title(),
+                    fields.year(),
+                    fields.genre(),
+                    fields.plot(),
+                    fields.director(),
+                    fields.actors()));
+        }
+        String prompt = String.format(BATCH_RECOMMENDATION_PROMPT, entries);
+        recordInput(prompt, movies.size());
+        return prompt;
+    }
 
-        Pattern moviePattern = Pattern.compile("MOVIE:\\s*(.+?)\\s*\\((\\d{4})\\)", Pattern.CASE_INSENSITIVE);
-        Pattern reasonPattern = Pattern.compile("REASON:\\s*(.+?)(?=MOVIE:|$)",
-                Pattern.DOTALL | Pattern.CASE_INSENSITIVE);
+    /**
+     * Split a batched answer into one result per movie with the compact JSON parser
+     */
+    private List<AIRecommendationResult> splitBatch(String response, List<MovieDetailsResponse> movies) {
+        JsonNode root = readBatch(response);
+        List<AIRecommendationResult> results = new ArrayList<>(movies.size());
+        for (int i = 0; i < movies.size(); i++) {
+            JsonNode answer = root != null ? root.get(Integer.toString(i + 1)) : null;
+            AIRecommendationResult result = null;
+            if (answer != null && answer.isObject()) {
+                RecommendationStreamParser parser = RecommendationStreamParser.forFormat(RecommendationFormat.JSON);
+                parser.feed(answer.toString());
+                parser.finish();
+                result = parser.result(movies.get(i).getTitle());
+            }
+            if (result != null && !result.getRecommendations().isEmpty()) {
+                countParse("batch", "ok");
+                results.add(result.withModel(primaryModel));
+            } else {
+                countParse("batch", "failed");
+                results.add(null);
+            }
+        }
+        return results;
+    }
 
-        Matcher movieMatcher = moviePattern.matcher(response);
-        Matcher reasonMatcher = reasonPattern.matcher(response);
+    private static JsonNode readBatch(String response) {
+        String json = JsonRecommendationStreamParser.repair(response);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return BATCH_JSON.readTree(json);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
 
-        while (movieMatcher.find() && reasonMatcher.find()) {
-            String title = movieMatcher.group(1).trim();
-            String year = movieMatcher.group(2).trim();
-            String reason = reasonMatcher.group(1).trim();
+    private String buildPrompt(MovieDetailsResponse movie) {
+        String template = format == RecommendationFormat.JSON
+                ? COMPACT_RECOMMENDATION_PROMPT
+                : VIBE_AND_RECOMMENDATION_PROMPT;
+        PromptBudget.Fields fields = promptBudget.fit(movie);
+        String prompt = String.format(template,
+                fields.title(),
+                fields.year(),
+                fields.genre(),
+                fields.plot(),
+                fields.director(),
+                fields.actors());
+        recordInput(prompt, 1);
+        return prompt;
+    }
+
+    /**
+     * Record prompt tokens as counted locally; streamed calls rarely report usage
+     */
+    private void recordInput(String prompt, int answers) {
+        int tokens = promptBudget.count(prompt);
+        inputTokens.record((double) tokens / answers);
+        logger.debug("Prompt of {} input tokens for {} movie(s)", tokens, answers);
+    }
+
+    /**
+     * Parse a complete answer in a single pass with the parser for the configured format
+     */
+    private AIRecommendationResult parseResponse(String response, String sourceTitle) {
+        RecommendationStreamParser parser = RecommendationStreamParser.forFormat(format);
+        parser.feed(response);
+        parser.finish();
+        AIRecommendationResult result = recordParse(parser, parser.result(sourceTitle));
+        logger.info("Found {} recommendations", result.getRecommendations().size());
+        return result;
+    }
 
-            // Remove quotes from title if present
-            title = title.replaceAll("^\"|\"$", "");
+    private AIRecommendationResult recordParse(RecommendationStreamParser parser, AIRecommendationResult result) {
+        String outcome = result.getRecommendations().isEmpty() ? "failed" : parser.wasRepaired() ? "repaired" : "ok";
+        countParse(format.name().toLowerCase(Locale.ROOT), outcome);
+        return result;
+    }
 
-            recommendations.add(new MovieRecommendation(title, year, reason));
+    private void countParse(String formatTag, String outcome) {
+        meterRegistry.counter("recommendations.parse", "format", formatTag, "outcome", outcome).increment();
+        if (!"ok".equals(outcome)) {
+            logger.warn("Recommendation answer parse outcome ({}): {}", formatTag, outcome);
         }
+    }
 
-        logger.info("Found {} recommendations", recommendations.size());
-        return recommendations;
+    /**
+     * Record completion tokens when the model reports usage (streams usually report it on the last chunk only)
+     * A batched answer is recorded as its per-movie share
+     */
+    private void recordUsage(ChatResponse response, int answers) {
+        if (response.getMetadata() == null || response.getMetadata().getUsage() == null) {
+            return;
+        }
+        Long tokens = response.getMetadata().getUsage().getGenerationTokens();
+        if (tokens != null && tokens > 0) {
+            outputTokens.record((double) tokens / answers);
+            logger.debug("Answer of {} output tokens ({} prompt tokens reported) for {} movie(s)",
+                    tokens, response.getMetadata().getUsage().getPromptTokens(), answers);
+        }
     }
 
     /**
@@ -120,11 +569,29 @@ public class AIRecommendationService {
         private final String sourceTitle;
         private final String vibe;
         private final List<MovieRecommendation> recommendations;
+        private final String model;
 
         public AIRecommendationResult(String sourceTitle, String vibe, List<MovieRecommendation> recommendations) {
+            this(sourceTitle, vibe, recommendations, null);
+        }
+
+        @JsonCreator
+        public AIRecommendationResult(
+                @JsonProperty("sourceTitle") String sourceTitle,
+                @JsonProperty("vibe") String vibe,
+                @JsonProperty("recommendations") List<MovieRecommendation> recommendations,
+                @JsonProperty("model") String model) {
             this.sourceTitle = sourceTitle;
             this.vibe = vibe;
             this.recommendations = recommendations;
+            this.model = model;
+        }
+
+        /**
+         * The same result, attributed to the model that produced it
+         */
+        public AIRecommendationResult withModel(String model) {
+            return new AIRecommendationResult(sourceTitle, vibe, recommendations, model);
         }
 
         public String getSourceTitle() {
@@ -138,6 +605,13 @@ public class AIRecommendationService {
         public List<MovieRecommendation> getRecommendations() {
             return recommendations;
         }
+
+        /**
+         * The chat model that answered; null for results cached before this was recorded
+         */
+        public String getModel() {
+            return model;
+        }
     }
 
     /**
@@ -148,7 +622,11 @@ public class AIRecommendationService {
         private final String year;
         private final String reason;
 
-        public MovieRecommendation(String title, String year, String reason) {
+        @JsonCreator
+        public MovieRecommendation(
+                @JsonProperty("title") String title,
+                @JsonProperty("year") String year,
+                @JsonProperty("reason") String reason) {
             this.title = title;
             this.year = year;
             this.reason = reason;
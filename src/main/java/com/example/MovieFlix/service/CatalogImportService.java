@@ -0,0 +1,336 @@
+package com.example.MovieFlix.service;
+
+import com.example.MovieFlix.common.TitleNormalizer;
+import com.example.MovieFlix.model.dto.omdb.MovieDetailsResponse;
+import com.example.MovieFlix.model.entities.CatalogMovie;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streaming bulk importer for the local movie catalog
+ *
+ * Reads IMDb-style TSV dumps (title.basics.tsv) or OMDB-shaped JSON lines,
+ * optionally gzipped, one line at a time and writes them in fixed-size JDBC
+ * batches, so memory use does not depend on the size of the file.
+ * Existing richer values are never overwritten by nulls from a sparser dump.
+ */
+@Service
+public class CatalogImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogImportService.class);
+
+    private static final String TSV_NULL = "\\N";
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO catalog_movies (imdb_id, title, normalized_title, release_year, type, rated, runtime,
+                genre, director, actors, plot, language, country, poster, imdb_rating, imdb_votes, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                title = VALUES(title),
+                normalized_title = VALUES(normalized_title),
+                release_year = COALESCE(VALUES(release_year), release_year),
+                type = COALESCE(VALUES(type), type),
+                rated = COALESCE(VALUES(rated), rated),
+                runtime = COALESCE(VALUES(runtime), runtime),
+                genre = COALESCE(VALUES(genre), genre),
+                director = COALESCE(VALUES(director), director),
+                actors = COALESCE(VALUES(actors), actors),
+                plot = COALESCE(VALUES(plot), plot),
+                language = COALESCE(VALUES(language), language),
+                country = COALESCE(VALUES(country), country),
+                poster = COALESCE(VALUES(poster), poster),
+                imdb_rating = COALESCE(VALUES(imdb_rating), imdb_rating),
+                imdb_votes = COALESCE(VALUES(imdb_votes), imdb_votes),
+                updated_at = IF(VALUES(plot) IS NULL, updated_at, VALUES(updated_at))
+            """;
+
+    private static final int[] ROW_TYPES = {
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.TIMESTAMP
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectReader movieReader;
+    private final int batchSize;
+    private final Set<String> titleTypes;
+
+    public CatalogImportService(
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            @Value("${catalog.import.batch-size:1000}") int batchSize,
+            @Value("${catalog.import.title-types:movie,tvMovie,tvSeries,tvMiniSeries}") Set<String> titleTypes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.movieReader = objectMapper.readerFor(MovieDetailsResponse.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.batchSize = batchSize;
+        this.titleTypes = titleTypes;
+    }
+
+    /**
+     * Import a catalog dump
+     *
+     * @param path TSV (.tsv) or JSON lines (.jsonl/.ndjson) file, optionally ending in .gz
+     * @return counts and throughput of the import
+     */
+    public ImportResult importFile(Path path) throws IOException {
+        String name = path.getFileName().toString().toLowerCase();
+        boolean gzipped = name.endsWith(".gz");
+        String baseName = gzipped ? name.substring(0, name.length() - 3) : name;
+        boolean tsv = baseName.endsWith(".tsv");
+        logger.info("Importing catalog from {} ({} format{})", path, tsv ? "TSV" : "JSON lines",
+                gzipped ? ", gzipped" : "");
+
+        try (InputStream raw = Files.newInputStream(path);
+                InputStream in = gzipped ? new GZIPInputStream(raw, 1 << 16) : raw;
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16)) {
+            return tsv ? importTsv(reader) : importJsonLines(reader);
+        }
+    }
+
+    private ImportResult importTsv(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            return new ImportResult(0, 0, 0, 0);
+        }
+        Map<String, Integer> columns = indexColumns(header.split("\t", -1));
+        int idColumn = requireColumn(columns, "tconst");
+        int titleColumn = requireColumn(columns, "primaryTitle");
+        int typeColumn = columns.getOrDefault("titleType", -1);
+        int yearColumn = columns.getOrDefault("startYear", -1);
+        int runtimeColumn = columns.getOrDefault("runtimeMinutes", -1);
+        int genresColumn = columns.getOrDefault("genres", -1);
+
+        ImportProgress progress = new ImportProgress();
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            progress.read++;
+            String[] fields = line.split("\t", -1);
+            String type = field(fields, typeColumn);
+            if (fields.length <= titleColumn || (type != null && !titleTypes.contains(type))) {
+                progress.skipped++;
+                continue;
+            }
+            CatalogMovie movie = new CatalogMovie();
+            movie.setImdbId(field(fields, idColumn));
+            movie.setTitle(field(fields, titleColumn));
+            movie.setType(type);
+            movie.setYear(field(fields, yearColumn));
+            String runtime = field(fields, runtimeColumn);
+            movie.setRuntime(runtime != null ? runtime + " min" : null);
+            String genres = field(fields, genresColumn);
+            movie.setGenre(genres != null ? genres.replace(",", ", ") : null);
+            add(batch, movie, progress);
+        }
+        flush(batch, progress);
+        return progress.finish();
+    }
+
+    private ImportResult importJsonLines(BufferedReader reader) throws IOException {
+        ImportProgress progress = new ImportProgress();
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            progress.read++;
+            if (line.isBlank()) {
+                progress.skipped++;
+                continue;
+            }
+            MovieDetailsResponse response;
+            try {
+                response = movieReader.readValue(line);
+            } catch (IOException e) {
+                logger.debug("Skipping malformed catalog line {}: {}", progress.read, e.getMessage());
+                progress.skipped++;
+                continue;
+            }
+            if (response.getImdbId() == null || response.getTitle() == null
+                    || "False".equals(response.getResponse())) {
+                progress.skipped++;
+                continue;
+            }
+            add(batch, CatalogService.toEntity(stripNotAvailable(response)), progress);
+        }
+        flush(batch, progress);
+        return progress.finish();
+    }
+
+    private void add(List<Object[]> batch, CatalogMovie movie, ImportProgress progress) {
+        if (movie.getImdbId() == null || movie.getTitle() == null) {
+            progress.skipped++;
+            return;
+        }
+        batch.add(toRow(movie));
+        if (batch.size() >= batchSize) {
+            flush(batch, progress);
+        }
+    }
+
+    private void flush(List<Object[]> batch, ImportProgress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, batch, ROW_TYPES);
+        progress.imported += batch.size();
+        batch.clear();
+        progress.logIfDue();
+    }
+
+    private static Object[] toRow(CatalogMovie movie) {
+        return new Object[] {
+                movie.getImdbId(),
+                truncate(movie.getTitle(), 512),
+                truncate(TitleNormalizer.normalize(movie.getTitle()), 255),
+                movie.getYear(),
+                movie.getType(),
+                movie.getRated(),
+                movie.getRuntime(),
+                truncate(movie.getGenre(), 255),
+                truncate(movie.getDirector(), 512),
+                truncate(movie.getActors(), 1024),
+                movie.getPlot(),
+                truncate(movie.getLanguage(), 255),
+                truncate(movie.getCountry(), 255),
+                truncate(movie.getPoster(), 1024),
+                movie.getImdbRating(),
+                movie.getImdbVotes(),
+                Timestamp.valueOf(LocalDateTime.now())
+        };
+    }
+
+    /**
+     * OMDB uses "N/A" for missing values; store them as nulls
+     */
+    private static MovieDetailsResponse stripNotAvailable(MovieDetailsResponse movie) {
+        if ("N/A".equals(movie.getPlot())) {
+            movie.setPlot(null);
+        }
+        if ("N/A".equals(movie.getPoster())) {
+            movie.setPoster(null);
+        }
+        if ("N/A".equals(movie.getImdbRating())) {
+            movie.setImdbRating(null);
+        }
+        return movie;
+    }
+
+    private static Map<String, Integer> indexColumns(String[] header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            columns.put(header[i].trim(), i);
+        }
+        return columns;
+    }
+
+    private static int requireColumn(Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException("Catalog TSV is missing required column: " + name);
+        }
+        return index;
+    }
+
+    private static String field(String[] fields, int index) {
+        if (index < 0 || index >= fields.length) {
+            return null;
+        }
+        String value = fields[index];
+        return value.isEmpty() || TSV_NULL.equals(value) ? null : value;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    /**
+     * Mutable counters for a single import run
+     */
+    private static final class ImportProgress {
+        private static final long LOG_INTERVAL_NANOS = 10_000_000_000L;
+
+        private final long startNanos = System.nanoTime();
+        private long lastLogNanos = startNanos;
+        private long read;
+        private long imported;
+        private long skipped;
+
+        void logIfDue() {
+            long now = System.nanoTime();
+            if (now - lastLogNanos >= LOG_INTERVAL_NANOS) {
+                lastLogNanos = now;
+                logger.info("Catalog import progress: {} rows read, {} imported, {} rows/s",
+                        read, imported, Math.round(rowsPerSecond(now)));
+            }
+        }
+
+        ImportResult finish() {
+            long now = System.nanoTime();
+            ImportResult result = new ImportResult(read, imported, skipped, rowsPerSecond(now));
+            logger.info("Catalog import finished: {} rows read, {} imported, {} skipped in {}s ({} rows/s)",
+                    read, imported, skipped, (now - startNanos) / 1_000_000_000L, Math.round(result.getRowsPerSecond()));
+            return result;
+        }
+
+        private double rowsPerSecond(long now) {
+            double seconds = Math.max((now - startNanos) / 1_000_000_000.0, 1e-9);
+            return read / seconds;
+        }
+    }
+
+    /**
+     * Summary of a finished import
+     */
+    public static class ImportResult {
+        private final long rowsRead;
+        private final long rowsImported;
+        private final long rowsSkipped;
+        private final double rowsPerSecond;
+
+        public ImportResult(long rowsRead, long rowsImported, long rowsSkipped, double rowsPerSecond) {
+            this.rowsRead = rowsRead;
+            this.rowsImported = rowsImported;
+            this.rowsSkipped = rowsSkipped;
+            this.rowsPerSecond = rowsPerSecond;
+        }
+
+        public long getRowsRead() {
+            return rowsRead;
+        }
+
+        public long getRowsImported() {
+            return rowsImported;
+        }
+
+        public long getRowsSkipped() {
+            return rowsSkipped;
+        }
+
+        public double getRowsPerSecond() {
+            return rowsPerSecond;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.MovieFlix.service;
+
+import com.example.MovieFlix.common.TitleNormalizer;
+import com.example.MovieFlix.model.dto.omdb.MovieDetailsResponse;
+import com.example.MovieFlix.model.entities.CatalogMovie;
+import com.example.MovieFlix.repository.CatalogMovieRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read/write access to the local movie catalog
+ *
+ * OmdbService consults the catalog before going to OMDB. Rows that are
+ * complete and fresh answer the lookup directly; incomplete or stale rows
+ * still provide the imdbID so OMDB can be asked with an exact ID lookup.
+ *
+ * A title without a year only answers from the catalog when it names a
+ * single row, or when every row with that title has a known vote count to
+ * pick the most voted one by. IMDb dump imports carry no votes, so for
+ * remakes the catalog cannot tell which one is meant and OMDB's t= lookup
+ * decides instead.
+ */
+@Service
+public class CatalogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogService.class);
+
+    private final CatalogMovieRepository catalogMovieRepository;
+    private final boolean enabled;
+    private final Duration staleAfter;
+    private final Counter freshHits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter ambiguous;
+
+    public CatalogService(
+            CatalogMovieRepository catalogMovieRepository,
+            MeterRegistry meterRegistry,
+            @Value("${catalog.enabled:true}") boolean enabled,
+            @Value("${catalog.stale-after:30d}") Duration staleAfter) {
+        this.catalogMovieRepository = catalogMovieRepository;
+        this.enabled = enabled;
+        this.staleAfter = staleAfter;
+        this.freshHits = meterRegistry.counter("catalog.lookups", "result", "fresh");
+        this.staleHits = meterRegistry.counter("catalog.lookups", "result", "stale");
+        this.misses = meterRegistry.counter("catalog.lookups", "result", "miss");
+        this.ambiguous = meterRegistry.counter("catalog.lookups", "result", "ambiguous");
+    }
+
+    /**
+     * Find a catalog row by title and optional year
+     *
+     * @param title the raw title
+     * @param year  the release year (optional)
+     * @return the stored row, if any; empty if the title alone does not say which row is meant
+     */
+    public Optional<CatalogMovie> findByTitle(String title, String year) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String normalizedTitle = TitleNormalizer.normalize(title);
+        if (year != null && !year.isBlank()) {
+            Optional<CatalogMovie> row = catalogMovieRepository
+                    .findFirstByNormalizedTitleAndYearOrderByImdbVotesDesc(normalizedTitle, year.trim());
+            record(row);
+            return row;
+        }
+        List<CatalogMovie> rows = catalogMovieRepository.findByNormalizedTitle(normalizedTitle);
+        if (rows.size() > 1 && rows.stream().anyMatch(row -> row.getImdbVotes() == null)) {
+            ambiguous.increment();
+            logger.debug("{} catalog rows for '{}' without vote counts, asking OMDB", rows.size(), normalizedTitle);
+            return Optional.empty();
+        }
+        Optional<CatalogMovie> row = rows.stream().max(Comparator.comparing(CatalogMovie::getImdbVotes,
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+        record(row);
+        return row;
+    }
+
+    /**
+     * Find a catalog row by IMDB ID
+     *
+     * @param imdbId the IMDB ID
+     * @return the stored row, if any
+     */
+    public Optional<CatalogMovie> findByImdbId(String imdbId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Optional<CatalogMovie> row = catalogMovieRepository.findById(imdbId);
+        record(row);
+        return row;
+    }
+
+    /**
+     * Non-blocking wrapper around findByTitle; the JPA query runs on the bounded elastic scheduler
+     */
+    public Mono<CatalogMovie> findByTitleAsync(String title, String year) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> findByTitle(title, year).orElse(null))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    logger.warn("Catalog lookup failed for '{}': {}", title, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Non-blocking wrapper around findByImdbId
+     */
+    public Mono<CatalogMovie> findByImdbIdAsync(String imdbId) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> findByImdbId(imdbId).orElse(null))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    logger.warn("Catalog lookup failed for '{}': {}", imdbId, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Whether a row can answer a lookup without going to OMDB
+     */
+    public boolean isUsable(CatalogMovie movie) {
+        return movie.isComplete() && movie.getUpdatedAt().isAfter(LocalDateTime.now().minus(staleAfter));
+    }
+
+    /**
+     * Write a movie freshly fetched from OMDB back into the catalog, off the caller's thread
+     */
+    public void saveAsync(MovieDetailsResponse movie) {
+        if (!enabled || movie.getImdbId() == null || movie.getTitle() == null) {
+            return;
+        }
+        Mono.fromRunnable(() -> catalogMovieRepository.save(toEntity(movie)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null, e -> logger.warn("Failed to store {} in catalog: {}",
+                        movie.getImdbId(), e.getMessage()));
+    }
+
+    public MovieDetailsResponse toResponse(CatalogMovie movie) {
+        MovieDetailsResponse response = new MovieDetailsResponse();
+        response.setImdbId(movie.getImdbId());
+        response.setTitle(movie.getTitle());
+        response.setYear(movie.getYear());
+        response.setType(movie.getType());
+        response.setRated(movie.getRated());
+        response.setRuntime(movie.getRuntime());
+        response.setGenre(movie.getGenre());
+        response.setDirector(movie.getDirector());
+        response.setActors(movie.getActors());
+        response.setPlot(movie.getPlot());
+        response.setLanguage(movie.getLanguage());
+        response.setCountry(movie.getCountry());
+        response.setPoster(movie.getPoster());
+        response.setImdbRating(movie.getImdbRating());
+        response.setImdbVotes(movie.getImdbVotes() != null ? String.valueOf(movie.getImdbVotes()) : null);
+        response.setResponse("True");
+        return response;
+    }
+
+    public static CatalogMovie toEntity(MovieDetailsResponse movie) {
+        CatalogMovie entity = new CatalogMovie();
+        entity.setImdbId(movie.getImdbId());
+        entity.setTitle(movie.getTitle());
+        entity.setNormalizedTitle(TitleNormalizer.normalize(movie.getTitle()));
+        entity.setYear(movie.getYear());
+        entity.setType(movie.getType());
+        entity.setRated(movie.getRated());
+        entity.setRuntime(movie.getRuntime());
+        entity.setGenre(movie.getGenre());
+        entity.setDirector(movie.getDirector());
+        entity.setActors(movie.getActors());
+        entity.setPlot(movie.getPlot());
+        entity.setLanguage(movie.getLanguage());
+        entity.setCountry(movie.getCountry());
+        entity.setPoster(movie.getPoster());
+        entity.setImdbRating(movie.getImdbRating());
+        entity.setImdbVotes(parseVotes(movie.getImdbVotes()));
+        entity.setUpdatedAt(LocalDateTime.now());
+        return entity;
+    }
+
+    /**
+     * Parse OMDB vote counts like "2,400,000"; null for "N/A" or missing values
+     */
+    static Integer parseVotes(String votes) {
+        if (votes == null) {
+            return null;
+        }
+        String digits = votes.replace(",", "").trim();
+        if (digits.isEmpty() || !digits.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(digits);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void record(Optional<CatalogMovie> row) {
+        if (row.isEmpty()) {
+            misses.increment();
+        } else if (isUsable(row.get())) {
+            freshHits.increment();
+        } else {
+            staleHits.increment();
+        }
+    }
+}
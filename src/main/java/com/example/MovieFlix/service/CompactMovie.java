@@ -0,0 +1,456 @@
+package com.example.MovieFlix.service;
+
+import com.example.MovieFlix.common.StringDictionary;
+import com.example.MovieFlix.model.dto.omdb.MovieDetailsResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Memory-efficient, immutable form of the movie metadata we keep in the cache
+ *
+ * Only the fields the application reads are kept. Low-cardinality strings
+ * (genre, language, country, rating, type, director) are interned in a shared
+ * dictionary, numbers are stored as primitives, the poster URL drops the
+ * common Amazon image prefix, and the plot is kept as UTF-8 bytes (deflated
+ * when long) and only decoded when asked for. Converted back to a
+ * MovieDetailsResponse at the API boundary.
+ */
+public final class CompactMovie {
+
+    private static final StringDictionary DICTIONARY = new StringDictionary(100_000);
+    private static final String POSTER_PREFIX = "https://m.media-amazon.com/images/M/";
+    private static final int COMPRESS_PLOT_FROM = 256;
+    private static final byte UNKNOWN = -1;
+
+    private final String imdbId;
+    private final String title;
+    private final short year;
+    private final String yearSuffix;
+    private final String rated;
+    private final short runtimeMinutes;
+    private final String genre;
+    private final String director;
+    private final String actors;
+    private final byte[] plot;
+    private final boolean plotDeflated;
+    private final String language;
+    private final String country;
+    private final String poster;
+    private final boolean posterPrefixed;
+    private final byte imdbRating;
+    private final int imdbVotes;
+    private final byte metascore;
+    private final byte rottenTomatoes;
+    private final String type;
+
+    private CompactMovie(Builder builder) {
+        this.imdbId = builder.imdbId;
+        this.title = builder.title;
+        this.year = builder.year;
+        this.yearSuffix = DICTIONARY.intern(builder.yearSuffix);
+        this.rated = DICTIONARY.intern(builder.rated);
+        this.runtimeMinutes = builder.runtimeMinutes;
+        this.genre = DICTIONARY.intern(builder.genre);
+        this.director = DICTIONARY.intern(builder.director);
+        this.actors = builder.actors;
+        this.language = DICTIONARY.intern(builder.language);
+        this.country = DICTIONARY.intern(builder.country);
+        this.imdbRating = builder.imdbRating;
+        this.imdbVotes = builder.imdbVotes;
+        this.metascore = builder.metascore;
+        this.rottenTomatoes = builder.rottenTomatoes;
+        this.type = DICTIONARY.intern(builder.type);
+
+        if (builder.poster != null && builder.poster.startsWith(POSTER_PREFIX)) {
+            this.poster = builder.poster.substring(POSTER_PREFIX.length());
+            this.posterPrefixed = true;
+        } else {
+            this.poster = builder.poster;
+            this.posterPrefixed = false;
+        }
+
+        byte[] raw = builder.plot != null ? builder.plot.getBytes(StandardCharsets.UTF_8) : null;
+        byte[] deflated = raw != null && raw.length >= COMPRESS_PLOT_FROM ? deflate(raw) : null;
+        this.plotDeflated = deflated != null && deflated.length < raw.length;
+        this.plot = plotDeflated ? deflated : raw;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Build a compact record from a full OMDB response (e.g. one rebuilt from the catalog)
+     */
+    public static CompactMovie from(MovieDetailsResponse movie) {
+        Builder builder = builder()
+                .imdbId(movie.getImdbId())
+                .title(movie.getTitle())
+                .year(movie.getYear())
+                .rated(movie.getRated())
+                .runtime(movie.getRuntime())
+                .genre(movie.getGenre())
+                .director(movie.getDirector())
+                .actors(movie.getActors())
+                .plot(movie.getPlot())
+                .language(movie.getLanguage())
+                .country(movie.getCountry())
+                .poster(movie.getPoster())
+                .imdbRating(movie.getImdbRating())
+                .imdbVotes(movie.getImdbVotes())
+                .metascore(movie.getMetascore())
+                .type(movie.getType());
+        if (movie.getRatings() instanceof List<?> ratings) {
+            for (Object rating : ratings) {
+                if (rating instanceof Map<?, ?> entry) {
+                    builder.rating(String.valueOf(entry.get("Source")), String.valueOf(entry.get("Value")));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    public String getImdbId() {
+        return imdbId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * @return the (first) release year, or 0 if unknown
+     */
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * @return runtime in minutes, or 0 if unknown
+     */
+    public int getRuntimeMinutes() {
+        return runtimeMinutes;
+    }
+
+    /**
+     * @return IMDB rating times ten (88 for 8.8), or -1 if unknown
+     */
+    public int getImdbRatingTenths() {
+        return imdbRating;
+    }
+
+    /**
+     * @return IMDB vote count, or -1 if unknown
+     */
+    public int getImdbVotes() {
+        return imdbVotes;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    /**
+     * Decode the plot; the record itself only holds its encoded bytes
+     */
+    public String getPlot() {
+        if (plot == null) {
+            return null;
+        }
+        byte[] bytes = plotDeflated ? inflate(plot) : plot;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Expand back to the OMDB response shape served by the API
+     */
+    public MovieDetailsResponse toDetailsResponse() {
+        MovieDetailsResponse response = new MovieDetailsResponse();
+        response.setImdbId(imdbId);
+        response.setTitle(title);
+        if (year > 0) {
+            response.setYear(yearSuffix != null ? year + yearSuffix : String.valueOf(year));
+        } else {
+            response.setYear(yearSuffix);
+        }
+        response.setRated(rated);
+        response.setRuntime(runtimeMinutes > 0 ? runtimeMinutes + " min" : null);
+        response.setGenre(genre);
+        response.setDirector(director);
+        response.setActors(actors);
+        response.setPlot(getPlot());
+        response.setLanguage(language);
+        response.setCountry(country);
+        response.setPoster(posterPrefixed ? POSTER_PREFIX + poster : poster);
+        response.setImdbRating(imdbRating >= 0 ? formatTenths(imdbRating) : null);
+        response.setImdbVotes(imdbVotes >= 0 ? String.format(Locale.US, "%,d", imdbVotes) : null);
+        response.setMetascore(metascore >= 0 ? String.valueOf(metascore) : null);
+        response.setRatings(ratings());
+        response.setType(type);
+        response.setResponse("True");
+        return response;
+    }
+
+    private List<Map<String, String>> ratings() {
+        List<Map<String, String>> ratings = new ArrayList<>(3);
+        if (imdbRating >= 0) {
+            ratings.add(rating("Internet Movie Database", formatTenths(imdbRating) + "/10"));
+        }
+        if (rottenTomatoes >= 0) {
+            ratings.add(rating("Rotten Tomatoes", rottenTomatoes + "%"));
+        }
+        if (metascore >= 0) {
+            ratings.add(rating("Metacritic", metascore + "/100"));
+        }
+        return ratings;
+    }
+
+    private static Map<String, String> rating(String source, String value) {
+        Map<String, String> rating = new LinkedHashMap<>(4);
+        rating.put("Source", source);
+        rating.put("Value", value);
+        return rating;
+    }
+
+    private static String formatTenths(int tenths) {
+        return tenths / 10 + "." + tenths % 10;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length);
+            byte[] buffer = new byte[512];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] deflated) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(deflated);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(deflated.length * 3);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compact plot", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Collects raw OMDB field values; "N/A" and unparsable numbers become unknown
+     */
+    public static final class Builder {
+        private String imdbId;
+        private String title;
+        private short year;
+        private String yearSuffix;
+        private String rated;
+        private short runtimeMinutes;
+        private String genre;
+        private String director;
+        private String actors;
+        private String plot;
+        private String language;
+        private String country;
+        private String poster;
+        private byte imdbRating = UNKNOWN;
+        private int imdbVotes = UNKNOWN;
+        private byte metascore = UNKNOWN;
+        private byte rottenTomatoes = UNKNOWN;
+        private String type;
+
+        private Builder() {
+        }
+
+        public Builder imdbId(String imdbId) {
+            this.imdbId = present(imdbId);
+            return this;
+        }
+
+        public Builder title(String title) {
+            this.title = present(title);
+            return this;
+        }
+
+        /**
+         * Accepts "2010" as well as series ranges like "2008-2013"
+         */
+        public Builder year(String year) {
+            year = present(year);
+            this.year = 0;
+            this.yearSuffix = year;
+            if (year != null && year.length() >= 4 && isDigits(year, 0, 4)) {
+                this.year = Short.parseShort(year.substring(0, 4));
+                this.yearSuffix = year.length() > 4 ? year.substring(4) : null;
+            }
+            return this;
+        }
+
+        public Builder rated(String rated) {
+            this.rated = present(rated);
+            return this;
+        }
+
+        /**
+         * Accepts OMDB runtimes like "148 min"
+         */
+        public Builder runtime(String runtime) {
+            runtime = present(runtime);
+            this.runtimeMinutes = 0;
+            if (runtime != null) {
+                int end = 0;
+                while (end < runtime.length() && Character.isDigit(runtime.charAt(end))) {
+                    end++;
+                }
+                if (end > 0 && end <= 4) {
+                    this.runtimeMinutes = Short.parseShort(runtime.substring(0, end));
+                }
+            }
+            return this;
+        }
+
+        public Builder genre(String genre) {
+            this.genre = present(genre);
+            return this;
+        }
+
+        public Builder director(String director) {
+            this.director = present(director);
+            return this;
+        }
+
+        public Builder actors(String actors) {
+            this.actors = present(actors);
+            return this;
+        }
+
+        public Builder plot(String plot) {
+            this.plot = present(plot);
+            return this;
+        }
+
+        public Builder language(String language) {
+            this.language = present(language);
+            return this;
+        }
+
+        public Builder country(String country) {
+            this.country = present(country);
+            return this;
+        }
+
+        public Builder poster(String poster) {
+            this.poster = present(poster);
+            return this;
+        }
+
+        /**
+         * Accepts OMDB ratings like "8.8"
+         */
+        public Builder imdbRating(String rating) {
+            rating = present(rating);
+            this.imdbRating = UNKNOWN;
+            if (rating != null) {
+                try {
+                    long tenths = Math.round(Double.parseDouble(rating) * 10);
+                    if (tenths >= 0 && tenths <= 100) {
+                        this.imdbRating = (byte) tenths;
+                    }
+                } catch (NumberFormatException ignored) {
+                    // left unknown
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Accepts OMDB vote counts like "2,400,000"
+         */
+        public Builder imdbVotes(String votes) {
+            Integer parsed = CatalogService.parseVotes(present(votes));
+            this.imdbVotes = parsed != null ? parsed : UNKNOWN;
+            return this;
+        }
+
+        public Builder metascore(String metascore) {
+            this.metascore = percentage(present(metascore));
+            return this;
+        }
+
+        /**
+         * Take the typed values we keep from one entry of the OMDB "Ratings" array
+         */
+        public Builder rating(String source, String value) {
+            value = present(value);
+            if (value == null) {
+                return this;
+            }
+            if ("Rotten Tomatoes".equals(source) && value.endsWith("%")) {
+                this.rottenTomatoes = percentage(value.substring(0, value.length() - 1));
+            } else if ("Metacritic".equals(source) && metascore == UNKNOWN) {
+                int slash = value.indexOf('/');
+                this.metascore = percentage(slash > 0 ? value.substring(0, slash) : value);
+            } else if ("Internet Movie Database".equals(source) && imdbRating == UNKNOWN) {
+                int slash = value.indexOf('/');
+                imdbRating(slash > 0 ? value.substring(0, slash) : value);
+            }
+            return this;
+        }
+
+        public Builder type(String type) {
+            this.type = present(type);
+            return this;
+        }
+
+        public CompactMovie build() {
+            return new CompactMovie(this);
+        }
+
+        private static String present(String value) {
+            return value == null || value.isEmpty() || "N/A".equals(value) ? null : value;
+        }
+
+        private static byte percentage(String value) {
+            if (value == null || value.isEmpty() || value.length() > 3 || !isDigits(value, 0, value.length())) {
+                return UNKNOWN;
+            }
+            int parsed = Integer.parseInt(value);
+            return parsed <= 100 ? (byte) parsed : UNKNOWN;
+        }
+
+        private static boolean isDigits(String value, int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (!Character.isDigit(value.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.MovieFlix.service;
+
+import com.example.MovieFlix.common.AdaptiveConcurrencyLimiter;
+import com.example.MovieFlix.common.CircuitBreaker;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+/**
+ * Chat model wrapper that sends every call through the OpenAI circuit breaker and bulkhead
+ *
+ * The bulkhead caps calls in flight so blocked request threads cannot pile up
+ * behind a slow upstream; the breaker sits outside it, so bulkhead rejections
+ * do not count as upstream failures.
+ */
+class GuardedChatModel implements ChatModel {
+
+    private final ChatModel delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final AdaptiveConcurrencyLimiter bulkhead;
+
+    GuardedChatModel(ChatModel delegate, CircuitBreaker circuitBreaker, AdaptiveConcurrencyLimiter bulkhead) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        return circuitBreaker.call(() -> bulkhead.call(() -> delegate.call(prompt)));
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return circuitBreaker.protect(bulkhead.limit(Flux.defer(() -> delegate.stream(prompt))));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.MovieFlix.service;
+
+import com.example.MovieFlix.common.AdaptiveConcurrencyLimiter;
+import com.example.MovieFlix.common.CircuitBreaker;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Embedding model wrapper that sends every call through a circuit breaker and bulkhead, with a timeout
+ *
+ * Embeddings are on the request path (semantic cache lookups) and on the
+ * similar-movie indexer, so an OpenAI slowdown must not hold request threads
+ * there either. The caller waits at most timeout; the call itself runs on
+ * the bounded elastic scheduler and keeps its bulkhead slot until it really
+ * ends, so abandoned calls stay counted. A timeout counts as a breaker
+ * failure. As for GuardedChatModel, the breaker sits outside the bulkhead
+ * so bulkhead rejections do not count as upstream failures.
+ */
+public class GuardedEmbeddingModel implements EmbeddingModel {
+
+    private final EmbeddingModel delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final AdaptiveConcurrencyLimiter bulkhead;
+    private final Duration timeout;
+
+    public GuardedEmbeddingModel(EmbeddingModel delegate, CircuitBreaker circuitBreaker,
+            AdaptiveConcurrencyLimiter bulkhead, Duration timeout) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        return guarded(() -> delegate.call(request));
+    }
+
+    @Override
+    public float[] embed(String text) {
+        return guarded(() -> delegate.embed(text));
+    }
+
+    @Override
+    public List<float[]> embed(List<String> texts) {
+        return guarded(() -> delegate.embed(texts));
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return guarded(() -> delegate.embed(document));
+    }
+
+    @Override
+    public int dimensions() {
+        return delegate.dimensions();
+    }
+
+    private <T> T guarded(Supplier<T> call) {
+        return circuitBreaker.call(() -> Mono.fromCallable(() -> bulkhead.call(call))
+                .subscribeOn(Schedulers.boundedElastic())
+                .timeout(timeout)
+                .block());
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.MovieFlix.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Incremental parser for the compact JSON recommendation format
+ *
+ * Expects {"v":"vibe","r":[{"t":"title","y":2000,"w":"why"}, ...]} and
+ * reads it in a single pass with Jackson's non-blocking parser, emitting the
+ * vibe and each recommendation as soon as its value or object closes. Text
+ * before the opening brace (e.g. a code fence) and after the closing one is
+ * ignored. If the document is malformed or truncated, finish() makes one
+ * local repair attempt (strip surrounding prose, drop trailing commas, cut a
+ * dangling key, close open strings and brackets) and emits whatever that
+ * recovers.
+ */
+final class JsonRecommendationStreamParser implements RecommendationStreamParser {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final StringBuilder raw = new StringBuilder();
+    private final List<AIRecommendationService.MovieRecommendation> recommendations = new ArrayList<>();
+    private JsonParser parser;
+    private ByteArrayFeeder feeder;
+    private boolean closed;
+    private boolean failed;
+    private boolean repaired;
+    private int depth;
+    private String rootField;
+    private String itemField;
+    private boolean inRecommendations;
+    private String vibe;
+    private String title;
+    private String year;
+    private String reason;
+
+    @Override
+    public List<Event> feed(String chunk) {
+        raw.append(chunk);
+        List<Event> events = new ArrayList<>(2);
+        if (closed || failed) {
+            return events;
+        }
+        String input = chunk;
+        if (parser == null) {
+            int start = chunk.indexOf('{');
+            if (start < 0) {
+                return events;
+            }
+            input = chunk.substring(start);
+            try {
+                parser = JSON.createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                failed = true;
+                return events;
+            }
+            feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        try {
+            feeder.feedInput(bytes, 0, bytes.length);
+            JsonToken token;
+            while (!closed && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                accept(token, events);
+            }
+        } catch (IOException e) {
+            failed = true;
+        }
+        return events;
+    }
+
+    @Override
+    public List<Event> finish() {
+        List<Event> events = new ArrayList<>();
+        if (!closed || failed) {
+            recover(events);
+        }
+        if (parser != null) {
+            feeder.endOfInput();
+        }
+        events.add(RecommendationStreamParser.done(recommendations.size()));
+        return events;
+    }
+
+    @Override
+    public AIRecommendationService.AIRecommendationResult result(String sourceTitle) {
+        return new AIRecommendationService.AIRecommendationResult(sourceTitle,
+                vibe != null && !vibe.isBlank() ? vibe.trim() : NO_VIBE, List.copyOf(recommendations));
+    }
+
+    @Override
+    public boolean wasRepaired() {
+        return repaired;
+    }
+
+    private void accept(JsonToken token, List<Event> events) throws IOException {
+        switch (token) {
+            case START_OBJECT -> {
+                depth++;
+                if (depth == 3 && inRecommendations) {
+                    title = null;
+                    year = null;
+                    reason = null;
+                }
+            }
+            case END_OBJECT -> {
+                if (depth == 3 && inRecommendations && title != null) {
+                    AIRecommendationService.MovieRecommendation recommendation =
+                            new AIRecommendationService.MovieRecommendation(title, year, reason != null ? reason : "");
+                    recommendations.add(recommendation);
+                    events.add(new Event(RECOMMENDATION, recommendation));
+                }
+                depth--;
+                closed = depth == 0;
+            }
+            case START_ARRAY -> {
+                depth++;
+                inRecommendations = depth == 2 && "r".equals(rootField);
+            }
+            case END_ARRAY -> {
+                if (depth == 2) {
+                    inRecommendations = false;
+                }
+                depth--;
+            }
+            case FIELD_NAME -> {
+                if (depth == 1) {
+                    rootField = parser.currentName();
+                } else if (depth == 3) {
+                    itemField = parser.currentName();
+                }
+            }
+            default -> {
+                if (!token.isScalarValue()) {
+                    return;
+                }
+                if (depth == 1 && "v".equals(rootField)) {
+                    vibe = parser.getText();
+                    events.add(new Event(VIBE, vibe));
+                } else if (depth == 3 && inRecommendations && itemField != null) {
+                    switch (itemField) {
+                        case "t" -> title = parser.getText();
+                        case "y" -> year = parser.getText();
+                        case "w" -> reason = parser.getText();
+                        default -> {
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reparse a locally repaired copy of the whole answer and emit what this stream has not emitted yet
+     */
+    private void recover(List<Event> events) {
+        String fixed = repair(raw.toString());
+        if (fixed == null) {
+            return;
+        }
+        JsonRecommendationStreamParser retry = new JsonRecommendationStreamParser();
+        retry.feed(fixed);
+        if (!retry.closed || retry.failed) {
+            return;
+        }
+        repaired = true;
+        if (vibe == null && retry.vibe != null) {
+            vibe = retry.vibe;
+            events.add(new Event(VIBE, vibe));
+        }
+        for (int i = recommendations.size(); i < retry.recommendations.size(); i++) {
+            AIRecommendationService.MovieRecommendation recommendation = retry.recommendations.get(i);
+            recommendations.add(recommendation);
+            events.add(new Event(RECOMMENDATION, recommendation));
+        }
+    }
+
+    /**
+     * Best-effort fix for the usual ways a model breaks JSON: prose or fences around
+     * the object, trailing commas, and output cut off mid-document
+     *
+     * One pass outside string contents: a comma followed by a closing bracket is
+     * dropped. If the text ends early, an open string value is closed; anything
+     * after the last complete value (a dangling key, colon or half a number) is
+     * cut off before the open brackets are closed.
+     *
+     * @return the repaired document, or null if there is no object to repair
+     */
+    static String repair(String text) {
+        int start = text.indexOf('{');
+        if (start < 0) {
+            return null;
+        }
+        StringBuilder fixed = new StringBuilder(text.length() + 8);
+        Deque<Character> open = new ArrayDeque<>();
+        boolean expectKey = false;
+        boolean inString = false;
+        boolean inKey = false;
+        boolean escaped = false;
+        int comma = -1;
+        int safeLength = 0;
+        String safeClosers = "";
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (inString) {
+                fixed.append(c);
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                    if (!inKey) {
+                        safeLength = fixed.length();
+                        safeClosers = closers(open);
+                    }
+                }
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                fixed.append(c);
+                continue;
+            }
+            if (comma >= 0 && (c == '}' || c == ']')) {
+                fixed.setLength(comma);
+            }
+            comma = -1;
+            switch (c) {
+                case '"' -> {
+                    inString = true;
+                    inKey = expectKey && !open.isEmpty() && open.peek() == '{';
+                    fixed.append(c);
+                }
+                case '{', '[' -> {
+                    open.push(c);
+                    expectKey = c == '{';
+                    fixed.append(c);
+                    safeLength = fixed.length();
+                    safeClosers = closers(open);
+                }
+                case '}', ']' -> {
+                    open.pop();
+                    fixed.append(c);
+                    if (open.isEmpty()) {
+                        return fixed.toString();
+                    }
+                    expectKey = false;
+                    safeLength = fixed.length();
+                    safeClosers = closers(open);
+                }
+                case ',' -> {
+                    // the value before the comma is complete
+                    safeLength = fixed.length();
+                    safeClosers = closers(open);
+                    comma = fixed.length();
+                    expectKey = open.peek() == '{';
+                    fixed.append(c);
+                }
+                case ':' -> {
+                    expectKey = false;
+                    fixed.append(c);
+                }
+                default -> fixed.append(c);
+            }
+        }
+
+        if (inString && !inKey) {
+            if (escaped) {
+                fixed.setLength(fixed.length() - 1);
+            }
+            fixed.append('"');
+            safeLength = fixed.length();
+            safeClosers = closers(open);
+        }
+        fixed.setLength(safeLength);
+        return fixed.append(safeClosers).toString();
+    }
+
+    private static String closers(Deque<Character> open) {
+        StringBuilder closers = new StringBuilder(open.size());
+        for (char bracket : open) {
+            closers.append(bracket == '{' ? '}' : ']');
+        }
+        return closers.toString();
+    }
+}
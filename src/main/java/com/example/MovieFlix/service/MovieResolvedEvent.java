@@ -0,0 +1,19 @@
+package com.example.MovieFlix.service;
+
+import com.example.MovieFlix.model.dto.omdb.MovieDetailsResponse;
+
+/**
+ * Published whenever a movie lookup resolves, from OMDB or the local catalog
+ */
+public class MovieResolvedEvent {
+
+    private final MovieDetailsResponse movie;
+
+    public MovieResolvedEvent(MovieDetailsResponse movie) {
+        this.movie = movie;
+    }
+
+    public MovieDetailsResponse getMovie() {
+        return movie;
+    }
+}
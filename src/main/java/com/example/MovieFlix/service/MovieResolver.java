@@ -0,0 +1,66 @@
+package com.example.MovieFlix.service;
+
+import com.example.MovieFlix.exception.MovieNotFoundException;
+import com.example.MovieFlix.model.dto.omdb.MovieDetailsResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Resolves user supplied titles to movies, tolerating typos
+ *
+ * A title that exactly matches an indexed movie goes straight to an imdbID
+ * lookup. Otherwise OMDB is asked by title; if OMDB (or its negative cache)
+ * reports "not found", the closest indexed title is used instead, so a
+ * repeated typo is answered without reaching OMDB at all.
+ */
+@Service
+public class MovieResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovieResolver.class);
+
+    private final OmdbService omdbService;
+    private final TitleIndex titleIndex;
+    private final double resolveThreshold;
+
+    public MovieResolver(OmdbService omdbService, TitleIndex titleIndex,
+            @Value("${movies.title-index.resolve-threshold:0.6}") double resolveThreshold) {
+        this.omdbService = omdbService;
+        this.titleIndex = titleIndex;
+        this.resolveThreshold = resolveThreshold;
+    }
+
+    /**
+     * Resolve a title to movie details
+     *
+     * @param title Movie title, possibly misspelled
+     * @param year  Release year (optional)
+     * @return MovieDetailsResponse for the best matching movie
+     */
+    public MovieDetailsResponse resolve(String title, String year) {
+        return omdbService.await(resolveAsync(title, year));
+    }
+
+    /**
+     * Resolve a title to movie details without blocking the caller
+     */
+    public Mono<MovieDetailsResponse> resolveAsync(String title, String year) {
+        Optional<TitleIndex.Entry> exact = titleIndex.findExact(title, year);
+        if (exact.isPresent()) {
+            return omdbService.getMovieDetailsAsync(exact.get().getImdbId());
+        }
+
+        return omdbService.getMovieByTitleAsync(title, year)
+                .onErrorResume(MovieNotFoundException.class, notFound -> titleIndex
+                        .findClosest(title, year, resolveThreshold)
+                        .map(match -> {
+                            logger.info("Resolved '{}' to '{}' ({})", title, match.getTitle(), match.getImdbId());
+                            return omdbService.getMovieDetailsAsync(match.getImdbId());
+                        })
+                        .orElseGet(() -> Mono.error(notFound)));
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.MovieFlix.service;
+
+import com.example.MovieFlix.model.dto.omdb.MovieSearchResponse;
+import com.example.MovieFlix.model.dto.omdb.MovieSearchResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Multi-page OMDB search
+ *
+ * OMDB returns 10 results per page. The first page tells us totalResults;
+ * the remaining pages (up to a configured cap) are then fetched concurrently
+ * and their results emitted as each page arrives, de-duplicated by imdbID.
+ */
+@Service
+public class MovieSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovieSearchService.class);
+    private static final int PAGE_SIZE = 10;
+
+    private final OmdbService omdbService;
+    private final int maxPages;
+    private final int concurrency;
+
+    public MovieSearchService(
+            OmdbService omdbService,
+            @Value("${omdb.search.max-pages:10}") int maxPages,
+            @Value("${omdb.search.concurrency:5}") int concurrency) {
+        this.omdbService = omdbService;
+        this.maxPages = maxPages;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Search all pages for a title
+     *
+     * @param title    Movie title to search
+     * @param maxPages Maximum number of pages to fetch (optional, capped by omdb.search.max-pages)
+     * @return Flux of distinct search results, first page first, later pages in arrival order
+     */
+    public Flux<MovieSearchResult> searchAll(String title, Integer maxPages) {
+        int pageLimit = maxPages != null ? Math.max(1, Math.min(maxPages, this.maxPages)) : this.maxPages;
+
+        return omdbService.searchMoviesAsync(title, 1)
+                .flatMapMany(first -> {
+                    if ("False".equals(first.getResponse())) {
+                        return Flux.<MovieSearchResult>empty();
+                    }
+                    int pages = Math.min(pageLimit, pageCount(first.getTotalResults()));
+                    logger.debug("Searching '{}': fetching {} more page(s)", title, pages - 1);
+                    Flux<MovieSearchResult> rest = Flux.range(2, Math.max(0, pages - 1))
+                            .flatMap(page -> fetchPage(title, page), concurrency)
+                            .flatMapIterable(MovieSearchService::results);
+                    return Flux.fromIterable(results(first)).concatWith(rest);
+                })
+                .distinct(result -> result.getImdbId() != null ? result.getImdbId() : result.getTitle());
+    }
+
+    /**
+     * A later page that fails is skipped so the results already streamed still stand
+     */
+    private Mono<MovieSearchResponse> fetchPage(String title, int page) {
+        return omdbService.searchMoviesAsync(title, page)
+                .onErrorResume(e -> {
+                    logger.warn("Skipping page {} of search '{}': {}", page, title, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private static List<MovieSearchResult> results(MovieSearchResponse response) {
+        return response.getSearch() != null ? response.getSearch() : List.of();
+    }
+
+    private static int pageCount(String totalResults) {
+        try {
+            int total = Integer.parseInt(totalResults);
+            return Math.max(1, (total + PAGE_SIZE - 1) / PAGE_SIZE);
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.MovieFlix.service;
+
+import com.example.MovieFlix.model.dto.omdb.MovieSearchResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache for OMDB metadata
+ *
+ * Two tiers: a title index (normalized title+year -> imdbID) in front of the
+ * details cache (imdbID -> movie), so a movie reached by several spellings is
+ * stored once. Movies are held as CompactMovie records rather than full OMDB
+ * responses. "Movie not found" answers are cached with a short TTL.
+ */
+@Component
+public class OmdbCache {
+
+    private final Cache<String, Lookup<String>> titleIndex;
+    private final Cache<String, Lookup<CompactMovie>> detailsById;
+    private final Cache<String, MovieSearchResponse> searchPages;
+
+    public OmdbCache(
+            MeterRegistry meterRegistry,
+            @Value("${omdb.cache.max-entries:10000}") long maxEntries,
+            @Value("${omdb.cache.details-ttl:24h}") Duration detailsTtl,
+            @Value("${omdb.cache.search-ttl:1h}") Duration searchTtl,
+            @Value("${omdb.cache.negative-ttl:10m}") Duration negativeTtl) {
+        this.titleIndex = build(maxEntries, lookupExpiry(detailsTtl, negativeTtl));
+        this.detailsById = build(maxEntries, lookupExpiry(detailsTtl, negativeTtl));
+        this.searchPages = build(maxEntries / 4,
+                expiry(response -> "False".equals(response.getResponse()) ? negativeTtl : searchTtl));
+
+        CaffeineCacheMetrics.monitor(meterRegistry, titleIndex, "omdb.titles");
+        CaffeineCacheMetrics.monitor(meterRegistry, detailsById, "omdb.details");
+        CaffeineCacheMetrics.monitor(meterRegistry, searchPages, "omdb.search");
+    }
+
+    public Lookup<String> getTitle(String titleKey) {
+        return titleIndex.getIfPresent(titleKey);
+    }
+
+    public Lookup<CompactMovie> getDetails(String imdbId) {
+        return detailsById.getIfPresent(imdbId);
+    }
+
+    public MovieSearchResponse getSearchPage(String searchKey) {
+        return searchPages.getIfPresent(searchKey);
+    }
+
+    /**
+     * Cache a resolved movie under its imdbID and, if given, under the title key used to find it
+     */
+    public void putMovie(String titleKey, CompactMovie movie) {
+        if (movie.getImdbId() == null) {
+            return;
+        }
+        detailsById.put(movie.getImdbId(), Lookup.found(movie));
+        if (titleKey != null) {
+            titleIndex.put(titleKey, Lookup.found(movie.getImdbId()));
+        }
+    }
+
+    /**
+     * Point a title key at a movie already cached by imdbID; no-op if either is null
+     */
+    public void putTitle(String titleKey, String imdbId) {
+        if (titleKey != null && imdbId != null) {
+            titleIndex.put(titleKey, Lookup.found(imdbId));
+        }
+    }
+
+    public void putTitleNotFound(String titleKey, String error) {
+        titleIndex.put(titleKey, Lookup.notFound(error));
+    }
+
+    public void putDetailsNotFound(String imdbId, String error) {
+        detailsById.put(imdbId, Lookup.notFound(error));
+    }
+
+    public void putSearchPage(String searchKey, MovieSearchResponse response) {
+        searchPages.put(searchKey, response);
+    }
+
+    private static <V> Cache<String, V> build(long maxEntries, Expiry<String, V> expiry) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(expiry)
+                .recordStats()
+                .build();
+    }
+
+    private static <T> Expiry<String, Lookup<T>> lookupExpiry(Duration ttl, Duration negativeTtl) {
+        return expiry(lookup -> lookup.isFound() ? ttl : negativeTtl);
+    }
+
+    private static <V> Expiry<String, V> expiry(Function<V, Duration> ttl) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(String key, V value, long currentTime) {
+                return ttl.apply(value).toNanos();
+            }
+
+            @Override
+            public long expireAfterUpdate(String key, V value, long currentTime, long currentDuration) {
+                return ttl.apply(value).toNanos();
+            }
+
+            @Override
+            public long expireAfterRead(String key, V value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    /**
+     * Cached lookup result: either a value or the OMDB "not found" error
+     */
+    public static final class Lookup<T> {
+        private final T value;
+        private final String error;
+
+        private Lookup(T value, String error) {
+            this.value = value;
+            this.error = error;
+        }
+
+        static <T> Lookup<T> found(T value) {
+            return new Lookup<>(value, null);
+        }
+
+        static <T> Lookup<T> notFound(String error) {
+            return new Lookup<>(null, error);
+        }
+
+        public boolean isFound() {
+            return value != null;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.MovieFlix.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Streaming parser for OMDB "i=" / "t=" lookups
+ *
+ * Reads the response token by token straight into a CompactMovie builder.
+ * Fields we never use (Writer, Awards, DVD, BoxOffice, Production, ...) are
+ * skipped without materializing their values, and no intermediate
+ * MovieDetailsResponse or Ratings maps are built.
+ */
+final class OmdbMovieParser {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private OmdbMovieParser() {
+    }
+
+    /**
+     * Parse a raw OMDB movie response
+     *
+     * @param body the response body
+     * @return the movie, or the OMDB error if the response says "Response":"False"
+     * @throws IOException if the body is not a JSON object
+     */
+    static Result parse(byte[] body) throws IOException {
+        try (JsonParser parser = JSON.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object from OMDB");
+            }
+            CompactMovie.Builder movie = CompactMovie.builder();
+            String response = null;
+            String error = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "imdbID" -> movie.imdbId(parser.getValueAsString());
+                    case "Title" -> movie.title(parser.getValueAsString());
+                    case "Year" -> movie.year(parser.getValueAsString());
+                    case "Rated" -> movie.rated(parser.getValueAsString());
+                    case "Runtime" -> movie.runtime(parser.getValueAsString());
+                    case "Genre" -> movie.genre(parser.getValueAsString());
+                    case "Director" -> movie.director(parser.getValueAsString());
+                    case "Actors" -> movie.actors(parser.getValueAsString());
+                    case "Plot" -> movie.plot(parser.getValueAsString());
+                    case "Language" -> movie.language(parser.getValueAsString());
+                    case "Country" -> movie.country(parser.getValueAsString());
+                    case "Poster" -> movie.poster(parser.getValueAsString());
+                    case "imdbRating" -> movie.imdbRating(parser.getValueAsString());
+                    case "imdbVotes" -> movie.imdbVotes(parser.getValueAsString());
+                    case "Metascore" -> movie.metascore(parser.getValueAsString());
+                    case "Type" -> movie.type(parser.getValueAsString());
+                    case "Ratings" -> parseRatings(parser, movie);
+                    case "Response" -> response = parser.getValueAsString();
+                    case "Error" -> error = parser.getValueAsString();
+                    default -> parser.skipChildren();
+                }
+            }
+            if ("False".equals(response)) {
+                return new Result(null, error != null ? error : "Unknown error");
+            }
+            return new Result(movie.build(), null);
+        }
+    }
+
+    private static void parseRatings(JsonParser parser, CompactMovie.Builder movie) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            String source = null;
+            String value = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("Source".equals(field)) {
+                    source = parser.getValueAsString();
+                } else if ("Value".equals(field)) {
+                    value = parser.getValueAsString();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            movie.rating(source, value);
+        }
+    }
+
+    /**
+     * Either a parsed movie or the OMDB error message
+     */
+    record Result(CompactMovie movie, String error) {
+
+        boolean isFound() {
+            return movie != null;
+        }
+    }
+}
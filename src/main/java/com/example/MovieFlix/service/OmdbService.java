@@ -1,18 +1,37 @@
 package com.example.MovieFlix.service;
 
+import com.example.MovieFlix.common.AdaptiveConcurrencyLimiter;
+import com.example.MovieFlix.common.CircuitBreaker;
+import com.example.MovieFlix.common.SingleFlight;
+import com.example.MovieFlix.common.TitleNormalizer;
+import com.example.MovieFlix.exception.MovieNotFoundException;
 import com.example.MovieFlix.model.dto.omdb.MovieDetailsResponse;
 import com.example.MovieFlix.model.dto.omdb.MovieSearchResponse;
+import com.example.MovieFlix.model.entities.CatalogMovie;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Duration;
 
 /**
  * Service for interacting with the OMDB API
+ *
+ * Every lookup has a non-blocking variant returning a Mono; the blocking
+ * methods are thin wrappers around them. Lookups are answered from the
+ * in-process cache, then the local catalog, and only then from OMDB.
+ * OMDB calls go through the adaptive concurrency limiter (the bulkhead) and
+ * the circuit breaker; their rejections are passed on untranslated. Blocking
+ * callers wait through await, which caps how many threads may wait at once.
  */
 @Service
 public class OmdbService {
@@ -21,16 +40,47 @@ public class OmdbService {
 
     private final WebClient webClient;
     private final String apiKey;
+    private final Duration timeout;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final CircuitBreaker circuitBreaker;
+    private final AdaptiveConcurrencyLimiter blockingBulkhead;
+    private final OmdbCache cache;
+    private final CatalogService catalogService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlight<String, MovieDetailsResponse> titleFlight;
+    private final SingleFlight<String, MovieDetailsResponse> detailsFlight;
 
     public OmdbService(
-            @Value("${omdb.api.base-url}") String baseUrl,
+            @Qualifier("omdbWebClient") WebClient webClient,
+            @Qualifier("omdbConcurrencyLimiter") AdaptiveConcurrencyLimiter limiter,
+            @Qualifier("omdbCircuitBreaker") CircuitBreaker circuitBreaker,
+            @Qualifier("omdbBlockingBulkhead") AdaptiveConcurrencyLimiter blockingBulkhead,
             @Value("${omdb.api.key}") String apiKey,
-            @Value("${omdb.api.timeout:5000}") int timeout) {
+            @Value("${omdb.api.timeout:5000}") int timeout,
+            OmdbCache cache,
+            CatalogService catalogService,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry) {
+        this.webClient = webClient;
+        this.limiter = limiter;
+        this.circuitBreaker = circuitBreaker;
+        this.blockingBulkhead = blockingBulkhead;
         this.apiKey = apiKey;
-        this.webClient = WebClient.builder()
-                .baseUrl(baseUrl)
-                .build();
-        logger.info("OMDB Service initialized with base URL: {}", baseUrl);
+        this.timeout = Duration.ofMillis(timeout);
+        this.cache = cache;
+        this.catalogService = catalogService;
+        this.eventPublisher = eventPublisher;
+        this.titleFlight = new SingleFlight<>("omdb.title", meterRegistry);
+        this.detailsFlight = new SingleFlight<>("omdb.details", meterRegistry);
+        logger.info("OMDB Service initialized with timeout: {}", this.timeout);
+    }
+
+    /**
+     * Block the calling thread until an OMDB-backed lookup completes
+     * Fails fast with LimitExceededException when omdb.client.bulkhead.max-waiting threads are already waiting
+     */
+    public <T> T await(Mono<T> lookup) {
+        return blockingBulkhead.call(lookup::block);
     }
 
     /**
@@ -41,34 +91,47 @@ public class OmdbService {
      * @return MovieSearchResponse containing search results
      */
     public MovieSearchResponse searchMovies(String title, Integer page) {
-        logger.info("Searching movies with title: {}, page: {}", title, page);
+        return await(searchMoviesAsync(title, page));
+    }
 
-        try {
-            MovieSearchResponse response = webClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .queryParam("apikey", apiKey)
-                            .queryParam("s", title)
-                            .queryParam("page", page != null ? page : 1)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(MovieSearchResponse.class)
-                    .timeout(Duration.ofMillis(5000))
-                    .block();
-
-            if (response != null && "False".equals(response.getResponse())) {
-                logger.warn("OMDB API returned error: {}", response.getError());
-            } else if (response != null) {
-                logger.info("Found {} results for title: {}", response.getTotalResults(), title);
-            }
+    /**
+     * Search for movies by title without blocking the caller
+     *
+     * @param title Movie title to search
+     * @param page  Page number (optional, defaults to 1)
+     * @return Mono emitting the MovieSearchResponse
+     */
+    public Mono<MovieSearchResponse> searchMoviesAsync(String title, Integer page) {
+        logger.info("Searching movies with title: {}, page: {}", title, page);
 
-            return response;
-        } catch (WebClientResponseException e) {
-            logger.error("OMDB API error: {} - {}", e.getStatusCode(), e.getMessage());
-            throw new RuntimeException("Failed to search movies: " + e.getMessage());
-        } catch (Exception e) {
-            logger.error("Unexpected error while searching movies", e);
-            throw new RuntimeException("Failed to search movies: " + e.getMessage());
+        int pageNumber = page != null ? page : 1;
+        String searchKey = TitleNormalizer.normalize(title) + "|" + pageNumber;
+        MovieSearchResponse cached = cache.getSearchPage(searchKey);
+        if (cached != null) {
+            logger.debug("Search cache hit for: {}", searchKey);
+            return Mono.just(cached);
         }
+
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .queryParam("apikey", apiKey)
+                        .queryParam("s", title)
+                        .queryParam("page", pageNumber)
+                        .build())
+                .retrieve()
+                .bodyToMono(MovieSearchResponse.class)
+                .timeout(timeout)
+                .transform(limiter::limit)
+                .transform(circuitBreaker::protect)
+                .doOnNext(response -> {
+                    if ("False".equals(response.getResponse())) {
+                        logger.warn("OMDB API returned error: {}", response.getError());
+                    } else {
+                        logger.info("Found {} results for title: {}", response.getTotalResults(), title);
+                    }
+                    cache.putSearchPage(searchKey, response);
+                })
+                .onErrorMap(e -> translate("search movies", e));
     }
 
     /**
@@ -78,35 +141,64 @@ public class OmdbService {
      * @return MovieDetailsResponse containing detailed movie information
      */
     public MovieDetailsResponse getMovieDetails(String imdbId) {
-        logger.info("Fetching movie details for IMDB ID: {}", imdbId);
+        return await(getMovieDetailsAsync(imdbId));
+    }
 
-        try {
-            MovieDetailsResponse response = webClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .queryParam("apikey", apiKey)
-                            .queryParam("i", imdbId)
-                            .queryParam("plot", "full")
-                            .build())
-                    .retrieve()
-                    .bodyToMono(MovieDetailsResponse.class)
-                    .timeout(Duration.ofMillis(5000))
-                    .block();
-
-            if (response != null && "False".equals(response.getResponse())) {
-                logger.warn("OMDB API returned error: {}", response.getError());
-                throw new RuntimeException("Movie not found: " + response.getError());
-            } else if (response != null) {
-                logger.info("Successfully fetched details for: {}", response.getTitle());
-            }
+    /**
+     * Get detailed movie information by IMDB ID without blocking the caller
+     *
+     * @param imdbId IMDB ID of the movie
+     * @return Mono emitting the MovieDetailsResponse
+     */
+    public Mono<MovieDetailsResponse> getMovieDetailsAsync(String imdbId) {
+        logger.info("Fetching movie details for IMDB ID: {}", imdbId);
 
-            return response;
-        } catch (WebClientResponseException e) {
-            logger.error("OMDB API error: {} - {}", e.getStatusCode(), e.getMessage());
-            throw new RuntimeException("Failed to fetch movie details: " + e.getMessage());
-        } catch (Exception e) {
-            logger.error("Unexpected error while fetching movie details", e);
-            throw new RuntimeException("Failed to fetch movie details: " + e.getMessage());
+        OmdbCache.Lookup<CompactMovie> cached = cache.getDetails(imdbId);
+        if (cached != null) {
+            logger.debug("Details cache hit for IMDB ID: {}", imdbId);
+            return cached.isFound()
+                    ? Mono.just(cached.getValue().toDetailsResponse())
+                    : Mono.error(new MovieNotFoundException(cached.getError()));
         }
+
+        return Mono.fromFuture(() -> detailsFlight.executeAsync(imdbId,
+                () -> resolveById(imdbId).toFuture()), true);
+    }
+
+    /**
+     * Answer from the local catalog when it has a fresh, complete row; otherwise ask OMDB
+     */
+    private Mono<MovieDetailsResponse> resolveById(String imdbId) {
+        return catalogService.findByImdbIdAsync(imdbId)
+                .flatMap(row -> fromCatalog(row, null))
+                .switchIfEmpty(Mono.defer(() -> fetchMovieDetails(imdbId)));
+    }
+
+    private Mono<MovieDetailsResponse> fetchMovieDetails(String imdbId) {
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .queryParam("apikey", apiKey)
+                        .queryParam("i", imdbId)
+                        .queryParam("plot", "full")
+                        .build())
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .timeout(timeout)
+                .transform(limiter::limit)
+                .transform(circuitBreaker::protect)
+                .map(body -> {
+                    OmdbMovieParser.Result result = parse(body);
+                    if (!result.isFound()) {
+                        logger.warn("OMDB API returned error: {}", result.error());
+                        cache.putDetailsNotFound(imdbId, result.error());
+                        throw new MovieNotFoundException(result.error());
+                    }
+                    logger.info("Successfully fetched details for: {}", result.movie().getTitle());
+                    MovieDetailsResponse response = remember(null, result.movie());
+                    catalogService.saveAsync(response);
+                    return response;
+                })
+                .onErrorMap(e -> translate("fetch movie details", e));
     }
 
     /**
@@ -117,39 +209,127 @@ public class OmdbService {
      * @return MovieDetailsResponse containing detailed movie information
      */
     public MovieDetailsResponse getMovieByTitle(String title, String year) {
+        return await(getMovieByTitleAsync(title, year));
+    }
+
+    /**
+     * Get movie details by title without blocking the caller
+     *
+     * @param title Movie title
+     * @param year  Release year (optional)
+     * @return Mono emitting the MovieDetailsResponse
+     */
+    public Mono<MovieDetailsResponse> getMovieByTitleAsync(String title, String year) {
         logger.info("Fetching movie details for title: {}, year: {}", title, year);
 
-        try {
-            MovieDetailsResponse response = webClient.get()
-                    .uri(uriBuilder -> {
-                        var builder = uriBuilder
-                                .queryParam("apikey", apiKey)
-                                .queryParam("t", title)
-                                .queryParam("plot", "full");
-                        if (year != null && !year.isEmpty()) {
-                            builder.queryParam("y", year);
-                        }
-                        return builder.build();
-                    })
-                    .retrieve()
-                    .bodyToMono(MovieDetailsResponse.class)
-                    .timeout(Duration.ofMillis(5000))
-                    .block();
-
-            if (response != null && "False".equals(response.getResponse())) {
-                logger.warn("OMDB API returned error: {}", response.getError());
-                throw new RuntimeException("Movie not found: " + response.getError());
-            } else if (response != null) {
-                logger.info("Successfully fetched details for: {}", response.getTitle());
+        String titleKey = TitleNormalizer.key(title, year);
+        OmdbCache.Lookup<String> indexed = cache.getTitle(titleKey);
+        if (indexed != null) {
+            if (!indexed.isFound()) {
+                logger.debug("Negative cache hit for: {}", titleKey);
+                return Mono.error(new MovieNotFoundException(indexed.getError()));
             }
+            logger.debug("Title cache hit for: {} -> {}", titleKey, indexed.getValue());
+            return getMovieDetailsAsync(indexed.getValue());
+        }
+
+        return Mono.fromFuture(() -> titleFlight.executeAsync(titleKey,
+                () -> resolveByTitle(titleKey, title, year).toFuture()), true);
+    }
+
+    private Mono<MovieDetailsResponse> resolveByTitle(String titleKey, String title, String year) {
+        return catalogService.findByTitleAsync(title, year)
+                .flatMap(row -> fromCatalog(row, titleKey))
+                .switchIfEmpty(Mono.defer(() -> fetchMovieByTitle(titleKey, title, year)));
+    }
+
+    /**
+     * Serve a catalog row, refreshing it from OMDB by exact imdbID when it is stale or incomplete
+     * A stale but complete row is still served if the refresh fails
+     */
+    private Mono<MovieDetailsResponse> fromCatalog(CatalogMovie row, String titleKey) {
+        if (catalogService.isUsable(row)) {
+            logger.debug("Catalog hit for: {}", row.getImdbId());
+            return Mono.just(remember(titleKey, CompactMovie.from(catalogService.toResponse(row))));
+        }
+
+        logger.debug("Catalog row for {} is stale or incomplete, refreshing from OMDB", row.getImdbId());
+        return fetchMovieDetails(row.getImdbId())
+                .doOnNext(movie -> cache.putTitle(titleKey, movie.getImdbId()))
+                .onErrorResume(e -> row.isComplete(), e -> {
+                    logger.warn("Serving stale catalog row for {}: {}", row.getImdbId(), e.getMessage());
+                    return Mono.just(catalogService.toResponse(row));
+                });
+    }
+
+    private Mono<MovieDetailsResponse> fetchMovieByTitle(String titleKey, String title, String year) {
+        return webClient.get()
+                .uri(uriBuilder -> {
+                    var builder = uriBuilder
+                            .queryParam("apikey", apiKey)
+                            .queryParam("t", title)
+                            .queryParam("plot", "full");
+                    if (year != null && !year.isEmpty()) {
+                        builder.queryParam("y", year);
+                    }
+                    return builder.build();
+                })
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .timeout(timeout)
+                .transform(limiter::limit)
+                .transform(circuitBreaker::protect)
+                .map(body -> {
+                    OmdbMovieParser.Result result = parse(body);
+                    if (!result.isFound()) {
+                        logger.warn("OMDB API returned error: {}", result.error());
+                        cache.putTitleNotFound(titleKey, result.error());
+                        throw new MovieNotFoundException(result.error());
+                    }
+                    logger.info("Successfully fetched details for: {}", result.movie().getTitle());
+                    MovieDetailsResponse response = remember(titleKey, result.movie());
+                    catalogService.saveAsync(response);
+                    return response;
+                })
+                .onErrorMap(e -> translate("fetch movie details", e));
+    }
+
+    /**
+     * Cache a resolved movie and announce it to listeners such as the title index
+     *
+     * @return the movie in the response shape served to callers
+     */
+    private MovieDetailsResponse remember(String titleKey, CompactMovie movie) {
+        cache.putMovie(titleKey, movie);
+        MovieDetailsResponse response = movie.toDetailsResponse();
+        eventPublisher.publishEvent(new MovieResolvedEvent(response));
+        return response;
+    }
 
-            return response;
-        } catch (WebClientResponseException e) {
-            logger.error("OMDB API error: {} - {}", e.getStatusCode(), e.getMessage());
-            throw new RuntimeException("Failed to fetch movie details: " + e.getMessage());
-        } catch (Exception e) {
-            logger.error("Unexpected error while fetching movie details", e);
-            throw new RuntimeException("Failed to fetch movie details: " + e.getMessage());
+    private static OmdbMovieParser.Result parse(byte[] body) {
+        try {
+            return OmdbMovieParser.parse(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed OMDB response", e);
+        }
+    }
+
+    /**
+     * Log an upstream failure and wrap it the way callers expect
+     */
+    private RuntimeException translate(String action, Throwable e) {
+        if (e instanceof MovieNotFoundException notFound) {
+            return notFound;
+        }
+        if (e instanceof CircuitBreaker.CircuitOpenException
+                || e instanceof AdaptiveConcurrencyLimiter.LimitExceededException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof WebClientResponseException responseException) {
+            logger.error("OMDB API error: {} - {}", responseException.getStatusCode(), e.getMessage());
+        } else {
+            logger.error("Unexpected error while trying to {}", action, e);
         }
+        return new RuntimeException("Failed to " + action + ": " + e.getMessage());
     }
 }
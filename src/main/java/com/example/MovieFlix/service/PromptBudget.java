@@ -0,0 +1,129 @@
+package com.example.MovieFlix.service;
+
+import com.example.MovieFlix.model.dto.omdb.MovieDetailsResponse;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+/**
+ * Per-field token budgets for the movie metadata pasted into prompts
+ *
+ * OMDB's full plot can run to several hundred tokens and the cast list is
+ * long, while the model only needs the gist to judge a movie's vibe. The
+ * plot keeps as many whole sentences as fit its token budget (or, if the
+ * first sentence alone is too long, as many words); actor, director and
+ * genre lists keep their first entries, which OMDB lists in billing order.
+ * Tokens are counted locally with the cl100k tokenizer.
+ */
+@Component
+public class PromptBudget {
+
+    private static final Pattern SENTENCE_END = Pattern.compile("(?<=[.!?])\\s+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final String ELLIPSIS = "...";
+
+    private final TokenCountEstimator tokenizer = new JTokkitTokenCountEstimator();
+    private final int plotTokens;
+    private final int maxActors;
+    private final int maxDirectors;
+    private final int maxGenres;
+
+    public PromptBudget(
+            @Value("${recommendations.prompt.budget.plot-tokens:120}") int plotTokens,
+            @Value("${recommendations.prompt.budget.actors:4}") int maxActors,
+            @Value("${recommendations.prompt.budget.directors:2}") int maxDirectors,
+            @Value("${recommendations.prompt.budget.genres:3}") int maxGenres) {
+        this.plotTokens = plotTokens;
+        this.maxActors = maxActors;
+        this.maxDirectors = maxDirectors;
+        this.maxGenres = maxGenres;
+    }
+
+    /**
+     * The movie's prompt fields, each cut to its budget, with "Unknown" for missing values
+     */
+    public Fields fit(MovieDetailsResponse movie) {
+        return new Fields(
+                movie.getTitle(),
+                movie.getYear(),
+                firstEntries(movie.getGenre(), maxGenres, "Unknown"),
+                clipPlot(movie.getPlot()),
+                firstEntries(movie.getDirector(), maxDirectors, "Unknown"),
+                firstEntries(movie.getActors(), maxActors, "Unknown"));
+    }
+
+    /**
+     * The budget settings, for cache keys: a different budget puts different metadata into the prompt
+     */
+    public String getFingerprint() {
+        return "b" + plotTokens + "." + maxActors + "." + maxDirectors + "." + maxGenres;
+    }
+
+    public int count(String text) {
+        return text == null || text.isEmpty() ? 0 : tokenizer.estimate(text);
+    }
+
+    /**
+     * Keep whole sentences while they fit; fall back to whole words plus an ellipsis
+     */
+    String clipPlot(String plot) {
+        if (isMissing(plot)) {
+            return "No plot available";
+        }
+        String trimmed = plot.trim();
+        if (count(trimmed) <= plotTokens) {
+            return trimmed;
+        }
+
+        String kept = "";
+        for (String sentence : SENTENCE_END.split(trimmed)) {
+            String candidate = kept.isEmpty() ? sentence : kept + " " + sentence;
+            if (count(candidate) > plotTokens) {
+                break;
+            }
+            kept = candidate;
+        }
+        if (!kept.isEmpty()) {
+            return kept;
+        }
+
+        String[] words = WHITESPACE.split(trimmed);
+        int low = 0;
+        int high = words.length;
+        while (low < high) {
+            int mid = (low + high + 1) / 2;
+            if (count(join(words, mid) + ELLIPSIS) <= plotTokens) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low == 0 ? ELLIPSIS : join(words, low) + ELLIPSIS;
+    }
+
+    private static String firstEntries(String list, int max, String missing) {
+        if (isMissing(list)) {
+            return missing;
+        }
+        String[] entries = list.split("\\s*,\\s*");
+        return entries.length <= max ? list.trim() : String.join(", ", Arrays.copyOf(entries, max));
+    }
+
+    private static String join(String[] words, int count) {
+        return String.join(" ", Arrays.copyOf(words, count));
+    }
+
+    private static boolean isMissing(String value) {
+        return value == null || value.isBlank() || "N/A".equals(value);
+    }
+
+    /**
+     * Movie metadata as it goes into a prompt
+     */
+    public record Fields(String title, String year, String genre, String plot, String director, String actors) {
+    }
+}
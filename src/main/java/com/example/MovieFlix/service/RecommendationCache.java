@@ -0,0 +1,235 @@
+package com.example.MovieFlix.service;
+
+import com.example.MovieFlix.model.entities.CachedRecommendation;
+import com.example.MovieFlix.repository.CachedRecommendationRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Two-level cache of AI recommendation results
+ *
+ * An in-process Caffeine cache sits in front of the recommendation_cache
+ * table, so results survive restarts. Entries are keyed by imdbID + prompt
+ * version (which differs per RecommendationFormat) + PromptBudget settings +
+ * model + temperature.
+ * An entry younger than fresh-for is a hit; one older than that (but younger
+ * than max-age) is served as stale while the caller refreshes it in the
+ * background.
+ */
+@Component
+public class RecommendationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationCache.class);
+
+    private final CachedRecommendationRepository repository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Duration freshFor;
+    private final Duration maxAge;
+    private final String keySuffix;
+    private final Cache<String, Entry> entries;
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter refreshes;
+    private final Counter refreshFailures;
+    private final DistributionSummary entryAge;
+
+    public RecommendationCache(
+            CachedRecommendationRepository repository,
+            ObjectMapper objectMapper,
+            PromptBudget promptBudget,
+            MeterRegistry meterRegistry,
+            @Value("${recommendations.cache.enabled:true}") boolean enabled,
+            @Value("${recommendations.cache.fresh-for:7d}") Duration freshFor,
+            @Value("${recommendations.cache.max-age:90d}") Duration maxAge,
+            @Value("${recommendations.cache.max-entries:10000}") long maxEntries,
+            @Value("${spring.ai.openai.chat.options.model:gpt-4}") String model,
+            @Value("${spring.ai.openai.chat.options.temperature:0.7}") double temperature,
+            @Value("${recommendations.prompt.format:text}") String format) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.freshFor = freshFor;
+        this.maxAge = maxAge;
+        this.keySuffix = "|" + RecommendationFormat.from(format).getPromptVersion() + "|" + promptBudget.getFingerprint()
+                + "|" + model + "|" + temperature;
+        this.entries = Caffeine.newBuilder().maximumSize(maxEntries).build();
+
+        this.hits = meterRegistry.counter("recommendations.cache.requests", "result", "hit");
+        this.staleHits = meterRegistry.counter("recommendations.cache.requests", "result", "stale");
+        this.misses = meterRegistry.counter("recommendations.cache.requests", "result", "miss");
+        this.refreshes = meterRegistry.counter("recommendations.cache.refreshes", "outcome", "success");
+        this.refreshFailures = meterRegistry.counter("recommendations.cache.refreshes", "outcome", "failure");
+        this.entryAge = DistributionSummary.builder("recommendations.cache.entry.age")
+                .description("Age of cached recommendation results when served")
+                .baseUnit("seconds")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("recommendations.cache.hit.ratio", this, RecommendationCache::hitRatio)
+                .description("Share of recommendation requests answered from the cache, stale included")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Look up a cached result; may read the database
+     *
+     * @param imdbId IMDB ID of the source movie (no caching without one)
+     * @return the cached entry, fresh or stale
+     */
+    public Optional<Entry> get(String imdbId) {
+        if (!enabled || imdbId == null) {
+            return Optional.empty();
+        }
+        Entry entry = lookup(imdbId);
+        record(entry);
+        return Optional.ofNullable(entry);
+    }
+
+    /**
+     * Whether a fresh result is cached, without counting towards the hit ratio; may read the database
+     */
+    public boolean isFresh(String imdbId) {
+        if (!enabled || imdbId == null) {
+            return false;
+        }
+        Entry entry = lookup(imdbId);
+        return entry != null && !entry.isStale();
+    }
+
+    private Entry lookup(String imdbId) {
+        String key = key(imdbId);
+        Entry entry = entries.getIfPresent(key);
+        if (entry == null) {
+            entry = load(key);
+            if (entry != null) {
+                entries.put(key, entry);
+            }
+        }
+        if (entry != null && entry.age().compareTo(maxAge) > 0) {
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Non-blocking wrapper around get; a database read runs on the bounded elastic scheduler
+     */
+    public Mono<Entry> getAsync(String imdbId) {
+        if (!enabled || imdbId == null) {
+            return Mono.empty();
+        }
+        if (entries.getIfPresent(key(imdbId)) != null) {
+            return Mono.justOrEmpty(get(imdbId));
+        }
+        return Mono.fromCallable(() -> get(imdbId).orElse(null))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Store a freshly generated result in memory and, off the caller's thread, in the database
+     */
+    public void put(String imdbId, AIRecommendationService.AIRecommendationResult result) {
+        if (!enabled || imdbId == null) {
+            return;
+        }
+        String key = key(imdbId);
+        LocalDateTime now = LocalDateTime.now();
+        entries.put(key, new Entry(result, now));
+        Mono.fromRunnable(() -> repository.save(new CachedRecommendation(key, imdbId, toJson(result), now)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null, e -> logger.warn("Failed to persist recommendations for {}: {}",
+                        imdbId, e.getMessage()));
+    }
+
+    public void recordRefresh(boolean success) {
+        (success ? refreshes : refreshFailures).increment();
+    }
+
+    private Entry load(String key) {
+        try {
+            return repository.findById(key)
+                    .map(row -> new Entry(fromJson(row.getResultJson()), row.getGeneratedAt()))
+                    .orElse(null);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to read cached recommendations for {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void record(Entry entry) {
+        if (entry == null) {
+            misses.increment();
+            return;
+        }
+        (entry.isStale() ? staleHits : hits).increment();
+        entryAge.record(entry.age().toSeconds());
+    }
+
+    private double hitRatio() {
+        double served = hits.count() + staleHits.count();
+        double total = served + misses.count();
+        return total == 0 ? 0 : served / total;
+    }
+
+    private String key(String imdbId) {
+        return imdbId + keySuffix;
+    }
+
+    private String toJson(AIRecommendationService.AIRecommendationResult result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize recommendations", e);
+        }
+    }
+
+    private AIRecommendationService.AIRecommendationResult fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, AIRecommendationService.AIRecommendationResult.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to deserialize recommendations", e);
+        }
+    }
+
+    /**
+     * A cached result and when it was generated
+     */
+    public final class Entry {
+        private final AIRecommendationService.AIRecommendationResult result;
+        private final LocalDateTime generatedAt;
+
+        private Entry(AIRecommendationService.AIRecommendationResult result, LocalDateTime generatedAt) {
+            this.result = result;
+            this.generatedAt = generatedAt;
+        }
+
+        public AIRecommendationService.AIRecommendationResult getResult() {
+            return result;
+        }
+
+        public boolean isStale() {
+            return age().compareTo(freshFor) > 0;
+        }
+
+        private Duration age() {
+            return Duration.between(generatedAt, LocalDateTime.now());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.MovieFlix.service;
+
+import com.example.MovieFlix.exception.MovieNotFoundException;
+import com.example.MovieFlix.model.dto.RecommendedMovie;
+import com.example.MovieFlix.model.dto.omdb.MovieDetailsResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Resolves AI-recommended titles against OMDB
+ *
+ * All titles are looked up concurrently (bounded fan-out), each with its own
+ * deadline, so the stage costs roughly the slowest single lookup. Resolved
+ * titles get imdbID, poster and rating attached; titles OMDB does not know -
+ * typically hallucinated ones - or that miss the deadline are dropped.
+ */
+@Service
+public class RecommendationEnricher {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationEnricher.class);
+
+    private final OmdbService omdbService;
+    private final int concurrency;
+    private final Duration timeout;
+    private final Counter resolved;
+    private final Counter notFound;
+    private final Counter timedOut;
+    private final Counter failed;
+
+    public RecommendationEnricher(
+            OmdbService omdbService,
+            MeterRegistry meterRegistry,
+            @Value("${recommendations.enrichment.concurrency:5}") int concurrency,
+            @Value("${recommendations.enrichment.timeout:3s}") Duration timeout) {
+        this.omdbService = omdbService;
+        this.concurrency = concurrency;
+        this.timeout = timeout;
+        this.resolved = meterRegistry.counter("recommendations.enrichment", "result", "resolved");
+        this.notFound = meterRegistry.counter("recommendations.enrichment", "result", "not_found");
+        this.timedOut = meterRegistry.counter("recommendations.enrichment", "result", "timeout");
+        this.failed = meterRegistry.counter("recommendations.enrichment", "result", "error");
+    }
+
+    /**
+     * Enrich recommendations, keeping their order and dropping unresolvable titles
+     *
+     * @param recommendations recommendations parsed from the AI response
+     * @return Mono emitting the enriched recommendations
+     */
+    public Mono<List<RecommendedMovie>> enrich(List<RecommendedMovie> recommendations) {
+        return Flux.fromIterable(recommendations)
+                .flatMapSequential(this::enrichOne, concurrency)
+                .collectList();
+    }
+
+    /**
+     * Blocking variant of enrich, for request threads; the wait counts against the OMDB blocking bulkhead
+     */
+    public List<RecommendedMovie> enrichBlocking(List<RecommendedMovie> recommendations) {
+        return omdbService.await(enrich(recommendations));
+    }
+
+    private Mono<RecommendedMovie> enrichOne(RecommendedMovie recommendation) {
+        return lookup(recommendation.getTitle(), recommendation.getYear())
+                .timeout(timeout)
+                .map(movie -> {
+                    resolved.increment();
+                    return new RecommendedMovie(movie.getTitle(), movie.getYear(), recommendation.getReason(),
+                            movie.getImdbId(), movie.getPoster(), movie.getImdbRating());
+                })
+                .onErrorResume(e -> {
+                    if (e instanceof MovieNotFoundException) {
+                        notFound.increment();
+                        logger.info("Dropping unresolvable recommendation '{}' ({})",
+                                recommendation.getTitle(), recommendation.getYear());
+                    } else if (e instanceof TimeoutException) {
+                        timedOut.increment();
+                        logger.warn("Enrichment of '{}' timed out after {}", recommendation.getTitle(), timeout);
+                    } else {
+                        failed.increment();
+                        logger.warn("Enrichment of '{}' failed: {}", recommendation.getTitle(), e.getMessage());
+                    }
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Look a title up by title and year; if the model got the year slightly wrong,
+     * accept the title's best match when it is within a year of the suggested one
+     */
+    private Mono<MovieDetailsResponse> lookup(String title, String year) {
+        if (title == null || title.isBlank()) {
+            return Mono.error(new MovieNotFoundException("Empty title"));
+        }
+        if (parseYear(year) == null) {
+            return omdbService.getMovieByTitleAsync(title, null);
+        }
+        return omdbService.getMovieByTitleAsync(title, year)
+                .onErrorResume(MovieNotFoundException.class, notFound -> omdbService
+                        .getMovieByTitleAsync(title, null)
+                        .filter(movie -> isNearYear(movie.getYear(), year))
+                        .switchIfEmpty(Mono.error(notFound)));
+    }
+
+    private static boolean isNearYear(String actual, String expected) {
+        Integer actualYear = parseYear(actual);
+        Integer expectedYear = parseYear(expected);
+        return actualYear != null && expectedYear != null && Math.abs(actualYear - expectedYear) <= 1;
+    }
+
+    private static Integer parseYear(String year) {
+        if (year == null || year.length() < 4) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(year.substring(0, 4));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.MovieFlix.service;
+
+import java.util.Locale;
+
+/**
+ * Output format requested from the model for vibe analysis and recommendations
+ */
+public enum RecommendationFormat {
+
+    /**
+     * Free text with MOVIE:/REASON: lines; the vibe streams as readable prose
+     */
+    TEXT("v2"),
+
+    /**
+     * Compact JSON with one-letter keys; fewer output tokens
+     */
+    JSON("c2");
+
+    private final String promptVersion;
+
+    RecommendationFormat(String promptVersion) {
+        this.promptVersion = promptVersion;
+    }
+
+    /**
+     * Part of the cache key; bump whenever the prompt changes in a way that changes the answers
+     */
+    public String getPromptVersion() {
+        return promptVersion;
+    }
+
+    public static RecommendationFormat from(String value) {
+        return value == null || value.isBlank() ? TEXT : valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
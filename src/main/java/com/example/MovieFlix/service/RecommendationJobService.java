@@ -0,0 +1,298 @@
+package com.example.MovieFlix.service;
+
+import com.example.MovieFlix.common.ThreadFactories;
+import com.example.MovieFlix.exception.QueueFullException;
+import com.example.MovieFlix.model.dto.RecommendationResponse;
+import com.example.MovieFlix.model.dto.RecommendedMovie;
+import com.example.MovieFlix.model.dto.omdb.MovieDetailsResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous recommendation jobs for clients that do not need an answer on the same connection
+ *
+ * Jobs wait in a bounded priority queue (interactive before batch, first come
+ * first served within a priority) and are run by a fixed pool of workers,
+ * each doing what /api/recommendations does. A full queue rejects new jobs
+ * with QueueFullException rather than growing. Finished jobs are kept for the
+ * retention period so their results can be fetched by polling or long-polling.
+ */
+@Service
+public class RecommendationJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationJobService.class);
+
+    public enum Priority {
+        INTERACTIVE, BATCH
+    }
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private final MovieResolver movieResolver;
+    private final AIRecommendationService aiRecommendationService;
+    private final SemanticRecommendationCache semanticCache;
+    private final int queueCapacity;
+    private final PriorityBlockingQueue<Job> queue = new PriorityBlockingQueue<>(64,
+            Comparator.comparing(Job::getPriority).thenComparingLong(job -> job.sequence));
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Map<Priority, AtomicInteger> queuedByPriority = new EnumMap<>(Priority.class);
+    private final AtomicInteger running = new AtomicInteger();
+    private final Cache<String, Job> jobs;
+    private final ExecutorService workers;
+    private final Map<Priority, Timer> queueWait = new EnumMap<>(Priority.class);
+    private final Counter succeeded;
+    private final Counter failed;
+    private final Counter rejected;
+
+    public RecommendationJobService(
+            MovieResolver movieResolver,
+            AIRecommendationService aiRecommendationService,
+            SemanticRecommendationCache semanticCache,
+            MeterRegistry meterRegistry,
+            @Value("${recommendations.jobs.workers:4}") int workerCount,
+            @Value("${recommendations.jobs.queue-capacity:200}") int queueCapacity,
+            @Value("${recommendations.jobs.retention:1h}") Duration retention,
+            @Value("${recommendations.jobs.max-jobs:10000}") int maxJobs,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.movieResolver = movieResolver;
+        this.aiRecommendationService = aiRecommendationService;
+        this.semanticCache = semanticCache;
+        this.queueCapacity = queueCapacity;
+        this.jobs = Caffeine.newBuilder().maximumSize(maxJobs).expireAfterWrite(retention).build();
+
+        this.succeeded = meterRegistry.counter("recommendations.jobs", "outcome", "succeeded");
+        this.failed = meterRegistry.counter("recommendations.jobs", "outcome", "failed");
+        this.rejected = meterRegistry.counter("recommendations.jobs", "outcome", "rejected");
+        for (Priority priority : Priority.values()) {
+            AtomicInteger depth = new AtomicInteger();
+            queuedByPriority.put(priority, depth);
+            Gauge.builder("recommendations.jobs.queue.depth", depth, AtomicInteger::get)
+                    .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+                    .description("Jobs waiting for a worker")
+                    .register(meterRegistry);
+            queueWait.put(priority, Timer.builder("recommendations.jobs.queue.wait")
+                    .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+                    .description("Time a job waited for a worker")
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry));
+        }
+        Gauge.builder("recommendations.jobs.running", running, AtomicInteger::get)
+                .description("Jobs being worked on")
+                .register(meterRegistry);
+
+        this.workers = Executors.newFixedThreadPool(workerCount,
+                ThreadFactories.named("recommendation-job-", virtualThreads));
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::work);
+        }
+        logger.info("Recommendation jobs: {} workers, queue capacity {}", workerCount, queueCapacity);
+    }
+
+    /**
+     * Queue a recommendation job
+     *
+     * @throws QueueFullException if queue-capacity jobs are already waiting
+     */
+    public Job submit(String title, String year, Priority priority) {
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            rejected.increment();
+            throw new QueueFullException("Recommendation job queue is full", Duration.ofSeconds(5));
+        }
+        Job job = new Job(UUID.randomUUID().toString(), title, year, priority, sequence.incrementAndGet());
+        jobs.put(job.id, job);
+        queuedByPriority.get(priority).incrementAndGet();
+        queue.add(job);
+        logger.debug("Queued {} job {} for '{}'", priority, job.id, title);
+        return job;
+    }
+
+    public Optional<Job> get(String id) {
+        return Optional.ofNullable(jobs.getIfPresent(id));
+    }
+
+    /**
+     * Long-poll a job: emits it once finished, or as it stands after wait
+     *
+     * @return empty if the job is unknown or has expired
+     */
+    public Mono<Job> await(String id, Duration wait) {
+        Job job = jobs.getIfPresent(id);
+        if (job == null) {
+            return Mono.empty();
+        }
+        if (job.isFinished() || wait.isZero() || wait.isNegative()) {
+            return Mono.just(job);
+        }
+        return Mono.fromFuture(job.done.copy())
+                .timeout(wait, Mono.just(job));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void work() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Job job;
+            try {
+                job = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queued.decrementAndGet();
+            queuedByPriority.get(job.priority).decrementAndGet();
+            run(job);
+        }
+    }
+
+    private void run(Job job) {
+        job.startedAt = Instant.now();
+        job.status = Status.RUNNING;
+        running.incrementAndGet();
+        queueWait.get(job.priority).record(Duration.between(job.createdAt, job.startedAt));
+        try {
+            job.result = recommend(job.title, job.year);
+            job.status = Status.SUCCEEDED;
+            succeeded.increment();
+        } catch (RuntimeException e) {
+            logger.warn("Recommendation job {} for '{}' failed: {}", job.id, job.title, e.getMessage());
+            job.error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            job.status = Status.FAILED;
+            failed.increment();
+        } finally {
+            running.decrementAndGet();
+            job.finishedAt = Instant.now();
+            jobs.put(job.id, job); // retention counts from completion
+            job.done.complete(job);
+        }
+    }
+
+    /**
+     * Same steps as /api/recommendations: semantic cache, then title resolution and generation
+     */
+    private RecommendationResponse recommend(String title, String year) {
+        Optional<SemanticRecommendationCache.Hit> hit = semanticCache.lookup(title, year);
+        if (hit.isPresent()) {
+            return toResponse(hit.get().movie(), hit.get().result());
+        }
+        MovieDetailsResponse movie = movieResolver.resolve(title, year);
+        AIRecommendationService.AIRecommendationResult result = aiRecommendationService.getRecommendations(movie);
+        semanticCache.putAsync(title, year, movie, result);
+        return toResponse(movie, result);
+    }
+
+    private static RecommendationResponse toResponse(MovieDetailsResponse movie,
+            AIRecommendationService.AIRecommendationResult result) {
+        return new RecommendationResponse(
+                movie.getTitle(),
+                movie.getYear(),
+                movie.getGenre(),
+                result.getVibe(),
+                result.getRecommendations().stream()
+                        .map(r -> new RecommendedMovie(r.getTitle(), r.getYear(), r.getReason()))
+                        .collect(Collectors.toList()),
+                result.getModel());
+    }
+
+    /**
+     * A queued, running or finished recommendation job
+     */
+    public static class Job {
+        private final String id;
+        private final String title;
+        private final String year;
+        private final Priority priority;
+        private final long sequence;
+        private final Instant createdAt = Instant.now();
+        private final CompletableFuture<Job> done = new CompletableFuture<>();
+        private volatile Status status = Status.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile RecommendationResponse result;
+        private volatile String error;
+
+        Job(String id, String title, String year, Priority priority, long sequence) {
+            this.id = id;
+            this.title = title;
+            this.year = year;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        public boolean isFinished() {
+            return status == Status.SUCCEEDED || status == Status.FAILED;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getYear() {
+            return year;
+        }
+
+        public Priority getPriority() {
+            return priority;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public Instant getCreatedAt() {
+            return createdAt;
+        }
+
+        public Instant getStartedAt() {
+            return startedAt;
+        }
+
+        public Instant getFinishedAt() {
+            return finishedAt;
+        }
+
+        public RecommendationResponse getResult() {
+            return result;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
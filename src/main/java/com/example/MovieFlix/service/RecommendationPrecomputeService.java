@@ -0,0 +1,414 @@
+package com.example.MovieFlix.service;
+
+import com.example.MovieFlix.common.AdaptiveConcurrencyLimiter;
+import com.example.MovieFlix.common.CircuitBreaker;
+import com.example.MovieFlix.common.ThreadFactories;
+import com.example.MovieFlix.model.dto.omdb.MovieDetailsResponse;
+import com.example.MovieFlix.model.entities.CatalogMovie;
+import com.example.MovieFlix.repository.CatalogMovieRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Batch precomputation of recommendations for the most requested titles
+ *
+ * Each title is resolved through OMDB and run through AIRecommendationService,
+ * whose recommendation cache then answers live requests without a model call.
+ * Titles come from recommendations.precompute.titles ("Title", "Title (Year)"
+ * or an imdbID) plus the top-catalog most voted catalog movies. Titles already
+ * holding a fresh cached result are skipped.
+ *
+ * At most parallelism titles are worked on at once. When OMDB or OpenAI
+ * refuses a call (circuit open or concurrency limit reached) every worker
+ * pauses for the advertised retry-after before trying again, so a run does
+ * not compete with live traffic for a struggling upstream.
+ *
+ * Each finished title is appended to a checkpoint file; a run that is
+ * interrupted resumes from it, and the file is deleted once a run completes.
+ */
+@Service
+public class RecommendationPrecomputeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationPrecomputeService.class);
+
+    private static final Pattern TITLE_WITH_YEAR = Pattern.compile("^(.*\\S)\\s*\\((\\d{4})\\)$");
+    private static final Pattern IMDB_ID = Pattern.compile("^tt\\d+$");
+    private static final Duration LIMIT_BACKOFF = Duration.ofSeconds(1);
+
+    private final OmdbService omdbService;
+    private final MovieResolver movieResolver;
+    private final AIRecommendationService aiRecommendationService;
+    private final RecommendationCache recommendationCache;
+    private final CatalogMovieRepository catalogMovieRepository;
+    private final List<String> titles;
+    private final int topCatalog;
+    private final int parallelism;
+    private final int maxAttempts;
+    private final Path checkpointFile;
+    private final boolean virtualThreads;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong pausedUntil = new AtomicLong();
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+    private final Counter computed;
+    private final Counter cached;
+    private final Counter failed;
+    private volatile Report lastReport;
+
+    public RecommendationPrecomputeService(
+            OmdbService omdbService,
+            MovieResolver movieResolver,
+            AIRecommendationService aiRecommendationService,
+            RecommendationCache recommendationCache,
+            CatalogMovieRepository catalogMovieRepository,
+            MeterRegistry meterRegistry,
+            @Value("${recommendations.precompute.titles:}") List<String> titles,
+            @Value("${recommendations.precompute.top-catalog:0}") int topCatalog,
+            @Value("${recommendations.precompute.parallelism:2}") int parallelism,
+            @Value("${recommendations.precompute.max-attempts:5}") int maxAttempts,
+            @Value("${recommendations.precompute.checkpoint-file:precompute.checkpoint}") String checkpointFile,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.omdbService = omdbService;
+        this.movieResolver = movieResolver;
+        this.aiRecommendationService = aiRecommendationService;
+        this.recommendationCache = recommendationCache;
+        this.catalogMovieRepository = catalogMovieRepository;
+        this.titles = titles;
+        this.topCatalog = topCatalog;
+        this.parallelism = parallelism;
+        this.maxAttempts = maxAttempts;
+        this.checkpointFile = Path.of(checkpointFile);
+        this.virtualThreads = virtualThreads;
+
+        this.computed = meterRegistry.counter("recommendations.precompute.titles", "outcome", "computed");
+        this.cached = meterRegistry.counter("recommendations.precompute.titles", "outcome", "cached");
+        this.failed = meterRegistry.counter("recommendations.precompute.titles", "outcome", "failed");
+        Gauge.builder("recommendations.precompute.throughput", this,
+                        service -> service.lastReport != null ? service.lastReport.getTitlesPerMinute() : 0)
+                .description("Titles per minute of the last precompute run")
+                .register(meterRegistry);
+        Gauge.builder("recommendations.precompute.running", running, flag -> flag.get() ? 1 : 0)
+                .description("Whether a precompute run is in progress")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether an interrupted run left a checkpoint behind
+     */
+    public boolean hasCheckpoint() {
+        return Files.exists(checkpointFile);
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public Optional<Report> getLastReport() {
+        return Optional.ofNullable(lastReport);
+    }
+
+    /**
+     * Precompute recommendations for every configured title, resuming from the checkpoint if there is one
+     *
+     * @return the run's report, or empty if a run was already in progress
+     */
+    public Optional<Report> run() {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Precompute run already in progress");
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(runTitles(collectTitles()));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private Report runTitles(List<String> all) {
+        Set<String> done = readCheckpoint();
+        List<String> pending = new ArrayList<>();
+        for (String title : all) {
+            if (!done.contains(title)) {
+                pending.add(title);
+            }
+        }
+        if (!done.isEmpty()) {
+            logger.info("Resuming precompute run: {} of {} titles already done", all.size() - pending.size(),
+                    all.size());
+        }
+
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        AtomicInteger computedCount = new AtomicInteger();
+        AtomicInteger cachedCount = new AtomicInteger();
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism),
+                ThreadFactories.named("recommendation-precompute-", virtualThreads));
+        boolean interrupted = false;
+        try (BufferedWriter checkpoint = Files.newBufferedWriter(checkpointFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            List<Future<?>> futures = new ArrayList<>(pending.size());
+            for (String title : pending) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        if (precompute(title)) {
+                            computedCount.incrementAndGet();
+                            computed.increment();
+                        } else {
+                            cachedCount.incrementAndGet();
+                            cached.increment();
+                        }
+                        markDone(checkpoint, title);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (RuntimeException e) {
+                        logger.warn("Precompute failed for '{}': {}", title, e.getMessage());
+                        failed.increment();
+                        failures.add(title);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            interrupted = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write precompute checkpoint " + checkpointFile, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Precompute worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        int processed = computedCount.get() + cachedCount.get() + failures.size();
+        Report report = new Report(startedAt, Instant.now(), all.size(), all.size() - pending.size(),
+                computedCount.get(), cachedCount.get(), new ArrayList<>(failures),
+                processed / Math.max(elapsedNanos / 60_000_000_000.0, 1e-9), !interrupted);
+        lastReport = report;
+        if (interrupted) {
+            logger.info("Precompute run interrupted after {} titles; it will resume from {}", processed, checkpointFile);
+        } else {
+            deleteCheckpoint();
+            logger.info("Precompute run finished: {} titles, {} computed, {} already cached, {} failed, {} titles/min",
+                    all.size(), report.getComputed(), report.getCached(), failures.size(),
+                    Math.round(report.getTitlesPerMinute()));
+        }
+        return report;
+    }
+
+    /**
+     * Make sure one title has a fresh cached result
+     *
+     * @return true if recommendations were generated, false if a fresh result was already cached
+     */
+    private boolean precompute(String title) throws InterruptedException {
+        MovieDetailsResponse movie = withBackoff(() -> resolve(title));
+        if (recommendationCache.isFresh(movie.getImdbId())) {
+            return false;
+        }
+        withBackoff(() -> aiRecommendationService.getRecommendations(movie));
+        return true;
+    }
+
+    private MovieDetailsResponse resolve(String title) {
+        if (IMDB_ID.matcher(title).matches()) {
+            return omdbService.getMovieDetails(title);
+        }
+        Matcher withYear = TITLE_WITH_YEAR.matcher(title);
+        return withYear.matches()
+                ? movieResolver.resolve(withYear.group(1), withYear.group(2))
+                : movieResolver.resolve(title, null);
+    }
+
+    /**
+     * Run a call, waiting out circuit breakers and concurrency limits instead of failing
+     *
+     * A refusal pauses every worker, not just this one, until the retry-after has passed.
+     */
+    private <T> T withBackoff(Supplier<T> call) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            long waitNanos = pausedUntil.get() - System.nanoTime();
+            if (waitNanos > 0) {
+                Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+            }
+            Duration retryAfter;
+            try {
+                return call.get();
+            } catch (CircuitBreaker.CircuitOpenException e) {
+                retryAfter = e.getRetryAfter().isZero() ? LIMIT_BACKOFF : e.getRetryAfter();
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+            } catch (AdaptiveConcurrencyLimiter.LimitExceededException e) {
+                retryAfter = LIMIT_BACKOFF.multipliedBy(attempt);
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+            }
+            long until = System.nanoTime() + retryAfter.toNanos();
+            pausedUntil.accumulateAndGet(until, Math::max);
+            logger.debug("Upstream refused precompute call, pausing for {} ms", retryAfter.toMillis());
+        }
+    }
+
+    private List<String> collectTitles() {
+        Set<String> all = new LinkedHashSet<>();
+        for (String title : titles) {
+            if (title != null && !title.isBlank()) {
+                all.add(title.trim());
+            }
+        }
+        if (topCatalog > 0) {
+            for (CatalogMovie movie : catalogMovieRepository.findByImdbVotesNotNullOrderByImdbVotesDesc(
+                    PageRequest.of(0, topCatalog))) {
+                all.add(movie.getImdbId());
+            }
+        }
+        return new ArrayList<>(all);
+    }
+
+    private Set<String> readCheckpoint() {
+        if (!Files.exists(checkpointFile)) {
+            return Set.of();
+        }
+        try {
+            Set<String> done = new HashSet<>();
+            for (String line : Files.readAllLines(checkpointFile, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    done.add(line);
+                }
+            }
+            return done;
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable precompute checkpoint {}: {}", checkpointFile, e.getMessage());
+            return Set.of();
+        }
+    }
+
+    private void markDone(BufferedWriter checkpoint, String title) {
+        checkpointLock.lock();
+        try {
+            checkpoint.write(title);
+            checkpoint.newLine();
+            checkpoint.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    private void deleteCheckpoint() {
+        try {
+            Files.deleteIfExists(checkpointFile);
+        } catch (IOException e) {
+            logger.warn("Failed to delete precompute checkpoint {}: {}", checkpointFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Summary of a precompute run
+     */
+    public static class Report {
+        private final Instant startedAt;
+        private final Instant finishedAt;
+        private final int titles;
+        private final int resumed;
+        private final int computed;
+        private final int cached;
+        private final List<String> failures;
+        private final double titlesPerMinute;
+        private final boolean complete;
+
+        public Report(Instant startedAt, Instant finishedAt, int titles, int resumed, int computed, int cached,
+                List<String> failures, double titlesPerMinute, boolean complete) {
+            this.startedAt = startedAt;
+            this.finishedAt = finishedAt;
+            this.titles = titles;
+            this.resumed = resumed;
+            this.computed = computed;
+            this.cached = cached;
+            this.failures = List.copyOf(failures);
+            this.titlesPerMinute = titlesPerMinute;
+            this.complete = complete;
+        }
+
+        public Instant getStartedAt() {
+            return startedAt;
+        }
+
+        public Instant getFinishedAt() {
+            return finishedAt;
+        }
+
+        public int getTitles() {
+            return titles;
+        }
+
+        /**
+         * Titles already done by an earlier, interrupted run
+         */
+        public int getResumed() {
+            return resumed;
+        }
+
+        public int getComputed() {
+            return computed;
+        }
+
+        public int getCached() {
+            return cached;
+        }
+
+        public List<String> getFailures() {
+            return failures;
+        }
+
+        public double getTitlesPerMinute() {
+            return titlesPerMinute;
+        }
+
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+}
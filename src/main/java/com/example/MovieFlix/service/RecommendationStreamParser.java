@@ -0,0 +1,86 @@
+package com.example.MovieFlix.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incremental parser for a streamed recommendation completion
+ *
+ * Fed the completion chunk by chunk, it turns it into vibe, recommendation
+ * and done events as soon as each piece is complete. Implementations exist
+ * per RecommendationFormat and are not thread-safe; use one per stream.
+ */
+public interface RecommendationStreamParser {
+
+    String VIBE = "vibe";
+    String RECOMMENDATION = "recommendation";
+    String DONE = "done";
+    String NO_VIBE = "Unable to analyze vibe";
+
+    /**
+     * Consume the next chunk of the completion
+     *
+     * @return events completed by this chunk, possibly none
+     */
+    List<Event> feed(String chunk);
+
+    /**
+     * Flush whatever is left once the completion has ended
+     *
+     * @return the remaining events, ending with a done event
+     */
+    List<Event> finish();
+
+    /**
+     * The full result assembled from everything parsed so far
+     */
+    AIRecommendationService.AIRecommendationResult result(String sourceTitle);
+
+    /**
+     * Whether the answer was only usable after a local repair
+     */
+    default boolean wasRepaired() {
+        return false;
+    }
+
+    static RecommendationStreamParser forFormat(RecommendationFormat format) {
+        return format == RecommendationFormat.JSON
+                ? new JsonRecommendationStreamParser()
+                : new TextRecommendationStreamParser();
+    }
+
+    /**
+     * Parse a complete (non-streamed) answer in one pass
+     */
+    static AIRecommendationService.AIRecommendationResult parse(RecommendationFormat format, String response,
+            String sourceTitle) {
+        RecommendationStreamParser parser = forFormat(format);
+        parser.feed(response);
+        parser.finish();
+        return parser.result(sourceTitle);
+    }
+
+    /**
+     * The events a finished stream would have produced, for replaying a cached result
+     */
+    static List<Event> replay(AIRecommendationService.AIRecommendationResult result) {
+        List<Event> events = new ArrayList<>(result.getRecommendations().size() + 2);
+        events.add(new Event(VIBE, result.getVibe()));
+        for (AIRecommendationService.MovieRecommendation recommendation : result.getRecommendations()) {
+            events.add(new Event(RECOMMENDATION, recommendation));
+        }
+        events.add(done(result.getRecommendations().size()));
+        return events;
+    }
+
+    static Event done(int recommendations) {
+        return new Event(DONE, Map.of("recommendations", recommendations));
+    }
+
+    /**
+     * A named piece of the streamed answer
+     */
+    record Event(String name, Object data) {
+    }
+}
@@ -0,0 +1,343 @@
+package com.example.MovieFlix.service;
+
+import com.example.MovieFlix.common.AdaptiveConcurrencyLimiter;
+import com.example.MovieFlix.common.BoundedVectorStore;
+import com.example.MovieFlix.common.CircuitBreaker;
+import com.example.MovieFlix.common.TitleNormalizer;
+import com.example.MovieFlix.model.dto.omdb.MovieDetailsResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.Year;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Semantic cache in front of title resolution and recommendation generation
+ *
+ * "The Dark Knight", "dark knight 2008" and "Batman The Dark Knight" are
+ * different strings for the same movie. Each answered request is stored under
+ * the embedding of its normalized text, and again under the resolved movie's
+ * canonical "title year" (the prompt's identity). A later request whose
+ * embedding is within the configured cosine similarity of a stored one gets
+ * that result back without an OMDB or chat call. A request naming a year
+ * never matches a movie from another year, and the numbers in the title
+ * (digits or roman numerals, so "rocky ii" is "rocky 2") must be the same,
+ * because "toy story 2" and "toy story 3" embed almost identically.
+ *
+ * Only answers from the primary chat model are stored: a hedged call won by
+ * the backup model would otherwise be served for the whole max-age.
+ *
+ * A sample of similarity hits is audited in the background by resolving the
+ * request the normal way; if it resolves to a different movie the hit was
+ * false, the entry is evicted and recommendations.semantic.audits counts it.
+ *
+ * When full, a new request only displaces the least recently used one if its
+ * title is asked for at least as often (TitlePopularity), so a burst of
+ * one-off titles does not flush out the popular ones.
+ */
+@Component
+public class SemanticRecommendationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SemanticRecommendationCache.class);
+    private static final Pattern TRAILING_YEAR = Pattern.compile("^(.*\\S)\\s+((?:19|20)\\d{2})$");
+    private static final Pattern ROMAN_NUMERAL = Pattern.compile("x{0,3}(?:ix|iv|v?i{0,3})");
+
+    private final EmbeddingModel embeddingModel;
+    private final MovieResolver movieResolver;
+    private final boolean enabled;
+    private final double threshold;
+    private final double auditRate;
+    private final String primaryModel;
+    private final Duration maxAge;
+    private final BoundedVectorStore<Entry> store;
+    private final Cache<String, float[]> embeddings;
+    private final Counter exactHits;
+    private final Counter similarHits;
+    private final Counter misses;
+    private final Counter errors;
+    private final Counter confirmed;
+    private final Counter falseHits;
+    private final Counter auditErrors;
+    private final Counter rejected;
+    private final DistributionSummary nearestSimilarity;
+
+    public SemanticRecommendationCache(
+            EmbeddingModel embeddingModel,
+            MovieResolver movieResolver,
+            TitlePopularity titlePopularity,
+            MeterRegistry meterRegistry,
+            @Value("${recommendations.semantic-cache.enabled:true}") boolean enabled,
+            @Value("${recommendations.semantic-cache.threshold:0.95}") double threshold,
+            @Value("${recommendations.semantic-cache.max-entries:5000}") int maxEntries,
+            @Value("${recommendations.semantic-cache.max-age:7d}") Duration maxAge,
+            @Value("${recommendations.semantic-cache.audit-rate:0.05}") double auditRate,
+            @Value("${spring.ai.openai.chat.options.model:gpt-4}") String primaryModel) {
+        this.embeddingModel = embeddingModel;
+        this.movieResolver = movieResolver;
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.auditRate = auditRate;
+        this.primaryModel = primaryModel;
+        this.maxAge = maxAge;
+        this.store = new BoundedVectorStore<>(maxEntries, titlePopularity::frequency);
+        this.embeddings = Caffeine.newBuilder().maximumSize(1000).expireAfterWrite(Duration.ofMinutes(10)).build();
+
+        this.exactHits = meterRegistry.counter("recommendations.semantic.requests", "result", "exact");
+        this.similarHits = meterRegistry.counter("recommendations.semantic.requests", "result", "similar");
+        this.misses = meterRegistry.counter("recommendations.semantic.requests", "result", "miss");
+        this.errors = meterRegistry.counter("recommendations.semantic.requests", "result", "error");
+        this.confirmed = meterRegistry.counter("recommendations.semantic.audits", "outcome", "confirmed");
+        this.falseHits = meterRegistry.counter("recommendations.semantic.audits", "outcome", "false_hit");
+        this.auditErrors = meterRegistry.counter("recommendations.semantic.audits", "outcome", "error");
+        this.rejected = meterRegistry.counter("recommendations.semantic.rejected");
+        this.nearestSimilarity = DistributionSummary.builder("recommendations.semantic.similarity")
+                .description("Similarity of the nearest cached request, hit or not; use it to tune the threshold")
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("recommendations.semantic.entries", store, BoundedVectorStore::size)
+                .description("Requests held in the semantic cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Find a previously answered request equal or similar to this one; calls the embedding model on a miss
+     * If the embedding call fails, times out or is refused by its breaker or bulkhead, the request is a miss
+     *
+     * @param title the requested title, as typed
+     * @param year  the requested year (optional)
+     * @return the cached movie and result
+     */
+    public Optional<Hit> lookup(String title, String year) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Request request = Request.of(title, year);
+        if (request.text.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            Optional<Entry> exact = store.get(request.text).filter(this::isFresh);
+            if (exact.isPresent()) {
+                exactHits.increment();
+                return Optional.of(exact.get().toHit(1.0));
+            }
+
+            Optional<BoundedVectorStore.Match<Entry>> nearest = store.nearest(embed(request.text));
+            nearest.ifPresent(match -> nearestSimilarity.record(match.similarity()));
+            Optional<BoundedVectorStore.Match<Entry>> hit = nearest
+                    .filter(match -> match.similarity() >= threshold)
+                    .filter(match -> isFresh(match.value()))
+                    .filter(match -> request.year == null || request.year.equals(match.value().year()))
+                    .filter(match -> numerals(request.text).equals(numerals(match.key())));
+            if (hit.isEmpty()) {
+                misses.increment();
+                return Optional.empty();
+            }
+            similarHits.increment();
+            BoundedVectorStore.Match<Entry> match = hit.get();
+            logger.debug("Semantic cache hit: '{}' ~ '{}' ({})", request.text, match.key(), match.similarity());
+            if (ThreadLocalRandom.current().nextDouble() < auditRate) {
+                audit(title, year, match);
+            }
+            return Optional.of(match.value().toHit(match.similarity()));
+        } catch (CircuitBreaker.CircuitOpenException | AdaptiveConcurrencyLimiter.LimitExceededException e) {
+            // embeddings unavailable right now: answer as a miss without waiting
+            errors.increment();
+            logger.debug("Semantic cache lookup for '{}' skipped: {}", title, e.getMessage());
+            return Optional.empty();
+        } catch (RuntimeException e) {
+            errors.increment();
+            logger.warn("Semantic cache lookup for '{}' failed: {}", title, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Non-blocking wrapper around lookup; the embedding call runs on the bounded elastic scheduler
+     */
+    public Mono<Hit> lookupAsync(String title, String year) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> lookup(title, year).orElse(null))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Remember an answered request under its own text and under the movie's canonical title and year
+     * Results from another model than the primary one (hedge wins) are not stored
+     */
+    public void put(String title, String year, MovieDetailsResponse movie,
+            AIRecommendationService.AIRecommendationResult result) {
+        if (!isCacheable(movie, result)) {
+            return;
+        }
+        Entry entry = new Entry(CompactMovie.from(movie), result, movieYear(movie), Instant.now());
+        try {
+            Request request = Request.of(title, year);
+            String canonical = Request.of(movie.getTitle(), entry.year()).text;
+            if (!request.text.isEmpty() && !store.put(request.text, embed(request.text), entry)) {
+                rejected.increment();
+            }
+            if (!canonical.isEmpty() && !canonical.equals(request.text)
+                    && !store.put(canonical, embed(canonical), entry)) {
+                rejected.increment();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to add '{}' to the semantic cache: {}", title, e.getMessage());
+        }
+    }
+
+    /**
+     * Non-blocking wrapper around put
+     */
+    public void putAsync(String title, String year, MovieDetailsResponse movie,
+            AIRecommendationService.AIRecommendationResult result) {
+        if (!isCacheable(movie, result)) {
+            return;
+        }
+        Mono.fromRunnable(() -> put(title, year, movie, result))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe();
+    }
+
+    /**
+     * Resolve the request the normal way and check it names the movie the cache answered with
+     */
+    private void audit(String title, String year, BoundedVectorStore.Match<Entry> match) {
+        String cachedId = match.value().movie().getImdbId();
+        movieResolver.resolveAsync(title, year)
+                .subscribe(movie -> {
+                    if (cachedId.equals(movie.getImdbId())) {
+                        confirmed.increment();
+                        return;
+                    }
+                    falseHits.increment();
+                    store.remove(match.key());
+                    logger.warn("Semantic cache false hit: '{}' resolves to {} but matched '{}' ({}) at {}",
+                            title, movie.getImdbId(), match.key(), cachedId, match.similarity());
+                }, e -> {
+                    auditErrors.increment();
+                    logger.debug("Semantic cache audit for '{}' failed: {}", title, e.getMessage());
+                });
+    }
+
+    private boolean isCacheable(MovieDetailsResponse movie, AIRecommendationService.AIRecommendationResult result) {
+        if (!enabled || movie.getImdbId() == null || result.getRecommendations().isEmpty()) {
+            return false;
+        }
+        if (!primaryModel.equals(result.getModel())) {
+            logger.debug("Not caching {} answer for '{}'", result.getModel(), movie.getTitle());
+            return false;
+        }
+        return true;
+    }
+
+    private float[] embed(String text) {
+        return embeddings.get(text, key -> embeddingModel.embed(key));
+    }
+
+    private boolean isFresh(Entry entry) {
+        return entry.createdAt().plus(maxAge).isAfter(Instant.now());
+    }
+
+    /**
+     * Numbers in a request text, roman numerals as digits, leaving out the trailing year
+     */
+    private static Set<String> numerals(String text) {
+        Matcher trailing = TRAILING_YEAR.matcher(text);
+        String title = trailing.matches() && isPast(trailing.group(2)) ? trailing.group(1) : text;
+        Set<String> numerals = new HashSet<>();
+        for (String token : title.split(" ")) {
+            if (!token.isEmpty() && token.chars().allMatch(Character::isDigit)) {
+                numerals.add(token);
+            } else if (token.length() > 1 && ROMAN_NUMERAL.matcher(token).matches()) {
+                // single letters are left out: "i", "v" and "x" are more often words than numbers
+                numerals.add(Integer.toString(romanValue(token)));
+            }
+        }
+        return numerals;
+    }
+
+    private static int romanValue(String numeral) {
+        int value = 0;
+        int previous = 0;
+        for (int i = numeral.length() - 1; i >= 0; i--) {
+            int digit = switch (numeral.charAt(i)) {
+                case 'i' -> 1;
+                case 'v' -> 5;
+                default -> 10;
+            };
+            value += digit < previous ? -digit : digit;
+            previous = Math.max(previous, digit);
+        }
+        return value;
+    }
+
+    /**
+     * Whether a year typed after a title is a release year rather than part of the title ("blade runner 2049")
+     */
+    private static boolean isPast(String year) {
+        return Integer.parseInt(year) <= Year.now().getValue() + 1;
+    }
+
+    private static String movieYear(MovieDetailsResponse movie) {
+        String year = movie.getYear();
+        return year != null && year.length() >= 4 ? year.substring(0, 4) : null;
+    }
+
+    /**
+     * A cached answer: the source movie, its recommendations and how close the request was
+     */
+    public record Hit(MovieDetailsResponse movie, AIRecommendationService.AIRecommendationResult result,
+            double similarity) {
+    }
+
+    private record Entry(CompactMovie movie, AIRecommendationService.AIRecommendationResult result, String year,
+            Instant createdAt) {
+
+        Hit toHit(double similarity) {
+            return new Hit(movie.toDetailsResponse(), result, similarity);
+        }
+    }
+
+    /**
+     * Normalized request text; a year typed at the end of the title counts as the requested year
+     * unless it lies in the future ("blade runner 2049")
+     */
+    private record Request(String text, String year) {
+
+        static Request of(String title, String year) {
+            String normalized = TitleNormalizer.normalize(title);
+            String requestedYear = year != null && !year.isBlank() ? year.trim() : null;
+            Matcher trailing = TRAILING_YEAR.matcher(normalized);
+            if (trailing.matches() && isPast(trailing.group(2))
+                    && (requestedYear == null || requestedYear.equals(trailing.group(2)))) {
+                normalized = trailing.group(1);
+                requestedYear = trailing.group(2);
+            }
+            if (normalized.isEmpty()) {
+                return new Request("", requestedYear);
+            }
+            return new Request(requestedYear != null ? normalized + " " + requestedYear : normalized, requestedYear);
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.example.MovieFlix.service;
+
+import com.example.MovieFlix.common.HnswIndex;
+import com.example.MovieFlix.model.dto.SimilarMovie;
+import com.example.MovieFlix.model.dto.omdb.MovieDetailsResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Embedding-based "similar movies" index
+ *
+ * Each resolved movie (see MovieResolvedEvent) is described by its title,
+ * genre, director, actors and plot, embedded once with the configured
+ * EmbeddingModel, and inserted into an in-process HNSW graph. A similarity
+ * query is then a k-NN search over that graph - no chat call, no network.
+ * Inserts are batched off the caller's thread; the index is saved to disk
+ * every save-every inserts and on shutdown, and reloaded at startup unless it
+ * was built with a different embedding model or vector dimensions.
+ */
+@Component
+public class SimilarMovieIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimilarMovieIndex.class);
+
+    private static final int FILE_MAGIC = 0x4D465349; // "MFSI"
+    private static final int FILE_VERSION = 2;
+    private static final Duration BATCH_WINDOW = Duration.ofSeconds(2);
+
+    private final EmbeddingModel embeddingModel;
+    private final OmdbService omdbService;
+    private final boolean enabled;
+    private final String modelName;
+    private final int dimensions;
+    private final Path path;
+    private final int maxEntries;
+    private final int efSearch;
+    private final int saveEvery;
+    private final HnswIndex index;
+    private final ConcurrentMap<String, SimilarMovie> movies = new ConcurrentHashMap<>();
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Sinks.Many<MovieDetailsResponse> queue = Sinks.many().unicast().onBackpressureBuffer();
+    private final AtomicInteger unsaved = new AtomicInteger();
+    private final ReentrantLock saveLock = new ReentrantLock();
+    private final Timer queryTimer;
+    private final Counter embedded;
+    private final Counter embedFailures;
+    private volatile boolean fullLogged;
+
+    public SimilarMovieIndex(
+            EmbeddingModel embeddingModel,
+            OmdbService omdbService,
+            MeterRegistry meterRegistry,
+            @Value("${movies.similar.enabled:true}") boolean enabled,
+            @Value("${spring.ai.openai.embedding.options.model:text-embedding-3-small}") String modelName,
+            @Value("${spring.ai.openai.embedding.options.dimensions:0}") int dimensions,
+            @Value("${movies.similar.index-path:data/similar-movies.idx}") String path,
+            @Value("${movies.similar.max-entries:50000}") int maxEntries,
+            @Value("${movies.similar.m:16}") int m,
+            @Value("${movies.similar.ef-construction:100}") int efConstruction,
+            @Value("${movies.similar.ef-search:64}") int efSearch,
+            @Value("${movies.similar.batch-size:32}") int batchSize,
+            @Value("${movies.similar.save-every:200}") int saveEvery) {
+        this.embeddingModel = embeddingModel;
+        this.omdbService = omdbService;
+        this.enabled = enabled;
+        this.modelName = modelName;
+        this.dimensions = dimensions;
+        this.path = path != null && !path.isBlank() ? Path.of(path) : null;
+        this.maxEntries = maxEntries;
+        this.efSearch = efSearch;
+        this.saveEvery = saveEvery;
+        this.index = enabled ? load().orElseGet(() -> new HnswIndex(m, efConstruction)) : new HnswIndex(m, efConstruction);
+
+        this.queryTimer = Timer.builder("movies.similar.latency")
+                .description("k-NN query time in the similar-movie index")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.embedded = meterRegistry.counter("movies.similar.embeddings", "outcome", "success");
+        this.embedFailures = meterRegistry.counter("movies.similar.embeddings", "outcome", "failure");
+        Gauge.builder("movies.similar.index.size", index, HnswIndex::size)
+                .description("Movies in the similar-movie index")
+                .register(meterRegistry);
+
+        if (enabled) {
+            queue.asFlux()
+                    .bufferTimeout(batchSize, BATCH_WINDOW)
+                    .publishOn(Schedulers.boundedElastic())
+                    .subscribe(this::indexBatch, e -> logger.error("Similar-movie indexing stopped", e));
+        }
+    }
+
+    @EventListener
+    public void onMovieResolved(MovieResolvedEvent event) {
+        MovieDetailsResponse movie = event.getMovie();
+        if (!enabled || movie.getImdbId() == null || index.contains(movie.getImdbId()) || isFull()) {
+            return;
+        }
+        if (pending.add(movie.getImdbId())) {
+            queue.emitNext(movie, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+        }
+    }
+
+    /**
+     * Find the movies closest to the given one in embedding space
+     * An indexed movie is answered from memory; any other is looked up and embedded first
+     *
+     * @param imdbId IMDB ID of the source movie
+     * @param limit  maximum number of results
+     * @return Mono emitting similar movies, most similar first, never the source itself
+     */
+    public Mono<List<SimilarMovie>> findSimilar(String imdbId, int limit) {
+        if (!enabled) {
+            return Mono.error(new IllegalStateException("Similar-movie search is disabled"));
+        }
+        Mono<float[]> vector = index.vector(imdbId)
+                .map(Mono::just)
+                .orElseGet(() -> omdbService.getMovieDetailsAsync(imdbId)
+                        .publishOn(Schedulers.boundedElastic())
+                        .map(this::indexNow));
+        return vector.map(query -> nearest(query, imdbId, limit));
+    }
+
+    public boolean isIndexed(String imdbId) {
+        return index.contains(imdbId);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (enabled && unsaved.get() > 0) {
+            save();
+        }
+    }
+
+    private List<SimilarMovie> nearest(float[] query, String sourceId, int limit) {
+        List<HnswIndex.Neighbor> neighbors = queryTimer.record(() -> index.search(query, limit + 1, efSearch));
+        List<SimilarMovie> similar = new ArrayList<>(limit);
+        for (HnswIndex.Neighbor neighbor : neighbors) {
+            SimilarMovie movie = movies.get(neighbor.id());
+            if (movie == null || neighbor.id().equals(sourceId)) {
+                continue;
+            }
+            similar.add(new SimilarMovie(movie.getImdbId(), movie.getTitle(), movie.getYear(), movie.getGenre(),
+                    Math.round(neighbor.similarity() * 1000) / 1000.0, null));
+            if (similar.size() >= limit) {
+                break;
+            }
+        }
+        return similar;
+    }
+
+    /**
+     * Embed and insert a single movie on the caller's thread, for a query about a movie not yet indexed
+     */
+    private float[] indexNow(MovieDetailsResponse movie) {
+        float[] vector;
+        try {
+            vector = embeddingModel.embed(describe(movie));
+            embedded.increment();
+        } catch (RuntimeException e) {
+            embedFailures.increment();
+            throw new IllegalStateException("Failed to embed " + movie.getImdbId() + ": " + e.getMessage(), e);
+        }
+        if (!isFull()) {
+            insert(movie, vector);
+        }
+        return vector;
+    }
+
+    private void indexBatch(List<MovieDetailsResponse> batch) {
+        List<MovieDetailsResponse> todo = batch.stream().filter(movie -> !index.contains(movie.getImdbId())).toList();
+        try {
+            if (!todo.isEmpty() && !isFull()) {
+                List<float[]> vectors = embeddingModel.embed(todo.stream().map(SimilarMovieIndex::describe).toList());
+                for (int i = 0; i < todo.size() && !isFull(); i++) {
+                    insert(todo.get(i), vectors.get(i));
+                }
+                embedded.increment(todo.size());
+                logger.debug("Indexed {} movie(s) for similarity search, {} total", todo.size(), index.size());
+            }
+        } catch (RuntimeException e) {
+            embedFailures.increment(todo.size());
+            logger.warn("Failed to embed {} movie(s) for similarity search: {}", todo.size(), e.getMessage());
+        } finally {
+            batch.forEach(movie -> pending.remove(movie.getImdbId()));
+        }
+        if (unsaved.get() >= saveEvery) {
+            save();
+        }
+    }
+
+    private void insert(MovieDetailsResponse movie, float[] vector) {
+        // metadata first, so a saved index never holds a node without its movie
+        movies.putIfAbsent(movie.getImdbId(), new SimilarMovie(movie.getImdbId(), movie.getTitle(), movie.getYear(),
+                movie.getGenre(), 1.0, null));
+        if (index.add(movie.getImdbId(), vector)) {
+            unsaved.incrementAndGet();
+        }
+    }
+
+    private boolean isFull() {
+        if (index.size() < maxEntries) {
+            return false;
+        }
+        if (!fullLogged) {
+            fullLogged = true;
+            logger.warn("Similar-movie index is full ({} entries), new movies are not indexed", maxEntries);
+        }
+        return true;
+    }
+
+    /**
+     * The text that is embedded for a movie
+     */
+    static String describe(MovieDetailsResponse movie) {
+        StringBuilder text = new StringBuilder(512);
+        text.append("Title: ").append(movie.getTitle());
+        if (movie.getYear() != null) {
+            text.append(" (").append(movie.getYear()).append(')');
+        }
+        appendField(text, "Genre", movie.getGenre());
+        appendField(text, "Director", movie.getDirector());
+        appendField(text, "Actors", movie.getActors());
+        appendField(text, "Plot", movie.getPlot());
+        return text.toString();
+    }
+
+    private static void appendField(StringBuilder text, String name, String value) {
+        if (value != null && !value.isBlank() && !"N/A".equals(value)) {
+            text.append('\n').append(name).append(": ").append(value);
+        }
+    }
+
+    /**
+     * Write the index to a temporary file and move it into place, so a crash mid-save keeps the previous file
+     */
+    private void save() {
+        if (path == null) {
+            return;
+        }
+        saveLock.lock();
+        try {
+            int saving = unsaved.getAndSet(0);
+            try {
+                // snapshot the graph before the metadata: every saved node then has its movie
+                ByteArrayOutputStream graph = new ByteArrayOutputStream();
+                index.writeTo(new DataOutputStream(graph));
+                Map<String, SimilarMovie> snapshot = Map.copyOf(movies);
+
+                Path absolute = path.toAbsolutePath();
+                Files.createDirectories(absolute.getParent());
+                Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+                try (OutputStream file = Files.newOutputStream(temp);
+                     DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+                    out.writeInt(FILE_MAGIC);
+                    out.writeInt(FILE_VERSION);
+                    out.writeUTF(modelName);
+                    out.writeInt(dimensions);
+                    out.writeInt(snapshot.size());
+                    for (SimilarMovie movie : snapshot.values()) {
+                        out.writeUTF(movie.getImdbId());
+                        writeNullable(out, movie.getTitle());
+                        writeNullable(out, movie.getYear());
+                        writeNullable(out, movie.getGenre());
+                    }
+                    graph.writeTo(out);
+                }
+                Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                logger.info("Saved similar-movie index ({} movies) to {}", snapshot.size(), absolute);
+            } catch (IOException | RuntimeException e) {
+                unsaved.addAndGet(saving);
+                logger.warn("Failed to save similar-movie index to {}: {}", path, e.getMessage());
+            }
+        } finally {
+            saveLock.unlock();
+        }
+    }
+
+    private Optional<HnswIndex> load() {
+        if (path == null || !Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try (InputStream file = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                logger.warn("Ignoring {}: not a similar-movie index of version {}", path, FILE_VERSION);
+                return Optional.empty();
+            }
+            String savedModel = in.readUTF();
+            int savedDimensions = in.readInt();
+            if (!savedModel.equals(modelName) || savedDimensions != dimensions) {
+                // vectors of another model or length cannot be compared with new ones
+                logger.warn("Ignoring {}: built with embedding model {} ({} dimensions), configured is {} ({})",
+                        path, savedModel, savedDimensions, modelName, dimensions);
+                return Optional.empty();
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String imdbId = in.readUTF();
+                movies.put(imdbId, new SimilarMovie(imdbId, readNullable(in), readNullable(in), readNullable(in),
+                        1.0, null));
+            }
+            HnswIndex loaded = HnswIndex.readFrom(in);
+            logger.info("Loaded similar-movie index ({} movies) from {}", loaded.size(), path);
+            return Optional.of(loaded);
+        } catch (IOException | RuntimeException e) {
+            movies.clear();
+            logger.warn("Failed to load similar-movie index from {}, starting empty: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.MovieFlix.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Incremental parser for the free-text (MOVIE:/REASON:) recommendation format
+ *
+ * Fed the completion chunk by chunk. Text before the first "MOVIE:" is
+ * passed through as vibe events as soon as it arrives. After that the input
+ * is read line by line, and a recommendation is emitted once its entry is
+ * closed: by the next MOVIE: line, a blank line after its REASON:, or the
+ * end of the stream. A MOVIE: without a REASON: yields an empty reason.
+ * Not thread-safe; use one instance per stream.
+ */
+final class TextRecommendationStreamParser implements RecommendationStreamParser {
+
+    private static final String MOVIE_MARKER = "MOVIE:";
+    private static final Pattern MOVIE_LINE = Pattern.compile("MOVIE:\\s*(.+?)\\s*\\((\\d{4})\\)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern REASON_LINE = Pattern.compile("^\\s*REASON:\\s*(.*)$", Pattern.CASE_INSENSITIVE);
+
+    private final StringBuilder pending = new StringBuilder();
+    private final StringBuilder vibe = new StringBuilder();
+    private final List<AIRecommendationService.MovieRecommendation> recommendations = new ArrayList<>();
+    private boolean inRecommendations;
+    private String movieTitle;
+    private String movieYear;
+    private StringBuilder reason;
+
+    @Override
+    public List<Event> feed(String chunk) {
+        List<Event> events = new ArrayList<>(2);
+        pending.append(chunk);
+        if (!inRecommendations) {
+            int marker = pending.indexOf(MOVIE_MARKER);
+            // hold back a possible partial marker at the end of the chunk
+            int vibeEnd = marker >= 0 ? marker : Math.max(0, pending.length() - (MOVIE_MARKER.length() - 1));
+            emitVibe(vibeEnd, events);
+            if (marker < 0) {
+                return events;
+            }
+            inRecommendations = true;
+        }
+        int newline;
+        while ((newline = pending.indexOf("\n")) >= 0) {
+            String line = pending.substring(0, newline);
+            pending.delete(0, newline + 1);
+            acceptLine(line, events);
+        }
+        return events;
+    }
+
+    @Override
+    public List<Event> finish() {
+        List<Event> events = new ArrayList<>(3);
+        if (!inRecommendations) {
+            emitVibe(pending.length(), events);
+        } else if (!pending.isEmpty()) {
+            acceptLine(pending.toString(), events);
+            pending.setLength(0);
+        }
+        closeMovie(events);
+        events.add(RecommendationStreamParser.done(recommendations.size()));
+        return events;
+    }
+
+    @Override
+    public AIRecommendationService.AIRecommendationResult result(String sourceTitle) {
+        String text = vibe.toString().trim();
+        return new AIRecommendationService.AIRecommendationResult(sourceTitle,
+                inRecommendations && !text.isEmpty() ? text : NO_VIBE, List.copyOf(recommendations));
+    }
+
+    private void emitVibe(int end, List<Event> events) {
+        if (end <= 0) {
+            return;
+        }
+        String text = pending.substring(0, end);
+        pending.delete(0, end);
+        vibe.append(text);
+        events.add(new Event(VIBE, text));
+    }
+
+    private void acceptLine(String line, List<Event> events) {
+        Matcher movie = MOVIE_LINE.matcher(line);
+        if (movie.find()) {
+            closeMovie(events);
+            movieTitle = movie.group(1).trim().replaceAll("^\"|\"$", "");
+            movieYear = movie.group(2);
+            return;
+        }
+        Matcher reasonLine = REASON_LINE.matcher(line);
+        if (reasonLine.find()) {
+            reason = new StringBuilder(reasonLine.group(1).trim());
+        } else if (line.isBlank()) {
+            if (reason != null) {
+                closeMovie(events);
+            }
+        } else if (reason != null) {
+            reason.append(' ').append(line.trim());
+        }
+    }
+
+    private void closeMovie(List<Event> events) {
+        if (movieTitle == null) {
+            return;
+        }
+        AIRecommendationService.MovieRecommendation recommendation = new AIRecommendationService.MovieRecommendation(
+                movieTitle, movieYear, reason != null ? reason.toString().trim() : "");
+        recommendations.add(recommendation);
+        events.add(new Event(RECOMMENDATION, recommendation));
+        movieTitle = null;
+        movieYear = null;
+        reason = null;
+    }
+}
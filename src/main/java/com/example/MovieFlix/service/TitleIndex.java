@@ -0,0 +1,280 @@
+package com.example.MovieFlix.service;
+
+import com.example.MovieFlix.common.TitleNormalizer;
+import com.example.MovieFlix.model.dto.TitleSuggestion;
+import com.example.MovieFlix.model.dto.omdb.MovieDetailsResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory title index for autocomplete and typo-tolerant title resolution
+ *
+ * Built from movies we have already resolved (see MovieResolvedEvent). A
+ * sorted map over every word-suffix of the normalized title answers prefix
+ * queries; a trigram inverted index answers fuzzy queries ranked by Dice
+ * similarity. Both are read without locks.
+ */
+@Component
+public class TitleIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TitleIndex.class);
+
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final int MAX_INDEXED_WORDS = 8;
+
+    private final int maxEntries;
+    private final int maxPostings;
+    private final double minSimilarity;
+
+    private final ConcurrentMap<String, Entry> byId = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<String, Entry> prefixes = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, Set<Entry>> trigrams = new ConcurrentHashMap<>();
+    private final Timer suggestTimer;
+    private volatile boolean fullLogged;
+
+    public TitleIndex(
+            MeterRegistry meterRegistry,
+            @Value("${movies.title-index.max-entries:200000}") int maxEntries,
+            @Value("${movies.title-index.max-postings:20000}") int maxPostings,
+            @Value("${movies.title-index.min-similarity:0.45}") double minSimilarity) {
+        this.maxEntries = maxEntries;
+        this.maxPostings = maxPostings;
+        this.minSimilarity = minSimilarity;
+        this.suggestTimer = Timer.builder("movies.suggest.latency")
+                .description("Title suggestion lookup time")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("movies.title-index.size", byId, Map::size)
+                .description("Titles in the suggestion index")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onMovieResolved(MovieResolvedEvent event) {
+        add(event.getMovie());
+    }
+
+    /**
+     * Add a resolved movie to the index; no-op if it is already indexed or the index is full
+     */
+    public void add(MovieDetailsResponse movie) {
+        if (movie.getImdbId() == null || movie.getTitle() == null || byId.containsKey(movie.getImdbId())) {
+            return;
+        }
+        if (byId.size() >= maxEntries) {
+            if (!fullLogged) {
+                fullLogged = true;
+                logger.warn("Title index is full ({} entries), new titles are not indexed", maxEntries);
+            }
+            return;
+        }
+        String normalized = TitleNormalizer.normalize(movie.getTitle());
+        if (normalized.isEmpty()) {
+            return;
+        }
+        Set<String> grams = trigramsOf(normalized);
+        Integer votes = CatalogService.parseVotes(movie.getImdbVotes());
+        Entry entry = new Entry(movie.getImdbId(), movie.getTitle(), movie.getYear(), normalized,
+                votes != null ? votes : 0, grams.size());
+        if (byId.putIfAbsent(entry.imdbId, entry) != null) {
+            return;
+        }
+
+        int wordStart = 0;
+        for (int word = 0; word < MAX_INDEXED_WORDS && wordStart >= 0; word++) {
+            prefixes.put(normalized.substring(wordStart) + KEY_SEPARATOR + entry.imdbId, entry);
+            int space = normalized.indexOf(' ', wordStart);
+            wordStart = space < 0 ? -1 : space + 1;
+        }
+        for (String gram : grams) {
+            trigrams.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(entry);
+        }
+    }
+
+    /**
+     * Suggest titles for a partial or misspelled query
+     * Prefix matches (of the title or any word in it) come first, then fuzzy matches
+     *
+     * @param query the user's input
+     * @param limit maximum number of suggestions
+     * @return suggestions, best first
+     */
+    public List<TitleSuggestion> suggest(String query, int limit) {
+        return suggestTimer.record(() -> {
+            String normalized = TitleNormalizer.normalize(query);
+            if (normalized.isEmpty() || limit <= 0) {
+                return List.<TitleSuggestion>of();
+            }
+
+            Map<String, TitleSuggestion> results = new LinkedHashMap<>();
+            for (Entry entry : prefixMatches(normalized, limit)) {
+                double score = entry.normalized.startsWith(normalized) ? 1.0 : 0.9;
+                results.putIfAbsent(entry.imdbId, entry.toSuggestion(score));
+            }
+            if (results.size() < limit) {
+                for (Scored scored : fuzzyMatches(normalized, limit)) {
+                    if (results.size() >= limit) {
+                        break;
+                    }
+                    results.putIfAbsent(scored.entry.imdbId, scored.entry.toSuggestion(scored.similarity));
+                }
+            }
+            return new ArrayList<>(results.values());
+        });
+    }
+
+    /**
+     * Find an indexed movie whose normalized title equals the given title
+     * If several match, the one with the requested year, then the most voted, wins
+     */
+    public Optional<Entry> findExact(String title, String year) {
+        String normalized = TitleNormalizer.normalize(title);
+        if (normalized.isEmpty()) {
+            return Optional.empty();
+        }
+        return prefixes.subMap(normalized + KEY_SEPARATOR, normalized + (char) (KEY_SEPARATOR + 1))
+                .values().stream()
+                .filter(entry -> entry.normalized.equals(normalized))
+                .filter(entry -> year == null || year.isBlank() || year.trim().equals(entry.year))
+                .max(Comparator.comparingInt(entry -> entry.votes));
+    }
+
+    /**
+     * Map a misspelled title to the closest indexed movie
+     *
+     * @param title     the user's input
+     * @param year      optional year; candidates from other years are ignored when given
+     * @param threshold minimum Dice similarity over trigrams
+     * @return the best match above the threshold, if any
+     */
+    public Optional<Entry> findClosest(String title, String year, double threshold) {
+        String normalized = TitleNormalizer.normalize(title);
+        if (normalized.isEmpty()) {
+            return Optional.empty();
+        }
+        return fuzzyMatches(normalized, 8).stream()
+                .filter(scored -> scored.similarity >= threshold)
+                .filter(scored -> year == null || year.isBlank() || year.trim().equals(scored.entry.year))
+                .map(scored -> scored.entry)
+                .findFirst();
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private List<Entry> prefixMatches(String prefix, int limit) {
+        List<Entry> matches = new ArrayList<>();
+        Set<String> seen = new LinkedHashSet<>();
+        int scanLimit = limit * 8;
+        for (Entry entry : prefixes.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+            if (seen.add(entry.imdbId)) {
+                matches.add(entry);
+            }
+            if (seen.size() >= scanLimit) {
+                break;
+            }
+        }
+        matches.sort(Comparator.<Entry, Boolean>comparing(entry -> !entry.normalized.startsWith(prefix))
+                .thenComparing(Comparator.comparingInt((Entry entry) -> entry.votes).reversed()));
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    private List<Scored> fuzzyMatches(String normalized, int limit) {
+        Set<String> grams = trigramsOf(normalized);
+        Map<Entry, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            Set<Entry> posting = trigrams.get(gram);
+            if (posting == null || posting.size() > maxPostings) {
+                continue;
+            }
+            for (Entry entry : posting) {
+                shared.merge(entry, 1, Integer::sum);
+            }
+        }
+
+        List<Scored> scored = new ArrayList<>();
+        for (Map.Entry<Entry, Integer> candidate : shared.entrySet()) {
+            Entry entry = candidate.getKey();
+            double similarity = 2.0 * candidate.getValue() / (grams.size() + entry.trigramCount);
+            if (similarity >= minSimilarity) {
+                scored.add(new Scored(entry, similarity));
+            }
+        }
+        scored.sort(Comparator.comparingDouble((Scored s) -> s.similarity).reversed()
+                .thenComparing(Comparator.comparingInt((Scored s) -> s.entry.votes).reversed()));
+        return scored.size() > limit ? scored.subList(0, limit) : scored;
+    }
+
+    /**
+     * Distinct trigrams of the title padded with two leading and one trailing space
+     */
+    private static Set<String> trigramsOf(String normalized) {
+        String padded = "  " + normalized + " ";
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private record Scored(Entry entry, double similarity) {
+    }
+
+    /**
+     * An indexed movie title
+     */
+    public static final class Entry {
+        private final String imdbId;
+        private final String title;
+        private final String year;
+        private final String normalized;
+        private final int votes;
+        private final int trigramCount;
+
+        Entry(String imdbId, String title, String year, String normalized, int votes, int trigramCount) {
+            this.imdbId = imdbId;
+            this.title = title;
+            this.year = year;
+            this.normalized = normalized;
+            this.votes = votes;
+            this.trigramCount = trigramCount;
+        }
+
+        public String getImdbId() {
+            return imdbId;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getYear() {
+            return year;
+        }
+
+        TitleSuggestion toSuggestion(double score) {
+            return new TitleSuggestion(imdbId, title, year, score);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.MovieFlix.service;
+
+import com.example.MovieFlix.common.HeavyHitters;
+import com.example.MovieFlix.common.TitleNormalizer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * How often each title is asked for, across recommendation and search requests
+ *
+ * Titles are keyed by their normalized form without a trailing year, so
+ * "Inception", "inception 2010" and "INCEPTION!" count as one title. Counts
+ * decay (see HeavyHitters), so the top list reflects recent demand.
+ */
+@Component
+public class TitlePopularity {
+
+    private static final Pattern TRAILING_YEAR = Pattern.compile("^(.*\\S)\\s+(?:19|20)\\d{2}$");
+
+    private final HeavyHitters sketch;
+
+    public TitlePopularity(
+            MeterRegistry meterRegistry,
+            @Value("${recommendations.popularity.width:16384}") int width,
+            @Value("${recommendations.popularity.top-k:50}") int topK,
+            @Value("${recommendations.popularity.sample-size:160000}") long sampleSize) {
+        this.sketch = new HeavyHitters(width, topK, sampleSize);
+        Gauge.builder("recommendations.popularity.sample", sketch, HeavyHitters::getAdditions)
+                .description("Requests counted since popularity counts were last halved")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Count a request for title
+     */
+    public void record(String title) {
+        String key = key(title);
+        if (!key.isEmpty()) {
+            sketch.record(key);
+        }
+    }
+
+    /**
+     * Estimated recent requests for title
+     */
+    public int frequency(String title) {
+        String key = key(title);
+        return key.isEmpty() ? 0 : sketch.estimate(key);
+    }
+
+    /**
+     * The most requested titles, most requested first
+     */
+    public List<HeavyHitters.Entry> top() {
+        return sketch.top();
+    }
+
+    static String key(String title) {
+        String normalized = TitleNormalizer.normalize(title);
+        Matcher trailing = TRAILING_YEAR.matcher(normalized);
+        return trailing.matches() ? trailing.group(1) : normalized;
+    }
+}
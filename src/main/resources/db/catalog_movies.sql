@@ -0,0 +1,23 @@
+-- Local movie catalog (CatalogMovie); idempotent, run at startup by spring.sql.init in the prod profile
+-- The primary key on imdb_id is what CatalogImportService's ON DUPLICATE KEY UPDATE upserts against
+CREATE TABLE IF NOT EXISTS catalog_movies (
+    imdb_id          VARCHAR(16)   NOT NULL,
+    title            VARCHAR(512)  NOT NULL,
+    normalized_title VARCHAR(255)  NOT NULL,
+    release_year     VARCHAR(16),
+    type             VARCHAR(32),
+    rated            VARCHAR(16),
+    runtime          VARCHAR(32),
+    genre            VARCHAR(255),
+    director         VARCHAR(512),
+    actors           VARCHAR(1024),
+    plot             TEXT,
+    language         VARCHAR(255),
+    country          VARCHAR(255),
+    poster           VARCHAR(1024),
+    imdb_rating      VARCHAR(8),
+    imdb_votes       INT,
+    updated_at       DATETIME(6)   NOT NULL,
+    PRIMARY KEY (imdb_id),
+    INDEX idx_catalog_title_year (normalized_title, release_year)
+);
@@ -0,0 +1,8 @@
+-- Persisted AI recommendation results (CachedRecommendation); idempotent, run at startup in the prod profile
+CREATE TABLE IF NOT EXISTS recommendation_cache (
+    cache_key    VARCHAR(191) NOT NULL,
+    imdb_id      VARCHAR(16)  NOT NULL,
+    result_json  TEXT         NOT NULL,
+    generated_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (cache_key)
+);
@@ -0,0 +1,98 @@
+package com.example.MovieFlix.benchmark;
+
+import com.example.MovieFlix.model.dto.omdb.MovieDetailsResponse;
+import com.example.MovieFlix.service.CompactMovie;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Retained heap of 100k cached movies: full OMDB responses versus CompactMovie records
+ *
+ * Movies are synthetic but shaped like real OMDB answers: every field is
+ * present, low-cardinality fields repeat, plots are a few hundred characters.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class MovieFootprintBenchmark {
+
+    private static final int MOVIES = 100_000;
+    private static final String[] GENRES = {"Drama", "Comedy", "Action, Adventure, Sci-Fi", "Crime, Drama",
+            "Horror, Thriller", "Animation, Adventure, Comedy", "Documentary", "Drama, Romance"};
+    private static final String[] LANGUAGES = {"English", "English, Spanish", "French", "Japanese", "Hindi"};
+    private static final String[] COUNTRIES = {"United States", "United Kingdom", "France", "Japan", "India"};
+    private static final String[] RATED = {"G", "PG", "PG-13", "R", "Not Rated", "TV-MA"};
+    private static final String[] WORDS = ("a young the man woman city war family secret must find his her "
+            + "world after when their journey love past dark finds life an unlikely friendship team "
+            + "against time struggles truth small town mysterious").split(" ");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void heapPerHundredThousandMovies() throws Exception {
+        long fullBytes = measure(false);
+        long compactBytes = measure(true);
+
+        System.out.printf("Retained heap per %,d movies: MovieDetailsResponse %.1f MB (%d B/movie), "
+                        + "CompactMovie %.1f MB (%d B/movie), %.0f%% saved%n",
+                MOVIES, fullBytes / 1e6, fullBytes / MOVIES, compactBytes / 1e6, compactBytes / MOVIES,
+                100.0 * (fullBytes - compactBytes) / fullBytes);
+        assertTrue(compactBytes < fullBytes);
+    }
+
+    private long measure(boolean compact) throws Exception {
+        Random random = new Random(42);
+        Object[] retained = new Object[MOVIES];
+        long before = usedHeap();
+        for (int i = 0; i < MOVIES; i++) {
+            MovieDetailsResponse movie = objectMapper.readValue(movieJson(random, i), MovieDetailsResponse.class);
+            retained[i] = compact ? CompactMovie.from(movie) : movie;
+        }
+        long after = usedHeap();
+        if (retained[MOVIES - 1] == null) {
+            throw new IllegalStateException();
+        }
+        return after - before;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static String movieJson(Random random, int i) {
+        String imdbId = "tt%07d".formatted(i);
+        int year = 1950 + random.nextInt(75);
+        String rating = (10 + random.nextInt(90)) / 10 + "." + random.nextInt(10);
+        int metascore = random.nextInt(101);
+        StringBuilder plot = new StringBuilder();
+        int plotWords = 60 + random.nextInt(100);
+        for (int w = 0; w < plotWords; w++) {
+            plot.append(w == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return """
+                {"Title":"Movie Title %d","Year":"%d","Rated":"%s","Released":"%02d Jan %d","Runtime":"%d min",
+                 "Genre":"%s","Director":"Director %d","Writer":"Writer %d, Writer %d",
+                 "Actors":"Actor %d, Actor %d, Actor %d","Plot":"%s.","Language":"%s","Country":"%s",
+                 "Awards":"%d wins & %d nominations","Poster":"https://m.media-amazon.com/images/M/MV5B%s@._V1_SX300.jpg",
+                 "Ratings":[{"Source":"Internet Movie Database","Value":"%s/10"},
+                            {"Source":"Rotten Tomatoes","Value":"%d%%"},{"Source":"Metacritic","Value":"%d/100"}],
+                 "Metascore":"%d","imdbRating":"%s","imdbVotes":"%,d","imdbID":"%s","Type":"movie","DVD":"N/A",
+                 "BoxOffice":"$%,d","Production":"N/A","Website":"N/A","Response":"True"}
+                """.formatted(i, year, RATED[random.nextInt(RATED.length)], 1 + random.nextInt(28), year,
+                80 + random.nextInt(100), GENRES[random.nextInt(GENRES.length)], random.nextInt(20_000),
+                random.nextInt(40_000), random.nextInt(40_000), random.nextInt(200_000), random.nextInt(200_000),
+                random.nextInt(200_000), plot, LANGUAGES[random.nextInt(LANGUAGES.length)],
+                COUNTRIES[random.nextInt(COUNTRIES.length)], random.nextInt(50), random.nextInt(100),
+                Long.toHexString(random.nextLong()), rating, random.nextInt(101), metascore, metascore, rating,
+                random.nextInt(3_000_000), imdbId, random.nextInt(300_000_000));
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.MovieFlix.benchmark;
+
+import com.example.MovieFlix.model.dto.omdb.MovieDetailsResponse;
+import com.example.MovieFlix.service.AIRecommendationService;
+import com.example.MovieFlix.service.PromptBudget;
+import com.example.MovieFlix.service.RecommendationCache;
+import com.example.MovieFlix.support.LenientGuards;
+import com.example.MovieFlix.support.StubChatModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prompt tokens and call latency with and without per-field token budgets
+ *
+ * Recommendations are generated for every record of an OMDB corpus (one
+ * detail response per line; defaults to the bundled omdb-sample.jsonl, pass
+ * -Domdb.corpus=path for a larger dump). The stub model charges a fixed
+ * overhead plus a prefill cost per prompt token, so latency follows the
+ * prompt size; the per-token cost is an assumption, the token counts are not.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class PromptBudgetBenchmark {
+
+    private static final Duration CALL_OVERHEAD = Duration.ofMillis(300);
+    private static final double MILLIS_PER_PROMPT_TOKEN = 0.5;
+
+    @Test
+    void budgetedPromptsAreSmallerAndFaster() throws IOException {
+        List<MovieDetailsResponse> corpus = loadCorpus();
+        Result unbudgeted = run("unbudgeted", corpus,
+                new PromptBudget(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE));
+        Result budgeted = run("budgeted", corpus, new PromptBudget(120, 4, 2, 3));
+
+        System.out.printf("%d movies: %.1f%% fewer prompt tokens, %.1f%% lower mean latency%n", corpus.size(),
+                100.0 * (unbudgeted.promptTokens - budgeted.promptTokens) / unbudgeted.promptTokens,
+                100.0 * (unbudgeted.millis - budgeted.millis) / unbudgeted.millis);
+        assertTrue(budgeted.promptTokens < unbudgeted.promptTokens);
+    }
+
+    private static Result run(String label, List<MovieDetailsResponse> corpus, PromptBudget budget) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PrefillChatModel chatModel = new PrefillChatModel(budget);
+        RecommendationCache noCache = new RecommendationCache(null, new ObjectMapper(), budget, registry, false,
+                Duration.ofDays(7), Duration.ofDays(90), 1000, "gpt-4", 0.7, "text");
+        AIRecommendationService service = new AIRecommendationService(chatModel,
+                LenientGuards.breaker("openai"), LenientGuards.bulkhead("openai"), noCache, budget, registry,
+                "text", false, Duration.ZERO, 1, 1, Duration.ZERO, "gpt-4", false, null, 0, Duration.ZERO,
+                Duration.ZERO);
+
+        long start = System.nanoTime();
+        for (MovieDetailsResponse movie : corpus) {
+            service.getRecommendations(movie);
+        }
+        double meanMillis = (System.nanoTime() - start) / 1_000_000.0 / corpus.size();
+
+        long tokens = chatModel.promptTokens.get();
+        System.out.printf("%-11s %6d prompt tokens (%5.1f per movie, max %4d), mean latency %6.1f ms%n",
+                label, tokens, (double) tokens / corpus.size(), chatModel.maxPromptTokens.get(), meanMillis);
+        return new Result(tokens, meanMillis);
+    }
+
+    private static List<MovieDetailsResponse> loadCorpus() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        String path = System.getProperty("omdb.corpus");
+        try (InputStream in = path != null
+                ? Files.newInputStream(Path.of(path))
+                : PromptBudgetBenchmark.class.getResourceAsStream("/omdb-sample.jsonl");
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            List<MovieDetailsResponse> corpus = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    corpus.add(objectMapper.readValue(line, MovieDetailsResponse.class));
+                }
+            }
+            return corpus;
+        }
+    }
+
+    private record Result(long promptTokens, double millis) {
+    }
+
+    /**
+     * Sleeps for the call overhead plus prefill time for the prompt's tokens, then answers with the stub text
+     */
+    private static final class PrefillChatModel implements ChatModel {
+
+        private final PromptBudget tokenizer;
+        private final AtomicLong promptTokens = new AtomicLong();
+        private final AtomicLong maxPromptTokens = new AtomicLong();
+
+        private PrefillChatModel(PromptBudget tokenizer) {
+            this.tokenizer = tokenizer;
+        }
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            int tokens = tokenizer.count(prompt.getContents());
+            promptTokens.addAndGet(tokens);
+            maxPromptTokens.accumulateAndGet(tokens, Math::max);
+            try {
+                Thread.sleep(CALL_OVERHEAD.toMillis() + Math.round(tokens * MILLIS_PER_PROMPT_TOKEN));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted", e);
+            }
+            return new ChatResponse(List.of(new Generation(StubChatModel.DEFAULT_RESPONSE)));
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            return Flux.just(call(prompt));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.MovieFlix.benchmark;
+
+import com.example.MovieFlix.security.RateLimitFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cost of the rate limit filter per request
+ *
+ * Requests for /api/recommendations are spread over 10,000 client IPs, with
+ * the configured cost rules, from 1 and from 8 threads after a warm-up pass.
+ * "baseline" calls the same empty filter chain without the rate limiter,
+ * "limited" goes through it with buckets large enough that nothing is
+ * refused (the common case), "refusing" with one-token buckets so every
+ * request after the first per client gets a 429. Reported is the mean wall
+ * time per request; the difference to baseline is the filter's overhead.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class RateLimitBenchmark {
+
+    private static final int CLIENTS = 10_000;
+    private static final int REQUESTS_PER_THREAD = 1_000_000;
+    private static final int THREADS = 8;
+    private static final String COSTS = "/actuator/health/**=0,POST /api/recommendations/jobs=20,"
+            + "/api/recommendations/jobs/**=1,/api/recommendations/**=20,/api/movies/*/similar=5,/api/search=5";
+
+    private static final FilterChain EMPTY_CHAIN = (request, response) -> {
+    };
+
+    @Test
+    void filterOverheadIsNegligible() throws Exception {
+        Filter baseline = (request, response, chain) -> chain.doFilter(request, response);
+        Filter limited = filter(Integer.MAX_VALUE / 2, 1_000_000);
+        Filter refusing = filter(20, 0.001);
+
+        run("baseline", baseline, 1);
+        run("baseline", baseline, THREADS);
+        double limitedNanos = run("limited", limited, 1);
+        run("limited", limited, THREADS);
+        run("refusing", refusing, 1);
+        run("refusing", refusing, THREADS);
+
+        assertTrue(limitedNanos < 5_000, "rate limit check should take microseconds at most");
+    }
+
+    private static RateLimitFilter filter(int capacity, double refillPerSecond) {
+        return new RateLimitFilter(new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(), true,
+                capacity, refillPerSecond, CLIENTS * 2, Duration.ofMinutes(10), COSTS);
+    }
+
+    private static double run(String label, Filter filter, int threads) throws Exception {
+        timed(filter, threads);
+        double nanos = timed(filter, threads);
+        System.out.printf("%-9s %d thread(s): %7.1f ns per request%n", label, threads, nanos);
+        return nanos;
+    }
+
+    /**
+     * Mean wall time per request while each thread sends REQUESTS_PER_THREAD requests
+     */
+    private static double timed(Filter filter, int threads) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        for (int t = 0; t < threads; t++) {
+            MockHttpServletRequest[] requests = new MockHttpServletRequest[CLIENTS];
+            for (int c = 0; c < CLIENTS; c++) {
+                requests[c] = new MockHttpServletRequest("GET", "/api/recommendations");
+                requests[c].setRemoteAddr("10." + (c >> 16) + "." + ((c >> 8) & 255) + "." + (c & 255));
+            }
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                        // A fresh response keeps refused bodies from accumulating
+                        filter.doFilter(requests[i % CLIENTS], new MockHttpServletResponse(), EMPTY_CHAIN);
+                    }
+                } catch (Exception e) {
+                    failure.set(e);
+                } finally {
+                    done.countDown();
+                }
+            });
+            worker.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return (double) (System.nanoTime() - begin) / ((long) REQUESTS_PER_THREAD * threads);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.MovieFlix.benchmark;
+
+import com.example.MovieFlix.model.dto.omdb.MovieDetailsResponse;
+import com.example.MovieFlix.service.AIRecommendationService;
+import com.example.MovieFlix.service.PromptBudget;
+import com.example.MovieFlix.service.RecommendationCache;
+import com.example.MovieFlix.support.LenientGuards;
+import com.example.MovieFlix.support.StubChatModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput and latency of recommendation calls with and without micro-batching
+ *
+ * The stub model allows 4 concurrent calls (a rate-limit slot each) and
+ * charges a fixed per-call overhead plus generation time per movie answered,
+ * so a batch of 8 is slower than one call but much cheaper than 8. Two
+ * arrival rates are measured: light load, where batching can only add the
+ * window, and peak load, where it multiplies capacity.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class RecommendationBatchingBenchmark {
+
+    private static final Duration CALL_OVERHEAD = Duration.ofMillis(400);
+    private static final Duration PER_ANSWER = Duration.ofMillis(150);
+    private static final int UPSTREAM_SLOTS = 4;
+    private static final Duration WINDOW = Duration.ofMillis(50);
+    private static final int MAX_BATCH = 8;
+
+    @Test
+    void batchingThroughputVersusLatency() {
+        run("light load, unbatched", false, 16, Duration.ofMillis(300));
+        run("light load, batched", true, 16, Duration.ofMillis(300));
+        run("peak load, unbatched", false, 64, Duration.ofMillis(10));
+        run("peak load, batched", true, 64, Duration.ofMillis(10));
+    }
+
+    private static void run(String label, boolean batching, int requests, Duration arrivalGap) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateLimitedChatModel chatModel = new RateLimitedChatModel();
+        RecommendationCache noCache = new RecommendationCache(null, new ObjectMapper(), new PromptBudget(120, 4, 2, 3),
+                registry, false, Duration.ofDays(7), Duration.ofDays(90), 1000, "gpt-4", 0.7, "text");
+        AIRecommendationService service = new AIRecommendationService(chatModel,
+                LenientGuards.breaker("openai"), LenientGuards.bulkhead("openai"), noCache,
+                new PromptBudget(120, 4, 2, 3), registry, "text", batching, WINDOW, MAX_BATCH, UPSTREAM_SLOTS,
+                Duration.ofMinutes(1), "gpt-4", false, null, 0, Duration.ZERO, Duration.ZERO);
+
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        long start = System.nanoTime();
+        Long answered = Flux.range(0, requests)
+                .delayElements(arrivalGap)
+                .flatMap(i -> {
+                    long requested = System.nanoTime();
+                    return service.getRecommendationsAsync(movie(i))
+                            .doOnNext(result -> latencies.add((System.nanoTime() - requested) / 1_000_000));
+                }, requests)
+                .count()
+                .block(Duration.ofMinutes(2));
+        long totalMillis = (System.nanoTime() - start) / 1_000_000;
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        System.out.printf("%-22s %3d requests in %5d ms (%5.1f req/s), %2d upstream calls, latency p50 %5d ms, p99 %5d ms%n",
+                label, requests, totalMillis, requests * 1000.0 / totalMillis, chatModel.calls.get(),
+                sorted.get(sorted.size() / 2), sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1));
+        assertEquals(requests, answered);
+    }
+
+    private static MovieDetailsResponse movie(int i) {
+        MovieDetailsResponse movie = new MovieDetailsResponse();
+        movie.setImdbId(String.format("tt%07d", i));
+        movie.setTitle("Movie " + i);
+        movie.setYear("2000");
+        movie.setGenre("Drama");
+        movie.setPlot("Plot of movie " + i + ".");
+        return movie;
+    }
+
+    /**
+     * Answers single prompts with the text stub answer and batched prompts with one compact answer per movie
+     */
+    private static final class RateLimitedChatModel implements ChatModel {
+
+        private static final Pattern BATCH_ENTRY = Pattern.compile("(?m)^\\d+\\. Movie: ");
+
+        private final Semaphore slots = new Semaphore(UPSTREAM_SLOTS, true);
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            String text = prompt.getContents();
+            int answers = 0;
+            Matcher entries = BATCH_ENTRY.matcher(text);
+            while (entries.find()) {
+                answers++;
+            }
+            String response = answers == 0 ? StubChatModel.DEFAULT_RESPONSE : batchResponse(answers);
+            try {
+                slots.acquire();
+                try {
+                    calls.incrementAndGet();
+                    Thread.sleep(CALL_OVERHEAD.toMillis() + PER_ANSWER.toMillis() * Math.max(1, answers));
+                } finally {
+                    slots.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted", e);
+            }
+            return new ChatResponse(List.of(new Generation(response)));
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            return Mono.fromCallable(() -> call(prompt)).subscribeOn(Schedulers.boundedElastic()).flux();
+        }
+
+        private static String batchResponse(int answers) {
+            StringBuilder json = new StringBuilder("{");
+            for (int i = 1; i <= answers; i++) {
+                json.append(i > 1 ? "," : "").append('"').append(i).append("\":").append(StubChatModel.COMPACT_RESPONSE);
+            }
+            return json.append('}').toString();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.MovieFlix.benchmark;
+
+import com.example.MovieFlix.support.StubChatModel;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Output tokens of recommendation answers in the text and compact JSON formats
+ *
+ * TYPICAL_TEXT_RESPONSE is shaped like what GPT-4 returns for the free-text
+ * prompt (headings, bullet points, two-sentence reasons); the stub samples
+ * carry the same content in minimal text and in compact JSON. Generation
+ * time is dominated by output tokens, so the estimate uses a fixed per-token
+ * decode time typical of GPT-4.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class RecommendationFormatBenchmark {
+
+    private static final Duration PER_OUTPUT_TOKEN = Duration.ofMillis(30);
+
+    private static final String TYPICAL_TEXT_RESPONSE = """
+            **Vibe Analysis:**
+
+            Inception carries a tense, cerebral atmosphere, layering a heist thriller over an intimate story \
+            of grief and guilt. Its themes of memory, perception and the fragile line between dream and reality \
+            are explored through a cool, precise visual style and a relentless, ticking-clock tone that keeps \
+            the audience questioning what is real.
+
+            **Recommendations:**
+
+            1. MOVIE: Memento (2000)
+               REASON: Like Inception, it uses a non-linear structure to put the audience inside an unreliable \
+            mind. Its exploration of memory and self-deception creates the same disorienting, puzzle-box tension.
+
+            2. MOVIE: Shutter Island (2010)
+               REASON: This psychological thriller shares Inception's preoccupation with guilt and a reality \
+            that cannot be trusted. Its brooding, claustrophobic mood builds to a similarly haunting revelation.
+
+            3. MOVIE: The Prestige (2006)
+               REASON: Another meticulously constructed puzzle, it follows obsessive rivals whose ambition \
+            costs them everything. Its twist-driven storytelling mirrors Inception's layered reveals.
+
+            4. MOVIE: Paprika (2006)
+               REASON: This animated film explores dreams bleeding into waking life with dazzling, surreal \
+            imagery. It captures the same sense of wonder and danger in entering other people's minds.
+
+            5. MOVIE: Dark City (1998)
+               REASON: Its noir-tinged world of manipulated memories and shifting architecture evokes \
+            Inception's folding cityscapes. Both films question identity and what makes experience real.
+            """;
+
+    @Test
+    void outputTokensPerFormat() {
+        TokenCountEstimator estimator = new JTokkitTokenCountEstimator();
+        report("text, typical answer", estimator.estimate(TYPICAL_TEXT_RESPONSE));
+        report("text, minimal answer", estimator.estimate(StubChatModel.DEFAULT_RESPONSE));
+        report("compact json", estimator.estimate(StubChatModel.COMPACT_RESPONSE));
+        assertTrue(estimator.estimate(StubChatModel.COMPACT_RESPONSE) < estimator.estimate(TYPICAL_TEXT_RESPONSE));
+    }
+
+    private static void report(String format, int tokens) {
+        System.out.printf("%-22s %4d output tokens, ~%5d ms to generate%n",
+                format, tokens, tokens * PER_OUTPUT_TOKEN.toMillis());
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.MovieFlix.benchmark;
+
+import com.example.MovieFlix.common.AdaptiveConcurrencyLimiter;
+import com.example.MovieFlix.config.OmdbClientConfig;
+import com.example.MovieFlix.controller.ConditionalResponses;
+import com.example.MovieFlix.controller.RecommendationController;
+import com.example.MovieFlix.model.dto.RecommendationResponse;
+import com.example.MovieFlix.model.dto.RecommendedMovie;
+import com.example.MovieFlix.model.dto.omdb.MovieDetailsResponse;
+import com.example.MovieFlix.service.AIRecommendationService;
+import com.example.MovieFlix.service.PromptBudget;
+import com.example.MovieFlix.service.CatalogService;
+import com.example.MovieFlix.service.MovieResolver;
+import com.example.MovieFlix.service.OmdbCache;
+import com.example.MovieFlix.service.OmdbService;
+import com.example.MovieFlix.service.RecommendationCache;
+import com.example.MovieFlix.service.RecommendationEnricher;
+import com.example.MovieFlix.service.RecommendationStreamParser;
+import com.example.MovieFlix.service.SemanticRecommendationCache;
+import com.example.MovieFlix.service.TitleIndex;
+import com.example.MovieFlix.service.TitlePopularity;
+import com.example.MovieFlix.support.LenientGuards;
+import com.example.MovieFlix.support.StubChatModel;
+import com.example.MovieFlix.support.StubOmdbServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares concurrent-request capacity of the blocking and reactive recommendation paths
+ *
+ * The blocking path is driven from a fixed pool sized like a Tomcat worker
+ * pool; the reactive path only uses the calling thread to subscribe.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class RecommendationPipelineBenchmark {
+
+    private static final int REQUEST_THREADS = 50;
+    private static final int REQUESTS = 500;
+    private static final Duration OMDB_LATENCY = Duration.ofMillis(50);
+    private static final Duration CHAT_LATENCY = Duration.ofMillis(500);
+
+    private static StubOmdbServer omdbServer;
+    private static RecommendationController controller;
+    private static RecommendationEnricher enricher;
+    private static RecommendationCache recommendationCache;
+    private static SimpleMeterRegistry registry;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        omdbServer = new StubOmdbServer(OMDB_LATENCY);
+        registry = new SimpleMeterRegistry();
+        OmdbClientConfig clientConfig = new OmdbClientConfig();
+        WebClient webClient = clientConfig.omdbWebClient(
+                clientConfig.omdbConnectionProvider(REQUESTS, Duration.ofSeconds(5),
+                        Duration.ofSeconds(30), Duration.ofMinutes(5)),
+                omdbServer.getBaseUrl(), 2000, 5000);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                "omdb", REQUESTS, 1, REQUESTS, Duration.ofSeconds(1), 0.9);
+        OmdbCache cache = new OmdbCache(registry, 10_000,
+                Duration.ofHours(1), Duration.ofHours(1), Duration.ofMinutes(1));
+        CatalogService catalog = new CatalogService(null, registry, false, Duration.ofDays(30));
+        OmdbService omdbService = new OmdbService(webClient, limiter, LenientGuards.breaker("omdb"),
+                LenientGuards.bulkhead("omdb-blocking"), "bench", 5000,
+                cache, catalog, event -> { }, registry);
+        TitleIndex titleIndex = new TitleIndex(registry, 1000, 1000, 0.45);
+        MovieResolver movieResolver = new MovieResolver(omdbService, titleIndex, 0.6);
+        recommendationCache = new RecommendationCache(null, new ObjectMapper(), new PromptBudget(120, 4, 2, 3),
+                registry, false, Duration.ofDays(7), Duration.ofDays(90), 1000, "gpt-4", 0.7, "text");
+        AIRecommendationService aiService = new AIRecommendationService(new StubChatModel(CHAT_LATENCY),
+                LenientGuards.breaker("openai"), LenientGuards.bulkhead("openai"), recommendationCache,
+                new PromptBudget(120, 4, 2, 3), registry, "text", false, Duration.ZERO, 1, 1, Duration.ZERO,
+                "gpt-4", false, null, 0, Duration.ZERO, Duration.ZERO);
+        enricher = new RecommendationEnricher(omdbService, registry, 5, Duration.ofSeconds(3));
+        TitlePopularity titlePopularity = new TitlePopularity(registry, 1024, 10, 10_000);
+        controller = new RecommendationController(movieResolver, aiService, enricher,
+                new SemanticRecommendationCache(null, movieResolver, titlePopularity, registry, false, 0.95, 100,
+                        Duration.ofDays(7), 0, "gpt-4"),
+                titlePopularity,
+                new ConditionalResponses(new ObjectMapper(), registry, Duration.ofMinutes(10), Duration.ofHours(1)));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        omdbServer.close();
+    }
+
+    @Test
+    void blockingVersusReactive() throws Exception {
+        long blockingNanos = runBlocking("blocking-");
+        long reactiveNanos = runReactive("reactive-");
+
+        report("blocking (" + REQUEST_THREADS + " request threads)", blockingNanos);
+        report("reactive", reactiveNanos);
+    }
+
+    @Test
+    void enrichmentCostsAboutOneLookup() {
+        List<RecommendedMovie> recommendations = IntStream.range(0, 5)
+                .mapToObj(i -> new RecommendedMovie("enrich-" + i, "2010", "reason"))
+                .toList();
+
+        long start = System.nanoTime();
+        List<RecommendedMovie> enriched = enricher.enrich(recommendations).block();
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertEquals(5, enriched.size());
+        System.out.printf("enrichment of 5 titles: %d ms (OMDB latency %d ms per lookup)%n",
+                elapsedMillis, OMDB_LATENCY.toMillis());
+    }
+
+    @Test
+    void streamingTimeToFirstEvent() {
+        StubChatModel chatModel = new StubChatModel(Duration.ofMillis(300), Duration.ofMillis(150),
+                prompt -> StubChatModel.DEFAULT_RESPONSE);
+        AIRecommendationService streamingService = new AIRecommendationService(chatModel,
+                LenientGuards.breaker("openai"), LenientGuards.bulkhead("openai"), recommendationCache,
+                new PromptBudget(120, 4, 2, 3), registry, "text", false, Duration.ZERO, 1, 1, Duration.ZERO,
+                "gpt-4", false, null, 0, Duration.ZERO, Duration.ZERO);
+        MovieDetailsResponse movie = new MovieDetailsResponse();
+        movie.setTitle("Inception");
+        movie.setYear("2010");
+
+        long start = System.nanoTime();
+        AtomicLong firstEvent = new AtomicLong();
+        AtomicLong firstRecommendation = new AtomicLong();
+        List<RecommendationStreamParser.Event> events = streamingService.streamRecommendationEvents(movie)
+                .doOnNext(event -> {
+                    firstEvent.compareAndSet(0, System.nanoTime() - start);
+                    if (RecommendationStreamParser.RECOMMENDATION.equals(event.name())) {
+                        firstRecommendation.compareAndSet(0, System.nanoTime() - start);
+                    }
+                })
+                .collectList()
+                .block();
+        long total = System.nanoTime() - start;
+
+        assertEquals(5, events.stream().filter(e -> RecommendationStreamParser.RECOMMENDATION.equals(e.name())).count());
+        System.out.printf("streaming: first event %d ms, first recommendation %d ms, complete %d ms%n",
+                firstEvent.get() / 1_000_000, firstRecommendation.get() / 1_000_000, total / 1_000_000);
+    }
+
+    private long runBlocking(String prefix) throws Exception {
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                String title = prefix + i;
+                futures.add(requestThreads.submit(() -> controller.getRecommendations(title, null, false, null)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        } finally {
+            requestThreads.shutdownNow();
+        }
+    }
+
+    private long runReactive(String prefix) {
+        long start = System.nanoTime();
+        List<ResponseEntity<RecommendationResponse>> responses = Flux.range(0, REQUESTS)
+                .flatMap(i -> controller.getRecommendationsReactive(prefix + i, null, false, null), REQUESTS)
+                .collectList()
+                .block();
+        long elapsed = System.nanoTime() - start;
+        assertEquals(REQUESTS, responses.size());
+        return elapsed;
+    }
+
+    private static void report(String mode, long nanos) {
+        double seconds = nanos / 1_000_000_000.0;
+        System.out.printf("%-32s %5d requests in %6.2fs -> %7.1f req/s%n",
+                mode, REQUESTS, seconds, REQUESTS / seconds);
+    }
+}
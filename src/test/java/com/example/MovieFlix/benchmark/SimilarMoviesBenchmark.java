@@ -0,0 +1,114 @@
+package com.example.MovieFlix.benchmark;
+
+import com.example.MovieFlix.common.HnswIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * HNSW k-NN against an exact scan over the same vectors
+ *
+ * Vectors are clustered, as movie embeddings are (genres, franchises), at the
+ * 512 dimensions the embedding model is configured for. Queries are perturbed
+ * copies of indexed vectors, like a movie close to ones already indexed.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class SimilarMoviesBenchmark {
+
+    private static final int MOVIES = 20_000;
+    private static final int DIMENSIONS = 512;
+    private static final int CLUSTERS = 200;
+    private static final int QUERIES = 500;
+    private static final int K = 10;
+
+    @Test
+    void hnswVersusExactScan() {
+        Random random = new Random(7);
+        float[][] centroids = new float[CLUSTERS][];
+        for (int c = 0; c < CLUSTERS; c++) {
+            centroids[c] = gaussian(random, 1.0f, null);
+        }
+        float[][] vectors = new float[MOVIES][];
+        for (int i = 0; i < MOVIES; i++) {
+            vectors[i] = gaussian(random, 0.6f, centroids[random.nextInt(CLUSTERS)]);
+        }
+
+        HnswIndex index = new HnswIndex(16, 100);
+        long buildStart = System.nanoTime();
+        for (int i = 0; i < MOVIES; i++) {
+            index.add(Integer.toString(i), vectors[i]);
+        }
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        float[][] queries = new float[QUERIES][];
+        for (int q = 0; q < QUERIES; q++) {
+            queries[q] = gaussian(random, 0.3f, vectors[random.nextInt(MOVIES)]);
+        }
+
+        long exactNanos = 0;
+        long hnswNanos = 0;
+        int found = 0;
+        for (float[] query : queries) {
+            long start = System.nanoTime();
+            Set<String> truth = exact(vectors, query);
+            exactNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            List<HnswIndex.Neighbor> neighbors = index.search(query, K, 64);
+            hnswNanos += System.nanoTime() - start;
+            found += (int) neighbors.stream().filter(neighbor -> truth.contains(neighbor.id())).count();
+        }
+        double recall = (double) found / (QUERIES * K);
+
+        System.out.printf("%d vectors x %d dims, built in %d ms%n", MOVIES, DIMENSIONS, buildMillis);
+        System.out.printf("exact scan: %.2f ms/query%n", exactNanos / 1e6 / QUERIES);
+        System.out.printf("hnsw ef=64: %.2f ms/query, recall@%d %.3f%n", hnswNanos / 1e6 / QUERIES, K, recall);
+        assertTrue(recall > 0.9, "recall@10 " + recall);
+    }
+
+    private static Set<String> exact(float[][] vectors, float[] query) {
+        double[] similarity = new double[vectors.length];
+        PriorityQueue<Integer> top = new PriorityQueue<>(Comparator.comparingDouble((Integer i) -> similarity[i]));
+        for (int i = 0; i < vectors.length; i++) {
+            similarity[i] = cosine(query, vectors[i]);
+            if (top.size() < K || similarity[i] > similarity[top.peek()]) {
+                top.add(i);
+                if (top.size() > K) {
+                    top.poll();
+                }
+            }
+        }
+        Set<String> ids = new HashSet<>();
+        top.forEach(i -> ids.add(Integer.toString(i)));
+        return ids;
+    }
+
+    private static float[] gaussian(Random random, float scale, float[] around) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (around != null ? around[i] : 0) + scale * (float) random.nextGaussian();
+        }
+        return vector;
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return dot / Math.sqrt(normA * normB);
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.MovieFlix.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Cold start of the packaged application: plain java -jar versus AOT + CDS
+ *
+ * Needs the jar built with the fast-startup profile (the AOT code is only
+ * used when -Dspring.aot.enabled=true, so the same jar also serves as the
+ * plain baseline):
+ *   mvn -Pfast-startup package -DskipTests
+ *   mvn test -Pbenchmark -Dtest=StartupBenchmark
+ * The jar is extracted and a CDS archive recorded from a training run, as in
+ * the Dockerfile's fast-startup stage. Every run uses the training profile, so
+ * no database or API keys are needed. Reported per mode, as the median of
+ * several launches: time from process start to the first successful
+ * /actuator/info response, and the latency of the first /api/movies/suggest
+ * request after that.
+ */
+@Tag("benchmark")
+class StartupBenchmark {
+
+    private static final int LAUNCHES = 3;
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(2);
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    @Test
+    void aotAndCdsStartFaster() throws Exception {
+        Path jar = findJar();
+        assumeTrue(jar != null, "Build the jar first: mvn -Pfast-startup package -DskipTests");
+
+        Path work = Files.createTempDirectory("movieflix-startup");
+        run(List.of(java(), "-Djarmode=tools", "-jar", jar.toString(), "extract", "--destination",
+                work.resolve("application").toString()), work);
+        Path extracted = work.resolve("application");
+        Path archive = extracted.resolve("app.jsa");
+        run(List.of(java(), "-XX:ArchiveClassesAtExit=" + archive, "-Dspring.aot.enabled=true",
+                "-Dspring.context.exit=onRefresh", "-jar", "app.jar"), extracted);
+
+        Result plain = measure("java -jar", List.of("-jar", jar.toAbsolutePath().toString()), work);
+        Result fast = measure("AOT + CDS", List.of("-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true",
+                "-jar", "app.jar"), extracted);
+
+        System.out.printf("time to ready: %.0f%% faster, first request: %.0f%% faster%n",
+                100.0 * (plain.readyMillis() - fast.readyMillis()) / plain.readyMillis(),
+                100.0 * (plain.firstRequestMillis() - fast.firstRequestMillis()) / plain.firstRequestMillis());
+    }
+
+    private Result measure(String label, List<String> arguments, Path directory) throws Exception {
+        long[] ready = new long[LAUNCHES];
+        long[] firstRequest = new long[LAUNCHES];
+        for (int i = 0; i < LAUNCHES; i++) {
+            int port = freePort();
+            List<String> command = new ArrayList<>();
+            command.add(java());
+            command.add("-Dserver.port=" + port);
+            command.addAll(arguments);
+            ProcessBuilder builder = new ProcessBuilder(command)
+                    .directory(directory.toFile())
+                    .redirectErrorStream(true)
+                    .redirectOutput(directory.resolve("startup-" + i + ".log").toFile());
+            builder.environment().put("SPRING_PROFILES_ACTIVE", "training");
+
+            long start = System.nanoTime();
+            Process process = builder.start();
+            try {
+                awaitReady(port, process);
+                ready[i] = (System.nanoTime() - start) / 1_000_000;
+                long requestStart = System.nanoTime();
+                HttpResponse<String> response = get(port, "/api/movies/suggest?q=incep");
+                firstRequest[i] = (System.nanoTime() - requestStart) / 1_000_000;
+                assertEquals(200, response.statusCode());
+            } finally {
+                process.destroy();
+                process.waitFor();
+            }
+        }
+        Result result = new Result(median(ready), median(firstRequest));
+        System.out.printf("%-10s ready in %5d ms, first request %4d ms (median of %d)%n",
+                label, result.readyMillis(), result.firstRequestMillis(), LAUNCHES);
+        return result;
+    }
+
+    private void awaitReady(int port, Process process) throws Exception {
+        long deadline = System.nanoTime() + READY_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue());
+            }
+            try {
+                if (get(port, "/actuator/info").statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("Application not ready after " + READY_TIMEOUT);
+    }
+
+    private HttpResponse<String> get(int port, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void run(List<String> command, Path directory) throws IOException, InterruptedException {
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        builder.environment().put("SPRING_PROFILES_ACTIVE", "training");
+        Process process = builder.start();
+        int exit = process.waitFor();
+        if (exit != 0) {
+            throw new IllegalStateException(String.join(" ", command) + " exited with " + exit);
+        }
+    }
+
+    private static Path findJar() throws IOException {
+        Path target = Path.of("target");
+        if (!Files.isDirectory(target)) {
+            return null;
+        }
+        try (Stream<Path> files = Files.list(target)) {
+            return files.filter(file -> file.getFileName().toString().matches("MovieFlix-.*\\.jar"))
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+
+    private static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private record Result(long readyMillis, long firstRequestMillis) {
+    }
+}
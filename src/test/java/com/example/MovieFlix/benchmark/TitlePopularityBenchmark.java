@@ -0,0 +1,137 @@
+package com.example.MovieFlix.benchmark;
+
+import com.example.MovieFlix.common.HeavyHitters;
+import com.example.MovieFlix.service.TitlePopularity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cost of counting a request in the title popularity sketch, and how well its top-K matches exact counts
+ *
+ * Titles are drawn from a Zipf-like distribution over 20,000 titles (a few
+ * very popular, a long tail of one-offs). Each configuration records the same
+ * key sequence from 1 and from 8 threads after a warm-up pass; reported is the
+ * mean wall time per recorded request. TitlePopularity.record includes title
+ * normalization; HeavyHitters.record is the sketch alone.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class TitlePopularityBenchmark {
+
+    private static final int TITLES = 20_000;
+    private static final int REQUESTS = 2_000_000;
+    private static final int THREADS = 8;
+
+    @Test
+    void recordingIsCheapAndFindsTheHeavyHitters() throws InterruptedException {
+        String[] keys = zipfKeys(REQUESTS, new Random(42));
+
+        HeavyHitters sketch = new HeavyHitters(16384, 50, Long.MAX_VALUE);
+        TitlePopularity popularity = new TitlePopularity(new SimpleMeterRegistry(), 16384, 50, Long.MAX_VALUE);
+        Consumer<String> baseline = key -> {
+        };
+
+        run("baseline", keys, baseline, 1);
+        double sketchNanos = run("sketch", keys, sketch::record, 1);
+        run("sketch", keys, sketch::record, THREADS);
+        double popularityNanos = run("popularity", keys, popularity::record, 1);
+        run("popularity", keys, popularity::record, THREADS);
+
+        double recall = topTenRecall(keys, new HeavyHitters(16384, 50, Long.MAX_VALUE));
+        System.out.printf("top-10 recall against exact counts: %.0f%%%n", recall * 100);
+
+        assertTrue(sketchNanos < 10_000, "sketch update should take microseconds at most");
+        assertTrue(popularityNanos < 50_000, "normalized update should take microseconds at most");
+        assertTrue(recall >= 0.9);
+    }
+
+    private static double run(String label, String[] keys, Consumer<String> record, int threads)
+            throws InterruptedException {
+        timed(keys, record, threads);
+        double nanos = timed(keys, record, threads);
+        System.out.printf("%-10s %d thread(s): %6.1f ns per request%n", label, threads, nanos);
+        return nanos;
+    }
+
+    /**
+     * Mean wall time per key while threads share the work of recording every key once
+     */
+    private static double timed(String[] keys, Consumer<String> record, int threads) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = offset; i < keys.length; i += threads) {
+                        record.accept(keys[i]);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            worker.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return (double) (System.nanoTime() - begin) / keys.length;
+    }
+
+    private static double topTenRecall(String[] keys, HeavyHitters sketch) {
+        Map<String, Integer> exact = new HashMap<>();
+        for (String key : keys) {
+            sketch.record(key);
+            exact.merge(key, 1, Integer::sum);
+        }
+        List<Map.Entry<String, Integer>> ranked = new ArrayList<>(exact.entrySet());
+        ranked.sort(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()));
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            expected.add(ranked.get(i).getKey());
+        }
+        Set<String> found = new HashSet<>();
+        for (HeavyHitters.Entry entry : sketch.top().subList(0, 10)) {
+            found.add(entry.key());
+        }
+        found.retainAll(expected);
+        return found.size() / 10.0;
+    }
+
+    /**
+     * Title i is drawn with probability proportional to 1 / (i + 1)
+     */
+    private static String[] zipfKeys(int count, Random random) {
+        double[] cumulative = new double[TITLES];
+        double sum = 0;
+        for (int i = 0; i < TITLES; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+        String[] keys = new String[count];
+        for (int i = 0; i < count; i++) {
+            double draw = random.nextDouble() * sum;
+            int index = Arrays.binarySearch(cumulative, draw);
+            keys[i] = "movie " + (index >= 0 ? index : -index - 1) + " redux";
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.MovieFlix.benchmark;
+
+import com.example.MovieFlix.common.AdaptiveConcurrencyLimiter;
+import com.example.MovieFlix.config.OmdbClientConfig;
+import com.example.MovieFlix.config.VirtualThreadConfig;
+import com.example.MovieFlix.controller.ConditionalResponses;
+import com.example.MovieFlix.controller.RecommendationController;
+import com.example.MovieFlix.service.AIRecommendationService;
+import com.example.MovieFlix.service.CatalogService;
+import com.example.MovieFlix.service.MovieResolver;
+import com.example.MovieFlix.service.OmdbCache;
+import com.example.MovieFlix.service.OmdbService;
+import com.example.MovieFlix.service.PromptBudget;
+import com.example.MovieFlix.service.RecommendationCache;
+import com.example.MovieFlix.service.RecommendationEnricher;
+import com.example.MovieFlix.service.SemanticRecommendationCache;
+import com.example.MovieFlix.service.TitleIndex;
+import com.example.MovieFlix.service.TitlePopularity;
+import com.example.MovieFlix.support.LenientGuards;
+import com.example.MovieFlix.support.StubChatModel;
+import com.example.MovieFlix.support.StubOmdbServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * In-flight recommendation capacity of one instance with platform versus virtual request threads
+ *
+ * The blocking /api/recommendations path is driven with every request
+ * submitted at once, against a stub OMDB server and a stub chat model with
+ * fixed latencies. "platform" runs requests on a pool sized like Tomcat's
+ * default 200 worker threads; "virtual" starts a virtual thread per request
+ * and moves bounded elastic work onto virtual threads, as
+ * spring.threads.virtual.enabled does. Reported per mode: the most requests
+ * in flight at once, throughput, and p99 latency measured from submission.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class VirtualThreadLoadBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int REQUESTS = 2000;
+    private static final Duration OMDB_LATENCY = Duration.ofMillis(50);
+    private static final Duration CHAT_LATENCY = Duration.ofSeconds(1);
+
+    private static StubOmdbServer omdbServer;
+    private static RecommendationController controller;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        omdbServer = new StubOmdbServer(OMDB_LATENCY);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        OmdbClientConfig clientConfig = new OmdbClientConfig();
+        WebClient webClient = clientConfig.omdbWebClient(
+                clientConfig.omdbConnectionProvider(REQUESTS, Duration.ofSeconds(5),
+                        Duration.ofSeconds(30), Duration.ofMinutes(5)),
+                omdbServer.getBaseUrl(), 2000, 5000);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                "omdb", REQUESTS, 1, REQUESTS, Duration.ofSeconds(1), 0.9);
+        OmdbCache cache = new OmdbCache(registry, 10_000,
+                Duration.ofHours(1), Duration.ofHours(1), Duration.ofMinutes(1));
+        CatalogService catalog = new CatalogService(null, registry, false, Duration.ofDays(30));
+        OmdbService omdbService = new OmdbService(webClient, limiter, LenientGuards.breaker("omdb"),
+                LenientGuards.bulkhead("omdb-blocking"), "bench", 5000,
+                cache, catalog, event -> { }, registry);
+        MovieResolver movieResolver = new MovieResolver(omdbService, new TitleIndex(registry, 1000, 1000, 0.45), 0.6);
+        RecommendationCache noCache = new RecommendationCache(null, new ObjectMapper(), new PromptBudget(120, 4, 2, 3),
+                registry, false, Duration.ofDays(7), Duration.ofDays(90), 1000, "gpt-4", 0.7, "text");
+        AIRecommendationService aiService = new AIRecommendationService(new StubChatModel(CHAT_LATENCY),
+                LenientGuards.breaker("openai"), LenientGuards.bulkhead("openai"), noCache,
+                new PromptBudget(120, 4, 2, 3), registry, "text", false, Duration.ZERO, 1, 1, Duration.ZERO,
+                "gpt-4", false, null, 0, Duration.ZERO, Duration.ZERO);
+        TitlePopularity titlePopularity = new TitlePopularity(registry, 1024, 10, 10_000);
+        controller = new RecommendationController(movieResolver, aiService,
+                new RecommendationEnricher(omdbService, registry, 5, Duration.ofSeconds(3)),
+                new SemanticRecommendationCache(null, movieResolver, titlePopularity, registry, false, 0.95, 100,
+                        Duration.ofDays(7), 0, "gpt-4"),
+                titlePopularity,
+                new ConditionalResponses(new ObjectMapper(), registry, Duration.ofMinutes(10), Duration.ofHours(1)));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        omdbServer.close();
+    }
+
+    @Test
+    void virtualThreadsSustainMoreRequestsInFlight() throws Exception {
+        Result platform = run("platform-", Executors.newFixedThreadPool(TOMCAT_MAX_THREADS));
+
+        VirtualThreadConfig.installVirtualSchedulers();
+        Result virtual;
+        try {
+            virtual = run("virtual-", Executors.newVirtualThreadPerTaskExecutor());
+        } finally {
+            Schedulers.resetFactory();
+        }
+
+        report("platform (" + TOMCAT_MAX_THREADS + " threads)", platform);
+        report("virtual", virtual);
+        assertTrue(virtual.peakInFlight() > platform.peakInFlight());
+    }
+
+    private static Result run(String prefix, ExecutorService requestThreads) throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        long[] latencies = new long[REQUESTS];
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>(REQUESTS);
+            for (int i = 0; i < REQUESTS; i++) {
+                int request = i;
+                String title = prefix + i;
+                long submitted = System.nanoTime();
+                futures.add(requestThreads.submit(() -> {
+                    peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    try {
+                        controller.getRecommendations(title, null, false, null);
+                    } finally {
+                        inFlight.decrementAndGet();
+                        latencies[request] = System.nanoTime() - submitted;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            Arrays.sort(latencies);
+            return new Result(peak.get(), elapsed, latencies[(int) (REQUESTS * 0.99) - 1]);
+        } finally {
+            requestThreads.shutdownNow();
+        }
+    }
+
+    private static void report(String mode, Result result) {
+        double seconds = result.elapsedNanos() / 1_000_000_000.0;
+        System.out.printf("%-22s %5d requests: peak in flight %5d, %7.1f req/s, p99 %6d ms%n",
+                mode, REQUESTS, result.peakInFlight(), REQUESTS / seconds, result.p99Nanos() / 1_000_000);
+    }
+
+    private record Result(int peakInFlight, long elapsedNanos, long p99Nanos) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.MovieFlix.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeavyHittersTest {
+
+    @Test
+    void tracksTheMostFrequentKeys() {
+        HeavyHitters sketch = new HeavyHitters(1024, 3, Long.MAX_VALUE);
+
+        for (int round = 0; round < 500; round++) {
+            sketch.record("a");
+            if (round < 400) {
+                sketch.record("b");
+            }
+            if (round < 300) {
+                sketch.record("c");
+            }
+            if (round < 5) {
+                for (int cold = 0; cold < 50; cold++) {
+                    sketch.record("cold-" + cold);
+                }
+            }
+        }
+        assertEquals(Set.of("a", "b", "c"), keys(sketch));
+        assertEquals("a", sketch.top().get(0).key());
+
+        for (int i = 0; i < 1000; i++) {
+            sketch.record("d");
+        }
+        assertEquals(Set.of("a", "b", "d"), keys(sketch));
+        assertEquals("d", sketch.top().get(0).key());
+    }
+
+    @Test
+    void halvesCountsOnceTheSampleIsFull() {
+        HeavyHitters sketch = new HeavyHitters(1024, 3, 2000);
+        for (int i = 0; i < 1500; i++) {
+            sketch.record("hot");
+        }
+        assertTrue(sketch.estimate("hot") >= 1500);
+
+        // aging is checked on a random 1 in 1024 records once the sample is full
+        long before = sketch.getAdditions();
+        for (int i = 0; i < 100_000 && sketch.getAdditions() >= before; i++) {
+            before = sketch.getAdditions();
+            sketch.record("filler-" + i);
+        }
+
+        int aged = sketch.estimate("hot");
+        assertTrue(aged >= 750 && aged < 1000, "estimate after halving: " + aged);
+        assertEquals("hot", sketch.top().get(0).key());
+    }
+
+    private static Set<String> keys(HeavyHitters sketch) {
+        return sketch.top().stream().map(HeavyHitters.Entry::key).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.MovieFlix.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MicroBatcherTest {
+
+    @Test
+    void answersEachCallerFromOneBatch() throws Exception {
+        MicroBatcher<Integer, String> batcher = new MicroBatcher<>("test", 2, Duration.ofSeconds(1), 1,
+                Duration.ofSeconds(5), items -> Mono.just(items.stream().map(i -> "r" + i).toList()),
+                new SimpleMeterRegistry());
+
+        CompletableFuture<String> first = batcher.submit(1);
+        CompletableFuture<String> second = batcher.submit(2);
+
+        assertEquals("r1", first.get(5, TimeUnit.SECONDS));
+        assertEquals("r2", second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void aBatchThatNeverAnswersFailsItsCallers() {
+        MicroBatcher<Integer, String> batcher = new MicroBatcher<>("test", 1, Duration.ofMillis(10), 1,
+                Duration.ofMillis(100), items -> Mono.<List<String>>never(), new SimpleMeterRegistry());
+
+        CompletableFuture<String> result = batcher.submit(1);
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, failure.getCause());
+    }
+}
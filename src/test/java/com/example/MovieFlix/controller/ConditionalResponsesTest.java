@@ -0,0 +1,71 @@
+package com.example.MovieFlix.controller;
+
+import com.example.MovieFlix.model.dto.RecommendationResponse;
+import com.example.MovieFlix.model.dto.RecommendedMovie;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConditionalResponsesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ConditionalResponses responses = new ConditionalResponses(objectMapper, registry,
+            Duration.ofMinutes(10), Duration.ofHours(1));
+
+    @Test
+    void answersAMatchingIfNoneMatchWithNotModified() throws Exception {
+        ResponseEntity<RecommendationResponse> first = responses.recommendation("recommendations", null, response("Heat"));
+        String etag = first.getHeaders().getETag();
+
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals("max-age=600, public", first.getHeaders().getCacheControl());
+        assertEquals(etag, responses.recommendation("recommendations", null, response("Heat")).getHeaders().getETag());
+
+        ResponseEntity<RecommendationResponse> second = responses.recommendation("recommendations", etag, response("Heat"));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+        assertNull(second.getBody());
+        assertEquals(etag, second.getHeaders().getETag());
+        assertEquals(objectMapper.writeValueAsBytes(response("Heat")).length,
+                registry.get("http.conditional.bytes.saved").counter().count());
+        assertEquals(0.5, registry.get("http.conditional.not_modified.ratio").gauge().value());
+    }
+
+    @Test
+    void changedContentGetsANewETag() {
+        String etag = responses.recommendation("recommendations", null, response("Heat")).getHeaders().getETag();
+
+        ResponseEntity<RecommendationResponse> changed = responses.recommendation("recommendations", etag,
+                response("Ronin"));
+
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+    }
+
+    @Test
+    void ifNoneMatchUsesWeakComparisonOverAList() {
+        String etag = "\"abc\"";
+
+        assertTrue(ConditionalResponses.matches("\"x\", W/\"abc\"", etag));
+        assertTrue(ConditionalResponses.matches("*", etag));
+        assertFalse(ConditionalResponses.matches("\"abcd\"", etag));
+        assertFalse(ConditionalResponses.matches(null, etag));
+    }
+
+    private static RecommendationResponse response(String recommended) {
+        return new RecommendationResponse("Collateral", "2004", "Crime, Thriller", "Neon-lit night in LA",
+                List.of(new RecommendedMovie(recommended, "1995", "Same city, same mood")), "gpt-4");
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.MovieFlix.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.catalina.filters.RemoteIpFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RateLimitFilterTest {
+
+    private final RateLimitFilter filter = new RateLimitFilter(new ObjectMapper().findAndRegisterModules(),
+            new SimpleMeterRegistry(), true, 40, 1, 1000, Duration.ofMinutes(10),
+            "/actuator/health/**=0,POST /api/recommendations/jobs=20,/api/recommendations/**=20");
+
+    @Test
+    void refusesAClientOnceItsBucketIsEmpty() throws Exception {
+        assertEquals(200, send("GET", "/api/recommendations", "10.0.0.1").getStatus());
+        MockHttpServletResponse second = send("GET", "/api/recommendations", "10.0.0.1");
+        assertEquals(200, second.getStatus());
+        assertEquals("0", second.getHeader("RateLimit-Remaining"));
+        assertEquals("40;w=40", second.getHeader("RateLimit-Policy"));
+
+        MockHttpServletResponse refused = send("GET", "/api/recommendations", "10.0.0.1");
+
+        assertEquals(429, refused.getStatus());
+        assertEquals("20", refused.getHeader("Retry-After"));
+        assertEquals("40", refused.getHeader("RateLimit-Limit"));
+        assertEquals(200, send("GET", "/api/recommendations", "10.0.0.2").getStatus());
+    }
+
+    @Test
+    void chargesTheFirstMatchingRule() throws Exception {
+        assertEquals(20, filter.cost(request("POST", "/api/recommendations/jobs", "10.0.0.1")));
+        assertEquals(1, filter.cost(request("POST", "/api/auth/login", "10.0.0.1")));
+        assertEquals(0, filter.cost(request("GET", "/actuator/health", "10.0.0.1")));
+        assertEquals(1, filter.cost(request("POST", "/actuator/precompute", "10.0.0.1")));
+        assertNull(send("GET", "/actuator/health", "10.0.0.1").getHeader("RateLimit-Limit"));
+    }
+
+    @Test
+    void keysClientsBehindATrustedProxyByForwardedAddress() throws Exception {
+        // the same logic as the valve Tomcat installs for server.forward-headers-strategy=native
+        RemoteIpFilter remoteIp = new RemoteIpFilter();
+        remoteIp.init(new MockFilterConfig());
+
+        assertEquals(200, sendVia(remoteIp, "10.0.0.9", "203.0.113.1").getStatus());
+        assertEquals(200, sendVia(remoteIp, "10.0.0.9", "203.0.113.1").getStatus());
+        assertEquals(429, sendVia(remoteIp, "10.0.0.9", "203.0.113.1").getStatus());
+        assertEquals(200, sendVia(remoteIp, "10.0.0.9", "203.0.113.2").getStatus());
+
+        // an untrusted sender cannot pick a fresh bucket by forging the header
+        assertEquals(200, sendVia(remoteIp, "198.51.100.7", "203.0.113.3").getStatus());
+        assertEquals(200, sendVia(remoteIp, "198.51.100.7", "203.0.113.4").getStatus());
+        assertEquals(429, sendVia(remoteIp, "198.51.100.7", "203.0.113.5").getStatus());
+    }
+
+    private MockHttpServletResponse sendVia(RemoteIpFilter remoteIp, String proxy, String forwardedFor)
+            throws Exception {
+        MockHttpServletRequest request = request("GET", "/api/recommendations", proxy);
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        remoteIp.doFilter(request, response, (req, res) -> filter.doFilter(req, res, new MockFilterChain()));
+        return response;
+    }
+
+    private MockHttpServletResponse send(String method, String path, String ip) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, path, ip), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(ip);
+        return request;
+    }
+}
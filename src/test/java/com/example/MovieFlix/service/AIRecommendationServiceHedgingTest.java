@@ -0,0 +1,119 @@
+package com.example.MovieFlix.service;
+
+import com.example.MovieFlix.controller.ConditionalResponses;
+import com.example.MovieFlix.controller.RecommendationController;
+import com.example.MovieFlix.model.dto.omdb.MovieDetailsResponse;
+import com.example.MovieFlix.support.HashingEmbeddingModel;
+import com.example.MovieFlix.support.LenientGuards;
+import com.example.MovieFlix.support.StubChatModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AIRecommendationServiceHedgingTest {
+
+    private static final String FAST_MODEL = "gpt-4o-mini";
+
+    @Test
+    void slowPrimaryIsHedgedOnTheFastModel() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StubChatModel chatModel = new StubChatModel(
+                prompt -> isFastModel(prompt) ? Duration.ofMillis(50) : Duration.ofSeconds(5),
+                Duration.ZERO, prompt -> StubChatModel.DEFAULT_RESPONSE);
+
+        AIRecommendationService.AIRecommendationResult result = service(chatModel, registry).getRecommendations(movie());
+
+        assertEquals(FAST_MODEL, result.getModel());
+        assertFalse(result.getRecommendations().isEmpty());
+        assertEquals(1, chatModel.getCancelled());
+        assertEquals(1, hedges(registry, "slow"));
+        assertEquals(1, registry.counter("hedge.wins", "name", "openai.recommendations", "winner", "backup").count());
+    }
+
+    @Test
+    void backupAnswersAreNotSemanticallyCachedOnTheControllerPath() throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StubChatModel slowPrimary = new StubChatModel(
+                prompt -> isFastModel(prompt) ? Duration.ofMillis(50) : Duration.ofSeconds(5),
+                Duration.ZERO, prompt -> StubChatModel.DEFAULT_RESPONSE);
+        TitlePopularity popularity = new TitlePopularity(registry, 1024, 10, 10_000);
+        SemanticRecommendationCache semanticCache = new SemanticRecommendationCache(new HashingEmbeddingModel(256),
+                null, popularity, registry, true, 0.95, 100, Duration.ofDays(7), 0, "gpt-4");
+
+        controller(service(slowPrimary, registry), semanticCache, popularity)
+                .getRecommendations("Inception", null, false, null);
+        // a primary answer for another title, so there is a stored entry to wait for
+        controller(service(new StubChatModel(Duration.ofMillis(20)), registry), semanticCache, popularity)
+                .getRecommendations("Memento", null, false, null);
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (semanticCache.lookup("Memento", null).isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertTrue(semanticCache.lookup("Memento", null).isPresent());
+        assertTrue(semanticCache.lookup("Inception", null).isEmpty());
+    }
+
+    @Test
+    void fastPrimaryIsNotHedged() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StubChatModel chatModel = new StubChatModel(Duration.ofMillis(20));
+
+        AIRecommendationService.AIRecommendationResult result = service(chatModel, registry).getRecommendations(movie());
+
+        assertEquals("gpt-4", result.getModel());
+        assertEquals(1, chatModel.getCalls());
+        assertEquals(1, hedges(registry, "none"));
+        assertEquals(0, hedges(registry, "slow"));
+    }
+
+    private static AIRecommendationService service(StubChatModel chatModel, SimpleMeterRegistry registry) {
+        RecommendationCache noCache = new RecommendationCache(null, new ObjectMapper(), new PromptBudget(120, 4, 2, 3),
+                registry, false, Duration.ofDays(7), Duration.ofDays(90), 1000, "gpt-4", 0.7, "text");
+        return new AIRecommendationService(chatModel,
+                LenientGuards.breaker("openai"), LenientGuards.bulkhead("openai"), noCache,
+                new PromptBudget(120, 4, 2, 3), registry, "text", false, Duration.ZERO, 1, 1, Duration.ZERO,
+                "gpt-4", true, FAST_MODEL, 0.95, Duration.ofMillis(100), Duration.ofMillis(200));
+    }
+
+    private static RecommendationController controller(AIRecommendationService service,
+            SemanticRecommendationCache semanticCache, TitlePopularity popularity) {
+        MovieResolver resolver = new MovieResolver(null, null, 0.6) {
+            @Override
+            public MovieDetailsResponse resolve(String title, String year) {
+                MovieDetailsResponse movie = movie();
+                movie.setImdbId("tt-" + title);
+                movie.setTitle(title);
+                return movie;
+            }
+        };
+        return new RecommendationController(resolver, service, null, semanticCache, popularity,
+                new ConditionalResponses(new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(),
+                        Duration.ofMinutes(10), Duration.ofHours(1)));
+    }
+
+    private static boolean isFastModel(Prompt prompt) {
+        return prompt.getOptions() != null && FAST_MODEL.equals(prompt.getOptions().getModel());
+    }
+
+    private static double hedges(SimpleMeterRegistry registry, String reason) {
+        return registry.counter("hedge.calls", "name", "openai.recommendations", "hedged", reason).count();
+    }
+
+    private static MovieDetailsResponse movie() {
+        MovieDetailsResponse movie = new MovieDetailsResponse();
+        movie.setImdbId("tt1375666");
+        movie.setTitle("Inception");
+        movie.setYear("2010");
+        movie.setGenre("Action, Adventure, Sci-Fi");
+        movie.setPlot("A thief who steals corporate secrets through dream-sharing technology plants an idea.");
+        return movie;
+    }
+}
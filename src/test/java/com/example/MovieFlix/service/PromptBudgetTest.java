@@ -0,0 +1,42 @@
+package com.example.MovieFlix.service;
+
+import com.example.MovieFlix.model.dto.omdb.MovieDetailsResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PromptBudgetTest {
+
+    @Test
+    void clipsPlotToWholeSentencesAndCapsLists() {
+        PromptBudget budget = new PromptBudget(20, 2, 1, 3);
+        MovieDetailsResponse movie = new MovieDetailsResponse();
+        movie.setTitle("Seven Samurai");
+        movie.setYear("1954");
+        movie.setGenre("Action, Drama");
+        movie.setActors("Toshiro Mifune, Takashi Shimura, Keiko Tsushima");
+        movie.setDirector("N/A");
+        movie.setPlot("A veteran samurai answers a village's request for protection from bandits. "
+                + "He gathers six other samurai to help him. "
+                + "They teach the townspeople how to defend themselves.");
+
+        PromptBudget.Fields fields = budget.fit(movie);
+
+        assertEquals("A veteran samurai answers a village's request for protection from bandits.", fields.plot());
+        assertEquals("Toshiro Mifune, Takashi Shimura", fields.actors());
+        assertEquals("Action, Drama", fields.genre());
+        assertEquals("Unknown", fields.director());
+    }
+
+    @Test
+    void cutsAnOverlongFirstSentenceAtAWord() {
+        PromptBudget budget = new PromptBudget(8, 4, 2, 3);
+        String plot = budget.clipPlot("A thief who steals corporate secrets through dream-sharing technology is given "
+                + "the inverse task of planting an idea into the mind of a C.E.O.");
+
+        assertTrue(plot.startsWith("A thief who") && plot.endsWith("..."), plot);
+        assertTrue(budget.count(plot) <= 8);
+        assertEquals("No plot available", budget.clipPlot("N/A"));
+    }
+}
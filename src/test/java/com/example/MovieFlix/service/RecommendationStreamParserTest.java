@@ -0,0 +1,96 @@
+package com.example.MovieFlix.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecommendationStreamParserTest {
+
+    @Test
+    void emitsRecommendationsAsTheyComplete() {
+        RecommendationStreamParser parser = RecommendationStreamParser.forFormat(RecommendationFormat.TEXT);
+
+        List<RecommendationStreamParser.Event> events = new ArrayList<>(parser.feed("A tense thriller.\n\nMO"));
+        assertEquals(RecommendationStreamParser.VIBE, events.get(0).name());
+
+        events.addAll(parser.feed("VIE: Memento (2000)\nREASON: Unreliable memory.\n"));
+        assertTrue(events.stream().noneMatch(e -> RecommendationStreamParser.RECOMMENDATION.equals(e.name())));
+
+        List<RecommendationStreamParser.Event> next = parser.feed("MOVIE: Dark City (1998)\n");
+        assertEquals(1, next.size());
+        AIRecommendationService.MovieRecommendation first = (AIRecommendationService.MovieRecommendation) next.get(0).data();
+        assertEquals("Memento", first.getTitle());
+        assertEquals("Unreliable memory.", first.getReason());
+
+        List<RecommendationStreamParser.Event> rest = parser.finish();
+        assertEquals(RecommendationStreamParser.RECOMMENDATION, rest.get(0).name());
+        assertEquals(RecommendationStreamParser.DONE, rest.get(rest.size() - 1).name());
+
+        AIRecommendationService.AIRecommendationResult result = parser.result("Inception");
+        assertEquals("A tense thriller.", result.getVibe());
+        assertEquals(2, result.getRecommendations().size());
+        assertEquals("", result.getRecommendations().get(1).getReason());
+    }
+
+    @Test
+    void parsesCompactJsonIncrementally() {
+        RecommendationStreamParser parser = RecommendationStreamParser.forFormat(RecommendationFormat.JSON);
+
+        List<RecommendationStreamParser.Event> events = new ArrayList<>(parser.feed("```json\n{\"v\":\"Tense and"));
+        assertTrue(events.isEmpty());
+        events.addAll(parser.feed(" cerebral.\",\"r\":[{\"t\":\"Memento\",\"y\":2000,\"w\":\"Memory.\"},"));
+        assertEquals(2, events.size());
+        assertEquals("Tense and cerebral.", events.get(0).data());
+
+        parser.feed("{\"t\":\"Dark City\",\"y\":1998}]}\n```");
+        parser.finish();
+        AIRecommendationService.AIRecommendationResult result = parser.result("Inception");
+        assertEquals(2, result.getRecommendations().size());
+        assertEquals("1998", result.getRecommendations().get(1).getYear());
+        assertFalse(parser.wasRepaired());
+    }
+
+    @Test
+    void repairsTruncatedJsonOnce() {
+        RecommendationStreamParser parser = RecommendationStreamParser.forFormat(RecommendationFormat.JSON);
+
+        parser.feed("{\"v\":\"Tense.\",\"r\":[{\"t\":\"Memento\",\"y\":2000,\"w\":\"Memory.\"},"
+                + "{\"t\":\"Dark City\",\"y\":1998,\"w\":\"Noir");
+        List<RecommendationStreamParser.Event> rest = parser.finish();
+
+        assertTrue(parser.wasRepaired());
+        assertEquals(RecommendationStreamParser.DONE, rest.get(rest.size() - 1).name());
+        assertEquals(2, parser.result("Inception").getRecommendations().size());
+    }
+
+    @Test
+    void repairLeavesCommasInsideStringsAlone() {
+        String repaired = JsonRecommendationStreamParser.repair(
+                "{\"v\":\"Odd, ]\",\"r\":[{\"t\":\"A\",\"y\":2000,\"w\":\"Lists, } and more\"},]}");
+
+        assertEquals("{\"v\":\"Odd, ]\",\"r\":[{\"t\":\"A\",\"y\":2000,\"w\":\"Lists, } and more\"}]}", repaired);
+    }
+
+    @Test
+    void repairDropsADanglingKeyOrColon() {
+        String prefix = "{\"v\":\"Tense.\",\"r\":[{\"t\":\"Memento\",\"y\":2000,\"w\":\"Memory.\"},";
+        String expected = prefix.substring(0, prefix.length() - 1) + ",{\"t\":\"Dark City\"}]}";
+
+        assertEquals(expected, JsonRecommendationStreamParser.repair(prefix + "{\"t\":\"Dark City\",\"y"));
+        assertEquals(expected, JsonRecommendationStreamParser.repair(prefix + "{\"t\":\"Dark City\",\"y\":"));
+        assertEquals(prefix.substring(0, prefix.length() - 1) + ",{}]}",
+                JsonRecommendationStreamParser.repair(prefix + "{\"t\":"));
+
+        RecommendationStreamParser parser = RecommendationStreamParser.forFormat(RecommendationFormat.JSON);
+        parser.feed(prefix + "{\"t\":\"Dark City\",\"y\":");
+        parser.finish();
+
+        assertTrue(parser.wasRepaired());
+        assertEquals(2, parser.result("Inception").getRecommendations().size());
+    }
+}
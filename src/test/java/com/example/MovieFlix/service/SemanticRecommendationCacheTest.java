@@ -0,0 +1,133 @@
+package com.example.MovieFlix.service;
+
+import com.example.MovieFlix.model.dto.omdb.MovieDetailsResponse;
+import com.example.MovieFlix.support.HashingEmbeddingModel;
+import com.example.MovieFlix.support.LenientGuards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SemanticRecommendationCacheTest {
+
+    @Test
+    void answersNearDuplicateRequestsButNotOtherYears() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SemanticRecommendationCache cache = new SemanticRecommendationCache(new HashingEmbeddingModel(256), null,
+                new TitlePopularity(registry, 1024, 10, 10_000), registry, true, 0.8, 100, Duration.ofDays(7), 0,
+                "gpt-4");
+
+        cache.put("The Dark Knight", null, darkKnight(), result("Heat"));
+
+        assertEquals("tt0468569", cache.lookup("the dark knight!", null).orElseThrow().movie().getImdbId());
+
+        Optional<SemanticRecommendationCache.Hit> similar = cache.lookup("dark knight 2008", null);
+        assertTrue(similar.isPresent());
+        assertTrue(similar.get().similarity() < 1.0);
+        assertEquals("Heat", similar.get().result().getRecommendations().get(0).getTitle());
+
+        assertTrue(cache.lookup("The Dark Knight Rises", "2012").isEmpty());
+
+        assertEquals(1, registry.counter("recommendations.semantic.requests", "result", "exact").count());
+        assertEquals(1, registry.counter("recommendations.semantic.requests", "result", "similar").count());
+        assertEquals(1, registry.counter("recommendations.semantic.requests", "result", "miss").count());
+    }
+
+    @Test
+    void sequelsWithoutAYearDoNotAnswerForEachOther() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // a threshold low enough that only the numeral check keeps the sequels apart
+        SemanticRecommendationCache cache = new SemanticRecommendationCache(new HashingEmbeddingModel(256), null,
+                new TitlePopularity(registry, 1024, 10, 10_000), registry, true, 0.3, 100, Duration.ofDays(7), 0,
+                "gpt-4");
+
+        cache.put("Toy Story 2", null, movie("tt0120363", "Toy Story 2", "1999"), result("Monsters, Inc."));
+        cache.put("Rocky II", null, movie("tt0079817", "Rocky II", "1979"), result("Raging Bull"));
+
+        assertTrue(cache.lookup("toy story 3", null).isEmpty());
+        assertTrue(cache.lookup("rocky iii", null).isEmpty());
+        assertTrue(cache.lookup("rocky 3", null).isEmpty());
+        assertEquals("tt0120363", cache.lookup("toy story ii", null).orElseThrow().movie().getImdbId());
+        assertEquals("tt0079817", cache.lookup("rocky 2", null).orElseThrow().movie().getImdbId());
+        assertEquals(3, registry.counter("recommendations.semantic.requests", "result", "miss").count());
+    }
+
+    @Test
+    void oneOffTitlesDoNotEvictPopularOnesWhenFull() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TitlePopularity popularity = new TitlePopularity(registry, 1024, 10, 10_000);
+        SemanticRecommendationCache cache = new SemanticRecommendationCache(new HashingEmbeddingModel(256), null,
+                popularity, registry, true, 0.8, 2, Duration.ofDays(7), 0, "gpt-4");
+
+        for (int i = 0; i < 5; i++) {
+            popularity.record("The Dark Knight");
+        }
+        cache.put("The Dark Knight", null, darkKnight(), result("Heat"));
+
+        popularity.record("Paddington 2");
+        MovieDetailsResponse paddington = new MovieDetailsResponse();
+        paddington.setImdbId("tt4468740");
+        paddington.setTitle("Paddington 2");
+        paddington.setYear("2017");
+        cache.put("Paddington 2", null, paddington, result("Hugo"));
+
+        assertEquals("tt0468569", cache.lookup("The Dark Knight", null).orElseThrow().movie().getImdbId());
+        assertEquals(2, registry.counter("recommendations.semantic.rejected").count());
+        assertEquals("the dark knight", popularity.top().get(0).key());
+    }
+
+    @Test
+    void slowEmbeddingsTimeOutIntoAMiss() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HashingEmbeddingModel slow = new HashingEmbeddingModel(256) {
+            @Override
+            public float[] embed(String text) {
+                try {
+                    Thread.sleep(2000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.embed(text);
+            }
+        };
+        GuardedEmbeddingModel guarded = new GuardedEmbeddingModel(slow, LenientGuards.breaker("openai-embedding"),
+                LenientGuards.bulkhead("openai-embedding"), Duration.ofMillis(100));
+        SemanticRecommendationCache cache = new SemanticRecommendationCache(guarded, null,
+                new TitlePopularity(registry, 1024, 10, 10_000), registry, true, 0.8, 100, Duration.ofDays(7), 0,
+                "gpt-4");
+
+        long start = System.nanoTime();
+        assertTrue(cache.lookup("The Dark Knight", null).isEmpty());
+
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+        assertEquals(1, registry.counter("recommendations.semantic.requests", "result", "error").count());
+    }
+
+    private static MovieDetailsResponse darkKnight() {
+        MovieDetailsResponse movie = new MovieDetailsResponse();
+        movie.setImdbId("tt0468569");
+        movie.setTitle("The Dark Knight");
+        movie.setYear("2008");
+        movie.setGenre("Action, Crime, Drama");
+        return movie;
+    }
+
+    private static MovieDetailsResponse movie(String imdbId, String title, String year) {
+        MovieDetailsResponse movie = new MovieDetailsResponse();
+        movie.setImdbId(imdbId);
+        movie.setTitle(title);
+        movie.setYear(year);
+        return movie;
+    }
+
+    private static AIRecommendationService.AIRecommendationResult result(String recommendation) {
+        return new AIRecommendationService.AIRecommendationResult("The Dark Knight", "Grim and operatic.",
+                List.of(new AIRecommendationService.MovieRecommendation(recommendation, "1995",
+                        "A cat-and-mouse crime epic."))).withModel("gpt-4");
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.MovieFlix.service;
+
+import com.example.MovieFlix.model.dto.SimilarMovie;
+import com.example.MovieFlix.model.dto.omdb.MovieDetailsResponse;
+import com.example.MovieFlix.support.HashingEmbeddingModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimilarMovieIndexTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void findsNearestIndexedMoviesAndSurvivesRestartWithTheSameDimensions() throws InterruptedException {
+        HashingEmbeddingModel embeddings = new HashingEmbeddingModel(256);
+        SimilarMovieIndex index = newIndex(embeddings);
+
+        index.onMovieResolved(event("tt1375666", "Inception", "Action, Sci-Fi",
+                "A thief who steals secrets through dream sharing is given a task of planting an idea."));
+        index.onMovieResolved(event("tt0209144", "Memento", "Mystery, Thriller",
+                "A man with short-term memory loss hunts his wife's killer using notes and tattoos."));
+        index.onMovieResolved(event("tt0482571", "The Prestige", "Mystery, Sci-Fi",
+                "Two rival stage magicians obsess over a secret trick, dream of revenge and steal secrets."));
+        index.onMovieResolved(event("tt0107048", "Groundhog Day", "Comedy, Romance",
+                "A weatherman relives the same day again and again in a small town."));
+        awaitSize(index, 4);
+
+        List<SimilarMovie> similar = index.findSimilar("tt1375666", 2).block();
+        assertEquals(2, similar.size());
+        assertEquals("tt0482571", similar.get(0).getImdbId());
+        assertTrue(similar.stream().noneMatch(movie -> movie.getImdbId().equals("tt1375666")));
+        int calls = embeddings.getCalls();
+
+        index.onMovieResolved(event("tt1375666", "Inception", "Action, Sci-Fi", "Already indexed."));
+        index.close();
+        assertEquals(calls, embeddings.getCalls());
+
+        SimilarMovieIndex reloaded = newIndex(embeddings);
+        assertEquals(4, reloaded.size());
+        assertEquals(similar.get(0).getImdbId(), reloaded.findSimilar("tt1375666", 2).block().get(0).getImdbId());
+        assertFalse(reloaded.isIndexed("tt0000001"));
+
+        SimilarMovieIndex resized = newIndex(new HashingEmbeddingModel(128), 128);
+        assertEquals(0, resized.size());
+    }
+
+    private SimilarMovieIndex newIndex(HashingEmbeddingModel embeddings) {
+        return newIndex(embeddings, 256);
+    }
+
+    private SimilarMovieIndex newIndex(HashingEmbeddingModel embeddings, int dimensions) {
+        return new SimilarMovieIndex(embeddings, null, new SimpleMeterRegistry(), true, "hashing", dimensions,
+                dir.resolve("similar.idx").toString(), 1000, 8, 32, 32, 1, 200);
+    }
+
+    private static void awaitSize(SimilarMovieIndex index, int size) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (index.size() < size && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(size, index.size());
+    }
+
+    private static MovieResolvedEvent event(String imdbId, String title, String genre, String plot) {
+        MovieDetailsResponse movie = new MovieDetailsResponse();
+        movie.setImdbId(imdbId);
+        movie.setTitle(title);
+        movie.setYear("2000");
+        movie.setGenre(genre);
+        movie.setPlot(plot);
+        return new MovieResolvedEvent(movie);
+    }
+}
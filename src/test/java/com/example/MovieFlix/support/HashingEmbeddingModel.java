@@ -0,0 +1,85 @@
+package com.example.MovieFlix.support;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Deterministic local stand-in for the OpenAI embedding model
+ *
+ * Hashes each word and word pair of the text into a fixed number of signed
+ * buckets, so texts that share words get similar vectors. The same text
+ * always gets the same vector, with no network.
+ */
+public class HashingEmbeddingModel implements EmbeddingModel {
+
+    private final int dimensions;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    public HashingEmbeddingModel(int dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        calls.incrementAndGet();
+        List<String> texts = request.getInstructions();
+        List<Embedding> embeddings = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            embeddings.add(new Embedding(vector(texts.get(i)), i));
+        }
+        return new EmbeddingResponse(embeddings);
+    }
+
+    @Override
+    public float[] embed(String text) {
+        calls.incrementAndGet();
+        return vector(text);
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return embed(document.getContent());
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Number of embedding calls made, batched or single
+     */
+    public int getCalls() {
+        return calls.get();
+    }
+
+    private float[] vector(String text) {
+        float[] vector = new float[dimensions];
+        String previous = null;
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            add(vector, word, 1.0f);
+            if (previous != null) {
+                add(vector, previous + ' ' + word, 0.5f);
+            }
+            previous = word;
+        }
+        vector[0] += 1e-3f; // never all zeros
+        return vector;
+    }
+
+    private void add(float[] vector, String feature, float weight) {
+        int hash = feature.hashCode() * 0x9E3779B9;
+        vector[Math.floorMod(hash, dimensions)] += (hash & 0x10000) == 0 ? weight : -weight;
+    }
+}
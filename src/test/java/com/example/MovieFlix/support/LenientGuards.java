@@ -0,0 +1,26 @@
+package com.example.MovieFlix.support;
+
+import com.example.MovieFlix.common.AdaptiveConcurrencyLimiter;
+import com.example.MovieFlix.common.CircuitBreaker;
+
+import java.time.Duration;
+
+/**
+ * Circuit breakers and bulkheads that stay out of the way of tests and benchmarks
+ */
+public final class LenientGuards {
+
+    private LenientGuards() {
+    }
+
+    /**
+     * Opens only if every one of 100 consecutive calls fails
+     */
+    public static CircuitBreaker breaker(String name) {
+        return new CircuitBreaker(name, 1.0, Duration.ofMinutes(5), 100, 100, Duration.ofSeconds(30), 1);
+    }
+
+    public static AdaptiveConcurrencyLimiter bulkhead(String name) {
+        return new AdaptiveConcurrencyLimiter(name, 10_000, 10_000, 10_000, Duration.ofMinutes(5), 1.0);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.MovieFlix.support;
+
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Local stand-in for the OpenAI chat model with configurable latency
+ */
+public class StubChatModel implements ChatModel {
+
+    public static final String DEFAULT_RESPONSE = """
+            A tense, cerebral thriller about memory and guilt.
+
+            MOVIE: Memento (2000)
+            REASON: Non-linear storytelling built around an unreliable memory.
+            MOVIE: Shutter Island (2010)
+            REASON: Psychological mystery that keeps questioning what is real.
+            MOVIE: The Prestige (2006)
+            REASON: Obsessive rivals and a twist-driven structure.
+            MOVIE: Paprika (2006)
+            REASON: Dreams bleeding into waking life.
+            MOVIE: Dark City (1998)
+            REASON: Manipulated memories in a shifting, noir city.
+            """;
+
+    /**
+     * DEFAULT_RESPONSE in the compact JSON format
+     */
+    public static final String COMPACT_RESPONSE = """
+            {"v":"A tense, cerebral thriller about memory and guilt.","r":[\
+            {"t":"Memento","y":2000,"w":"Non-linear storytelling built around an unreliable memory."},\
+            {"t":"Shutter Island","y":2010,"w":"Psychological mystery that keeps questioning what is real."},\
+            {"t":"The Prestige","y":2006,"w":"Obsessive rivals and a twist-driven structure."},\
+            {"t":"Paprika","y":2006,"w":"Dreams bleeding into waking life."},\
+            {"t":"Dark City","y":1998,"w":"Manipulated memories in a shifting, noir city."}]}""";
+
+    private final Function<Prompt, Duration> latency;
+    private final Duration chunkDelay;
+    private final Function<Prompt, String> responder;
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger cancelled = new AtomicInteger();
+
+    public StubChatModel(Duration latency) {
+        this(latency, prompt -> DEFAULT_RESPONSE);
+    }
+
+    public StubChatModel(Duration latency, Function<Prompt, String> responder) {
+        this(latency, Duration.ZERO, responder);
+    }
+
+    /**
+     * @param latency    time to the first streamed chunk (and of a whole call)
+     * @param chunkDelay time between streamed chunks, one chunk per line
+     */
+    public StubChatModel(Duration latency, Duration chunkDelay, Function<Prompt, String> responder) {
+        this(prompt -> latency, chunkDelay, responder);
+    }
+
+    /**
+     * @param latency per-prompt latency, e.g. by the model named in the prompt options
+     */
+    public StubChatModel(Function<Prompt, Duration> latency, Duration chunkDelay, Function<Prompt, String> responder) {
+        this.latency = latency;
+        this.chunkDelay = chunkDelay;
+        this.responder = responder;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        calls.incrementAndGet();
+        try {
+            Thread.sleep(latency.apply(prompt).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted", e);
+        }
+        return response(responder.apply(prompt));
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        Flux<String> chunks = Flux.fromArray(responder.apply(prompt).split("(?<=\n)"));
+        if (!chunkDelay.isZero()) {
+            chunks = chunks.concatMap(chunk -> Mono.just(chunk).delayElement(chunkDelay));
+        }
+        return Mono.delay(latency.apply(prompt))
+                .doOnNext(tick -> calls.incrementAndGet())
+                .thenMany(chunks)
+                .map(StubChatModel::response)
+                .doOnCancel(cancelled::incrementAndGet);
+    }
+
+    public int getCalls() {
+        return calls.get();
+    }
+
+    /**
+     * Streams cancelled before they completed
+     */
+    public int getCancelled() {
+        return cancelled.get();
+    }
+
+    private static ChatResponse response(String text) {
+        return new ChatResponse(List.of(new Generation(text)));
+    }
+}
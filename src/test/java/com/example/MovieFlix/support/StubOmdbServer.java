@@ -0,0 +1,91 @@
+package com.example.MovieFlix.support;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the OMDB API with configurable latency
+ *
+ * Answers "t=" and "i=" lookups with a synthetic movie derived from the query.
+ */
+public class StubOmdbServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    public StubOmdbServer(Duration latency) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = movieJson(query).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int getRequests() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static String movieJson(Map<String, String> query) {
+        String title = query.getOrDefault("t", query.getOrDefault("i", "Unknown"));
+        String imdbId = query.containsKey("i") ? query.get("i") : "tt" + Math.abs(title.hashCode());
+        String year = query.getOrDefault("y", "2010");
+        return """
+                {"Title":"%s","Year":"%s","Rated":"PG-13","Runtime":"148 min",
+                 "Genre":"Action, Sci-Fi, Thriller","Director":"Jane Doe",
+                 "Actors":"Actor One, Actor Two, Actor Three",
+                 "Plot":"A thief who steals corporate secrets through dream-sharing technology.",
+                 "Language":"English","Country":"United States","imdbRating":"8.8",
+                 "imdbVotes":"2,400,000","imdbID":"%s","Type":"movie","Response":"True"}
+                """.formatted(title.replace("\"", ""), year, imdbId);
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+}